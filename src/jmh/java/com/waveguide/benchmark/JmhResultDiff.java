@@ -0,0 +1,81 @@
+package com.waveguide.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares two JMH JSON result files (baseline, current) benchmark by benchmark.
+ *
+ * <p>Each row is keyed by benchmark name and parameters and shows both scores, the relative
+ * change and whether the difference exceeds the combined 99.9% error of the two runs. For
+ * throughput modes a positive change is an improvement, for time modes a negative one.
+ */
+public final class JmhResultDiff {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private JmhResultDiff() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: JmhResultDiff <baseline.json> <current.json>");
+            System.exit(2);
+        }
+        Map<String, JsonNode> baseline = read(new File(args[0]));
+        Map<String, JsonNode> current = read(new File(args[1]));
+
+        System.out.printf("%-90s %14s %14s %9s  %s%n", "Benchmark", "Baseline", "Current", "Change", "Unit");
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode now = entry.getValue().path("primaryMetric");
+            JsonNode before = baseline.containsKey(entry.getKey())
+                    ? baseline.get(entry.getKey()).path("primaryMetric")
+                    : null;
+            String unit = now.path("scoreUnit").asText();
+            if (before == null) {
+                System.out.printf("%-90s %14s %14.3f %9s  %s%n", entry.getKey(), "-", now.path("score").asDouble(), "new", unit);
+                continue;
+            }
+            double from = before.path("score").asDouble();
+            double to = now.path("score").asDouble();
+            double error = errorOf(before) + errorOf(now);
+            String change = from == 0.0 ? "n/a" : String.format("%+.1f%%", 100.0 * (to - from) / from);
+            String significant = Math.abs(to - from) > error ? "" : "  (within error)";
+            System.out.printf("%-90s %14.3f %14.3f %9s  %s%s%n", entry.getKey(), from, to, change, unit, significant);
+        }
+        for (String removed : baseline.keySet()) {
+            if (!current.containsKey(removed)) {
+                System.out.printf("%-90s %14.3f %14s %9s%n", removed,
+                        baseline.get(removed).path("primaryMetric").path("score").asDouble(), "-", "removed");
+            }
+        }
+    }
+
+    private static Map<String, JsonNode> read(File file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : MAPPER.readTree(file)) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText()
+                    .replaceFirst("^com\\.waveguide\\.", ""));
+            key.append(" [").append(result.path("mode").asText());
+            Iterator<Map.Entry<String, JsonNode>> params = result.path("params").fields();
+            while (params.hasNext()) {
+                Map.Entry<String, JsonNode> param = params.next();
+                key.append(", ").append(param.getKey()).append('=').append(param.getValue().asText());
+            }
+            results.put(key.append(']').toString(), result);
+        }
+        return results;
+    }
+
+    private static double errorOf(JsonNode metric) {
+        // JMH writes "NaN" when there are too few iterations for an error estimate
+        double error = metric.path("scoreError").asDouble(0.0);
+        return Double.isNaN(error) ? 0.0 : error;
+    }
+}
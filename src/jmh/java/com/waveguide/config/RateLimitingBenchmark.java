@@ -0,0 +1,85 @@
+package com.waveguide.config;
+
+import com.waveguide.cluster.MemoryStateBackend;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bucket lookup and token consumption in {@link RateLimitingFilter} with 8 threads. With one
+ * client every thread contends on the same bucket; with many, lookups spread over the map.
+ * The limit is high enough that no request is rejected.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class RateLimitingBenchmark {
+
+    private static final FilterChain PASS = (request, response) -> { };
+
+    @Param({"1", "10000"})
+    private int clients;
+
+    private RateLimitingFilter filter;
+
+    @Setup
+    public void setUp() {
+        filter = new RateLimitingFilter(new SimpleMeterRegistry(), new MemoryStateBackend(), Integer.MAX_VALUE, Integer.MAX_VALUE,
+                Integer.MAX_VALUE, DataSize.ofMegabytes(16), Duration.ofHours(1), Set.of());
+    }
+
+    @State(Scope.Thread)
+    public static class Client {
+
+        private MockHttpServletRequest[] requests;
+        private MockHttpServletResponse response;
+        private int next;
+
+        @Setup(Level.Trial)
+        public void setUp(RateLimitingBenchmark benchmark) {
+            requests = new MockHttpServletRequest[Math.min(benchmark.clients, 1024)];
+            for (int i = 0; i < requests.length; i++) {
+                requests[i] = new MockHttpServletRequest("GET", "/api/v1/waveguides");
+                int ip = benchmark.clients == 1 ? 1 : ThreadLocalRandom.current().nextInt(benchmark.clients);
+                requests[i].setRemoteAddr("10.0." + (ip >> 8) + "." + (ip & 0xff));
+            }
+            response = new MockHttpServletResponse();
+        }
+
+        private MockHttpServletRequest next() {
+            MockHttpServletRequest request = requests[next];
+            next = next + 1 == requests.length ? 0 : next + 1;
+            return request;
+        }
+    }
+
+    @Benchmark
+    public int filter(Client client) throws Exception {
+        filter.doFilterInternal(client.next(), client.response, PASS);
+        return client.response.getStatus();
+    }
+}
@@ -0,0 +1,126 @@
+package com.waveguide.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.waveguide.WaveguideManagementSystemApplication;
+import com.waveguide.model.dto.request.LayerRequest;
+import com.waveguide.model.dto.request.UserRegistrationRequest;
+import com.waveguide.model.dto.request.WaveguideRequest;
+import com.waveguide.model.dto.response.AuthResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test of the running application: 400 concurrent clients, twice Tomcat's default
+ * thread count, page through the waveguide listing over HTTP against an in-memory database
+ * behind the default 10-connection pool. Sampled latencies give the p99 of each execution
+ * mode. Only platform threads are measured by default, so that a run of every benchmark
+ * works on Java 17; on Java 21 compare both with {@code -p virtualThreads=false,true}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(400)
+@Fork(1)
+public class ServletThreadingBenchmark {
+
+    @Param({"false"})
+    private boolean virtualThreads;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest listWaveguides;
+
+    @Setup
+    public void setUp() throws Exception {
+        context = new SpringApplicationBuilder(WaveguideManagementSystemApplication.class)
+                .profiles("test")
+                // Arguments rather than default properties, so they override the test profile
+                .run(
+                        "--server.port=0",
+                        "--app.threads.virtual=" + virtualThreads,
+                        "--spring.datasource.url=jdbc:h2:mem:load;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.show-sql=false",
+                        "--app.rate-limiting.requests-per-hour=" + Integer.MAX_VALUE,
+                        "--app.rate-limiting.read-requests-per-hour=" + Integer.MAX_VALUE,
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.springframework.web=WARN",
+                        "--logging.level.org.springframework.security=WARN",
+                        "--logging.level.com.waveguide=WARN");
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        String baseUrl = "http://localhost:" + port + "/api/v1";
+        ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        UserRegistrationRequest registration = UserRegistrationRequest.builder()
+                .username("load")
+                .email("load@example.com")
+                .password("Password123")
+                .build();
+        String token = objectMapper.readValue(post(baseUrl + "/auth/register", null,
+                objectMapper.writeValueAsString(registration)), AuthResponse.class).getToken();
+        LayerRequest layer = LayerRequest.builder().E(0.0).reEps(2.25).imEps(0.0).d(1.0).build();
+        WaveguideRequest waveguide = WaveguideRequest.builder()
+                .nEffMin(1.0)
+                .nEffMax(1.5)
+                .layers(List.of(layer, layer, layer))
+                .build();
+        for (int i = 0; i < 50; i++) {
+            post(baseUrl + "/waveguides", token, objectMapper.writeValueAsString(waveguide));
+        }
+        listWaveguides = HttpRequest.newBuilder(URI.create(baseUrl + "/waveguides?size=20"))
+                .header("Authorization", "Bearer " + token)
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int listWaveguides() throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(listWaveguides, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET /waveguides returned " + response.statusCode());
+        }
+        return response.body().length;
+    }
+
+    private String post(String url, String token, String json) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException("POST " + url + " returned " + response.statusCode() + ": " + response.body());
+        }
+        return response.body();
+    }
+}
@@ -0,0 +1,81 @@
+package com.waveguide.model.dto.response;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of a waveguide listing page with the mapper Spring MVC builds.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageResponseSerializationBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    @Param({"4"})
+    private int layersPerWaveguide;
+
+    private ObjectMapper objectMapper;
+    private PageResponse<WaveguideResponse> page;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        List<WaveguideResponse> content = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            List<LayerResponse> layers = new ArrayList<>(layersPerWaveguide);
+            for (int j = 0; j < layersPerWaveguide; j++) {
+                layers.add(LayerResponse.builder()
+                        .id(UUID.randomUUID())
+                        .layerIndex(j)
+                        .E(0.0)
+                        .reEps(2.25 + 0.01 * j)
+                        .imEps(0.0)
+                        .d(0.3)
+                        .build());
+            }
+            content.add(WaveguideResponse.builder()
+                    .id(UUID.randomUUID())
+                    .nEffMin(1.0)
+                    .nEffMax(1.5)
+                    .layers(layers)
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        }
+        page = PageResponse.<WaveguideResponse>builder()
+                .content(content)
+                .page(0)
+                .size(pageSize)
+                .totalElements(10_000)
+                .totalPages(10_000 / pageSize)
+                .last(false)
+                .build();
+    }
+
+    @Benchmark
+    public byte[] writeValueAsBytes() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,88 @@
+package com.waveguide.model.dto.response;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding of one waveguide response in each wire format: JSON, CBOR with one
+ * map per layer as Spring would write it by default, and CBOR with the layers in packed
+ * columns as served for {@code Accept: application/cbor}. The encoded size of each is
+ * printed at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WaveguideEncodingBenchmark {
+
+    @Param({"json", "cbor-rows", "cbor"})
+    private String format;
+
+    @Param({"500"})
+    private int layers;
+
+    private ObjectMapper objectMapper;
+    private WaveguideResponse waveguide;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = switch (format) {
+            case "json" -> Jackson2ObjectMapperBuilder.json().build();
+            case "cbor-rows" -> Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+            case "cbor" -> Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build()
+                    .registerModule(new ColumnarModule());
+            default -> throw new IllegalArgumentException("Unknown format: " + format);
+        };
+        List<LayerResponse> stack = new ArrayList<>(layers);
+        for (int i = 0; i < layers; i++) {
+            stack.add(LayerResponse.builder()
+                    .id(UUID.randomUUID())
+                    .layerIndex(i)
+                    .E(0.0)
+                    .reEps(2.25 + 0.001 * i)
+                    .imEps(i % 7 == 0 ? 1e-4 : 0.0)
+                    .d(0.05 + 0.0001 * i)
+                    .build());
+        }
+        waveguide = WaveguideResponse.builder()
+                .id(UUID.randomUUID())
+                .nEffMin(1.0)
+                .nEffMax(1.5)
+                .layers(stack)
+                .createdAt(LocalDateTime.now())
+                .build();
+        encoded = objectMapper.writeValueAsBytes(waveguide);
+        System.out.printf("%n%s, %d layers: %d bytes%n", format, layers, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws Exception {
+        return objectMapper.writeValueAsBytes(waveguide);
+    }
+
+    @Benchmark
+    public WaveguideResponse decode() throws Exception {
+        return objectMapper.readValue(encoded, WaveguideResponse.class);
+    }
+}
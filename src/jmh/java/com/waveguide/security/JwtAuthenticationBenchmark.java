@@ -0,0 +1,105 @@
+package com.waveguide.security;
+
+import com.waveguide.cluster.MemoryStateBackend;
+import com.waveguide.model.entity.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.Key;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of turning a bearer token into an {@link Authentication}.
+ * <p>
+ * {@code legacyPipeline} reproduces the former filter path (a fresh parser and a full
+ * signature check for validation, authentication and username lookup);
+ * {@code authenticateUncached} is one verification with the prebuilt parser; and
+ * {@code authenticateCached} is a repeat request with the same token. {@code generateToken}
+ * and {@code validateToken} cover the login and logout paths.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationBenchmark {
+
+    private static final String SECRET =
+            "benchmarkSecretKeyThatIsLongEnoughForHs512SigningAndIsOnlyUsedToMeasureTokenVerification";
+
+    private JwtTokenProvider cachedProvider;
+    private JwtTokenProvider uncachedProvider;
+    private Key key;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cachedProvider = provider(Duration.ofMinutes(5));
+        uncachedProvider = provider(Duration.ZERO);
+        key = Keys.hmacShaKeyFor(Base64.getEncoder().encodeToString(SECRET.getBytes()).getBytes());
+        user = User.builder()
+                .id(UUID.randomUUID())
+                .username("benchmark")
+                .email("benchmark@example.com")
+                .build();
+        token = cachedProvider.generateToken(user);
+        cachedProvider.authenticate(token);
+    }
+
+    @Benchmark
+    public String legacyPipeline() {
+        Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+        Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+        Claims claims = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+        return claims.getSubject();
+    }
+
+    @Benchmark
+    public Authentication authenticateUncached() {
+        return uncachedProvider.authenticate(token);
+    }
+
+    @Benchmark
+    public Authentication authenticateCached() {
+        return cachedProvider.authenticate(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return uncachedProvider.generateToken(user);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return uncachedProvider.validateToken(token);
+    }
+
+    private static JwtTokenProvider provider(Duration claimsCacheTtl) {
+        JwtTokenProvider provider = new JwtTokenProvider(new JwtTokenBlacklist(new MemoryStateBackend()));
+        ReflectionTestUtils.setField(provider, "secretKey", SECRET);
+        ReflectionTestUtils.setField(provider, "expirationMs", 3_600_000L);
+        ReflectionTestUtils.setField(provider, "issuer", "benchmark");
+        ReflectionTestUtils.setField(provider, "claimsCacheMaximumSize", 10_000L);
+        ReflectionTestUtils.setField(provider, "claimsCacheTtl", claimsCacheTtl);
+        provider.init();
+        return provider;
+    }
+}
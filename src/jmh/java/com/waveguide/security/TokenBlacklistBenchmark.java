@@ -0,0 +1,66 @@
+package com.waveguide.security;
+
+import com.waveguide.cluster.MemoryStateBackend;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Blacklist lookup for a token that was never revoked (the case on almost every request)
+ * and for one that was, with {@code revokedTokens} held. The digest is computed in setup,
+ * as {@link JwtTokenProvider#authenticate} shares it with the claims cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class TokenBlacklistBenchmark {
+
+    @Param({"100", "100000"})
+    private int revokedTokens;
+
+    private JwtTokenBlacklist blacklist;
+    private byte[] activeDigest;
+    private byte[] revokedDigest;
+
+    @Setup
+    public void setUp() {
+        blacklist = new JwtTokenBlacklist(new MemoryStateBackend());
+        Date expiration = Date.from(Instant.now().plus(Duration.ofHours(1)));
+        String token = null;
+        for (int i = 0; i < revokedTokens; i++) {
+            token = "header.payload-" + UUID.randomUUID() + ".signature";
+            blacklist.addToBlacklist(token, expiration);
+        }
+        revokedDigest = JwtTokenProvider.sha256(token);
+        activeDigest = JwtTokenProvider.sha256("header.payload-" + UUID.randomUUID() + ".signature");
+    }
+
+    @Benchmark
+    public boolean notRevoked() {
+        return blacklist.isBlacklisted(activeDigest);
+    }
+
+    @Benchmark
+    public boolean revoked() {
+        return blacklist.isBlacklisted(revokedDigest);
+    }
+}
@@ -0,0 +1,61 @@
+package com.waveguide.service;
+
+import com.waveguide.model.dto.response.WaveguideResponse;
+import com.waveguide.model.entity.Layer;
+import com.waveguide.model.entity.User;
+import com.waveguide.model.entity.Waveguide;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to response mapping of one waveguide, as done for every detail and create response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WaveguideMappingBenchmark {
+
+    @Param({"4", "100"})
+    private int layers;
+
+    private WaveguideService waveguideService;
+    private Waveguide waveguide;
+
+    @Setup
+    public void setUp() {
+        // Mapping touches none of the collaborators
+        waveguideService = new WaveguideService(null, null, null, null, null);
+        waveguide = Waveguide.builder()
+                .id(UUID.randomUUID())
+                .user(User.builder().id(UUID.randomUUID()).username("benchmark").build())
+                .nEffMin(1.0)
+                .nEffMax(3.5)
+                .createdAt(LocalDateTime.now())
+                .build();
+        for (int i = 0; i < layers; i++) {
+            Layer layer = Layer.builder().id(UUID.randomUUID()).E(0.0).reEps(2.0 + i % 3).imEps(0.0).d(0.25).build();
+            waveguide.addLayer(layer);
+        }
+    }
+
+    @Benchmark
+    public WaveguideResponse convertToWaveguideResponse() {
+        return waveguideService.convertToWaveguideResponse(waveguide);
+    }
+}
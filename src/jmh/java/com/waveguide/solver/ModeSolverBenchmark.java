@@ -0,0 +1,99 @@
+package com.waveguide.solver;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Solver kernels on a multilayer stack: one residual evaluation (the inner loop of every
+ * scan), a full single-threaded window scan, and a continuation step from the solution of a
+ * neighbouring wavelength as done by sweeps.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModeSolverBenchmark {
+
+    @Param({"3", "40"})
+    private int layers;
+
+    @Param({"0.0", "0.01"})
+    private double loss;
+
+    private ForkJoinPool pool;
+    private ModeSolver modeSolver;
+    private LayerStack stack;
+    private SolveSpec spec;
+    private SolveSpec nextSpec;
+    private ModeSolution solution;
+    private DispersionFunction function;
+    private double n;
+
+    @Setup
+    public void setUp() {
+        pool = new ForkJoinPool(1);
+        modeSolver = new ModeSolver(pool, 1, 256);
+
+        // Alternating high/low index films between two claddings
+        double[] e = new double[layers];
+        double[] reEps = new double[layers];
+        double[] imEps = new double[layers];
+        double[] d = new double[layers];
+        for (int i = 0; i < layers; i++) {
+            boolean cladding = i == 0 || i == layers - 1;
+            reEps[i] = cladding ? 2.1 : (i % 2 == 1 ? 4.0 : 2.5);
+            imEps[i] = cladding ? 0.0 : loss;
+            d[i] = cladding ? 0.0 : 0.2;
+        }
+        stack = LayerStack.of(e, reEps, imEps, d);
+        spec = SolveSpec.builder()
+                .wavelength(1.55)
+                .polarization(Polarization.TE)
+                .nEffMin(1.0)
+                .nEffMax(2.0)
+                .samples(4096)
+                .tolerance(1e-12)
+                .parallelism(1)
+                .build();
+        nextSpec = spec.toBuilder().wavelength(1.551).build();
+        solution = modeSolver.solve(stack, spec);
+        function = new DispersionFunction(stack, Polarization.TE, 1.55);
+        n = 1.5;
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public double evaluate() {
+        function.evaluate(n, 0.0);
+        return function.re();
+    }
+
+    @Benchmark
+    public ModeSolution solve() {
+        return modeSolver.solve(stack, spec);
+    }
+
+    @Benchmark
+    public ModeSolution solveFrom() {
+        return modeSolver.solveFrom(stack, nextSpec, solution);
+    }
+}
@@ -0,0 +1,123 @@
+package com.waveguide.cluster;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link StateBackend} on the {@code rate_limit_usage} and {@code token_revocations} tables
+ * of the application database, so every instance sees the same counters and revocations.
+ * <p>
+ * Counters are upserted as update-then-insert (retrying the update when another instance
+ * inserted first), which works the same on PostgreSQL and H2.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cluster.state-backend", havingValue = "jdbc")
+@Slf4j
+public class JdbcStateBackend implements StateBackend {
+
+    private static final String UPDATE_USAGE_SQL =
+            "UPDATE rate_limit_usage SET used = used + ? WHERE bucket_key = ?";
+    private static final String INSERT_USAGE_SQL =
+            "INSERT INTO rate_limit_usage (bucket_key, used, expires_at) VALUES (?, ?, ?)";
+    private static final String SELECT_USAGE_SQL =
+            "SELECT bucket_key, used FROM rate_limit_usage WHERE bucket_key IN (:keys)";
+    private static final String INSERT_REVOCATION_SQL =
+            "INSERT INTO token_revocations (digest, expires_at, revoked_at) VALUES (?, ?, ?)";
+    private static final String SELECT_REVOCATIONS_SQL =
+            "SELECT digest, expires_at FROM token_revocations WHERE revoked_at >= ? AND expires_at > ?";
+
+    /** Keys per {@code IN} list when reading totals back. */
+    private static final int READ_CHUNK = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public JdbcStateBackend(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    @Override
+    public Map<String, Long> addUsage(Map<String, Long> deltas, Instant expiresAt) {
+        if (deltas.isEmpty()) {
+            return Map.of();
+        }
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(deltas.entrySet());
+        List<Object[]> increments = new ArrayList<>(entries.size());
+        for (Map.Entry<String, Long> entry : entries) {
+            increments.add(new Object[]{entry.getValue(), entry.getKey()});
+        }
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_USAGE_SQL, increments);
+
+        Timestamp expires = Timestamp.from(expiresAt);
+        for (int i = 0; i < entries.size(); i++) {
+            if (updated[i] == 0) {
+                // First use of this window anywhere in the cluster
+                String key = entries.get(i).getKey();
+                long delta = entries.get(i).getValue();
+                try {
+                    jdbcTemplate.update(INSERT_USAGE_SQL, key, delta, expires);
+                } catch (DuplicateKeyException e) {
+                    jdbcTemplate.update(UPDATE_USAGE_SQL, delta, key);
+                }
+            } else if (updated[i] != 1 && updated[i] != Statement.SUCCESS_NO_INFO) {
+                log.warn("Unexpected update count {} for rate limit counter {}", updated[i], entries.get(i).getKey());
+            }
+        }
+
+        Map<String, Long> totals = new HashMap<>(entries.size() * 2);
+        for (int from = 0; from < entries.size(); from += READ_CHUNK) {
+            List<String> keys = new ArrayList<>(Math.min(READ_CHUNK, entries.size() - from));
+            for (int i = from; i < Math.min(from + READ_CHUNK, entries.size()); i++) {
+                keys.add(entries.get(i).getKey());
+            }
+            namedJdbcTemplate.query(SELECT_USAGE_SQL, new MapSqlParameterSource("keys", keys),
+                    rs -> {
+                        totals.put(rs.getString(1), rs.getLong(2));
+                    });
+        }
+        return totals;
+    }
+
+    @Override
+    public void revoke(String digest, Instant expiresAt) {
+        try {
+            jdbcTemplate.update(INSERT_REVOCATION_SQL, digest, Timestamp.from(expiresAt), Timestamp.from(Instant.now()));
+        } catch (DuplicateKeyException e) {
+            // Already revoked, e.g. a repeated logout
+        }
+    }
+
+    @Override
+    public Map<String, Instant> revokedSince(Instant since) {
+        Map<String, Instant> revoked = new HashMap<>();
+        jdbcTemplate.query(SELECT_REVOCATIONS_SQL,
+                rs -> {
+                    revoked.put(rs.getString(1), rs.getTimestamp(2).toInstant());
+                },
+                Timestamp.from(since), Timestamp.from(Instant.now()));
+        return revoked;
+    }
+
+    @Scheduled(fixedRateString = "${app.cluster.purge-interval:PT1H}")
+    public void purgeExpired() {
+        Timestamp now = Timestamp.from(Instant.now());
+        int usage = jdbcTemplate.update("DELETE FROM rate_limit_usage WHERE expires_at < ?", now);
+        int revocations = jdbcTemplate.update("DELETE FROM token_revocations WHERE expires_at < ?", now);
+        log.debug("Purged {} rate limit counters and {} token revocations", usage, revocations);
+    }
+}
@@ -0,0 +1,64 @@
+package com.waveguide.cluster;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process {@link StateBackend}: correct for a single instance, limits and logouts are
+ * not shared with other instances.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cluster.state-backend", havingValue = "memory", matchIfMissing = true)
+public class MemoryStateBackend implements StateBackend {
+
+    private final Map<String, Revocation> revocations = new ConcurrentHashMap<>();
+
+    /**
+     * Keeps nothing: with no other instance the usage is what the caller counts locally, so the
+     * deltas are returned as totals, which leaves no usage of other instances to add.
+     */
+    @Override
+    public Map<String, Long> addUsage(Map<String, Long> deltas, Instant expiresAt) {
+        return deltas;
+    }
+
+    @Override
+    public void revoke(String digest, Instant expiresAt) {
+        revocations.putIfAbsent(digest, new Revocation(expiresAt, Instant.now()));
+    }
+
+    @Override
+    public Map<String, Instant> revokedSince(Instant since) {
+        Instant now = Instant.now();
+        Map<String, Instant> revoked = new HashMap<>();
+        revocations.forEach((digest, revocation) -> {
+            if (!revocation.revokedAt.isBefore(since) && revocation.expiresAt.isAfter(now)) {
+                revoked.put(digest, revocation.expiresAt);
+            }
+        });
+        return revoked;
+    }
+
+    @Scheduled(fixedRateString = "${app.cluster.purge-interval:PT1H}")
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        revocations.values().removeIf(entry -> entry.expiresAt.isBefore(now));
+    }
+
+    private static final class Revocation {
+
+        private final Instant expiresAt;
+        private final Instant revokedAt;
+
+        private Revocation(Instant expiresAt, Instant revokedAt) {
+            this.expiresAt = expiresAt;
+            this.revokedAt = revokedAt;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.waveguide.cluster;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Store for state that must be consistent across instances: rate limit usage and revoked
+ * tokens. Callers keep a local near-cache and talk to the backend in batches from a
+ * background sync, never on the request path (logout being the one exception).
+ * <p>
+ * Select the implementation with {@code app.cluster.state-backend}: {@code memory}
+ * (default, single instance) or {@code jdbc} (shared tables in the application database).
+ */
+public interface StateBackend {
+
+    /**
+     * Adds locally consumed tokens to the shared counters.
+     *
+     * @param deltas    tokens consumed per counter key since the last call
+     * @param expiresAt when the counters may be dropped (end of their window)
+     * @return the cluster-wide total of every counter in {@code deltas}, including the deltas
+     */
+    Map<String, Long> addUsage(Map<String, Long> deltas, Instant expiresAt);
+
+    /**
+     * Records a revoked token. Revoking the same digest twice is not an error.
+     */
+    void revoke(String digest, Instant expiresAt);
+
+    /**
+     * Returns digest and expiry of every unexpired token revoked at or after {@code since}.
+     */
+    Map<String, Instant> revokedSince(Instant since);
+}
@@ -0,0 +1,107 @@
+package com.waveguide.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * In-process second-level cache (Caffeine behind JCache) for users, waveguides and their
+ * layers, and for the cached user lookup queries.
+ * <p>
+ * Regions are created here rather than by Hibernate so that their sizes come from
+ * {@code app.entity-cache}. Entries are Hibernate's immutable disassembled state, so they
+ * are stored by reference instead of being copied on every read. The update timestamps
+ * region, which tells whether a cached query result is still current, is never evicted.
+ * <p>
+ * The cache is not shared between instances: a write on one instance is not seen by the
+ * others until their entries expire. With {@code app.cluster.state-backend: jdbc}, which
+ * means several instances, it is therefore off unless {@code app.entity-cache.enabled}
+ * turns it on explicitly.
+ */
+@Configuration
+@Slf4j
+public class EntityCacheConfig {
+
+    /** Entity, collection and query regions, named in the {@code @Cache} mappings and query hints. */
+    private static final List<String> REGIONS = List.of("users", "waveguides", "waveguide-layers", "layers", "user-lookups",
+            RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME);
+
+    @Bean(destroyMethod = "close")
+    public CacheManager entityCacheManager(
+            @Value("${app.entity-cache.maximum-size:10000}") long maximumSize,
+            @Value("${app.entity-cache.ttl:PT10M}") Duration ttl
+    ) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        // One manager per application context; the provider would share the default one JVM-wide
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("urn:waveguide:entity-cache:" + UUID.randomUUID()), getClass().getClassLoader());
+        for (String region : REGIONS) {
+            cacheManager.createCache(region, configuration()
+                    .setMaximumSize(OptionalLong.of(maximumSize))
+                    .setExpireAfterWrite(OptionalLong.of(ttl.toNanos())));
+        }
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, configuration());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheCustomizer(
+            CacheManager entityCacheManager,
+            @Value("${app.cluster.state-backend:memory}") String stateBackend,
+            @Value("${app.entity-cache.enabled:#{null}}") Boolean enabled,
+            @Value("${app.entity-cache.ttl:PT10M}") Duration ttl
+    ) {
+        boolean clustered = "jdbc".equals(stateBackend);
+        if (enabled == null ? clustered : !enabled) {
+            log.info("Second-level cache disabled{}", clustered ? ": it is not shared between instances" : "");
+            return properties -> {
+                properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, false);
+                properties.put(AvailableSettings.USE_QUERY_CACHE, false);
+            };
+        }
+        if (clustered) {
+            log.warn("Second-level cache enabled with several instances: changes made on another instance, "
+                    + "including waveguide versions used as ETags, can be read stale for up to {}", ttl);
+        }
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+    }
+
+    @Bean
+    public MeterBinder entityCacheMetrics(CacheManager entityCacheManager) {
+        return registry -> {
+            for (String region : REGIONS) {
+                @SuppressWarnings("unchecked")
+                com.github.benmanes.caffeine.cache.Cache<Object, Object> cache = entityCacheManager.getCache(region)
+                        .unwrap(com.github.benmanes.caffeine.cache.Cache.class);
+                Gauge.builder("hibernate.cache.region.size", cache, com.github.benmanes.caffeine.cache.Cache::estimatedSize)
+                        .description("Entries held in a second-level cache region")
+                        .tag("region", region)
+                        .register(registry);
+            }
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> configuration() {
+        return new CaffeineConfiguration<>()
+                .setStoreByValue(false)
+                .setStatisticsEnabled(true);
+    }
+}
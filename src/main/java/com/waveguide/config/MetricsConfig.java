@@ -0,0 +1,82 @@
+package com.waveguide.config;
+
+import com.waveguide.job.JobWorkerPool;
+import com.waveguide.security.JwtTokenBlacklist;
+import com.waveguide.security.PasswordHashingService;
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Tags {@code http.server.requests} with the controller method that handled the request,
+     * so every endpoint gets its own latency histogram even where URI templates overlap.
+     */
+    @Bean
+    public ServerRequestObservationConvention serverRequestObservationConvention() {
+        return new DefaultServerRequestObservationConvention() {
+            @Override
+            public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+                Object handler = context.getCarrier().getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+                String name = handler instanceof HandlerMethod method
+                        ? method.getBeanType().getSimpleName() + "." + method.getMethod().getName()
+                        : "none";
+                return super.getLowCardinalityKeyValues(context).and(KeyValue.of("handler", name));
+            }
+        };
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCountingCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new StatementCountingFilter.Inspector());
+    }
+
+    @Bean
+    public MeterBinder passwordHashingMetrics(PasswordHashingService passwordHashingService) {
+        return registry -> {
+            Gauge.builder("password.hashing.queue.depth", passwordHashingService, PasswordHashingService::getQueueDepth)
+                    .description("Password operations waiting for a hashing thread")
+                    .register(registry);
+            Gauge.builder("password.hashing.active", passwordHashingService, PasswordHashingService::getActiveCount)
+                    .description("Hashing threads currently busy")
+                    .register(registry);
+            FunctionCounter.builder("password.hashing.rejected", passwordHashingService, PasswordHashingService::getRejectedCount)
+                    .description("Password operations shed because the hashing queue was full")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder tokenBlacklistMetrics(JwtTokenBlacklist tokenBlacklist) {
+        return registry -> {
+            Gauge.builder("jwt.blacklist.tokens", tokenBlacklist, JwtTokenBlacklist::size)
+                    .description("Revoked tokens held until they expire")
+                    .register(registry);
+            Gauge.builder("jwt.blacklist.memory", tokenBlacklist, JwtTokenBlacklist::memoryBytes)
+                    .description("Heap used by the token blacklist")
+                    .baseUnit(BaseUnits.BYTES)
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder jobMetrics(JobWorkerPool jobWorkerPool) {
+        return registry -> Gauge.builder("jobs.running", jobWorkerPool, JobWorkerPool::getRunningCount)
+                .description("Jobs running on this instance")
+                .register(registry);
+    }
+}
@@ -1,37 +1,135 @@
 package com.waveguide.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.waveguide.cluster.StateBackend;
 import com.waveguide.model.dto.response.ErrorResponse;
-import io.github.bucket4j.Bandwidth;
-import io.github.bucket4j.Bucket;
-import io.github.bucket4j.Bucket4j;
-import io.github.bucket4j.Refill;
+import com.waveguide.security.UserPrincipal;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Per-client request counters, one per {@link Limit} class and hourly window.
+ * <p>
+ * Authenticated requests are keyed by user id (this filter runs inside the Spring Security
+ * chain, after the JWT filter has set the authentication), anonymous ones by client address.
+ * {@code X-Forwarded-For} is only honoured when the direct peer is one of the configured
+ * trusted proxies, so clients cannot mint fresh counters by spoofing the header.
+ * <p>
+ * Counters live in a Caffeine cache bounded by an estimate of their memory footprint and
+ * dropped after {@code idle-expiry} without requests. They are a near-cache of the counters
+ * in the {@link StateBackend}: requests are admitted against the local count plus the usage
+ * of other instances as of the last sync, and every {@code app.cluster.sync-interval} the
+ * tokens taken since are pushed in one batch and the cluster totals read back. With a
+ * shared backend an instance can therefore overshoot a limit by what it admits within one
+ * sync interval, and an evicted counter picks its usage up again from the backend.
+ */
 @Component
+@Order(Ordered.LOWEST_PRECEDENCE)
 @Slf4j
 public class RateLimitingFilter extends OncePerRequestFilter {
 
-    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
-    private final ObjectMapper objectMapper = new ObjectMapper();
-    
-    @Value("${app.rate-limiting.requests-per-hour:100}")
-    private int requestsPerHour;
+    /** Rough heap cost of one cache entry: Caffeine node, counter and key object, excluding key chars. */
+    static final int ENTRY_OVERHEAD_BYTES = 320;
+
+    static final long WINDOW_MILLIS = Duration.ofHours(1).toMillis();
+
+    enum Limit {
+        /** Login and registration: credential stuffing and account creation. */
+        AUTH,
+        /** GET and HEAD requests. */
+        READ,
+        /** Everything else. */
+        WRITE
+    }
+
+    private final StateBackend stateBackend;
+    private final Cache<String, WindowCounter> counters;
+    private final Queue<WindowCounter> unsynced = new ConcurrentLinkedQueue<>();
+    private final Map<Limit, Long> limits = new EnumMap<>(Limit.class);
+    private final Map<Limit, Counter> rejections = new EnumMap<>(Limit.class);
+    private final Set<String> trustedProxies;
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    public RateLimitingFilter(
+            MeterRegistry meterRegistry,
+            StateBackend stateBackend,
+            @Value("${app.rate-limiting.requests-per-hour:100}") int requestsPerHour,
+            @Value("${app.rate-limiting.read-requests-per-hour:1000}") int readRequestsPerHour,
+            @Value("${app.rate-limiting.auth-requests-per-hour:20}") int authRequestsPerHour,
+            @Value("${app.rate-limiting.max-memory:16MB}") DataSize maxMemory,
+            @Value("${app.rate-limiting.idle-expiry:PT1H}") Duration idleExpiry,
+            @Value("${app.rate-limiting.trusted-proxies:}") Set<String> trustedProxies
+    ) {
+        this.stateBackend = stateBackend;
+        limits.put(Limit.WRITE, (long) requestsPerHour);
+        limits.put(Limit.READ, (long) readRequestsPerHour);
+        limits.put(Limit.AUTH, (long) authRequestsPerHour);
+        this.trustedProxies = Set.copyOf(trustedProxies);
+        this.counters = Caffeine.newBuilder()
+                .maximumWeight(maxMemory.toBytes())
+                .weigher((String key, WindowCounter counter) -> ENTRY_OVERHEAD_BYTES + 2 * key.length())
+                .expireAfterAccess(idleExpiry)
+                .recordStats()
+                .build();
+
+        for (Limit limit : Limit.values()) {
+            rejections.put(limit, Counter.builder("rate.limit.rejections")
+                    .description("Requests rejected with 429 by the rate limiter")
+                    .tag("limit", limit.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        Gauge.builder("rate.limit.buckets", counters, Cache::estimatedSize)
+                .description("Rate limit counters currently held")
+                .register(meterRegistry);
+        Gauge.builder("rate.limit.buckets.memory", counters, cache -> cache.policy().eviction()
+                        .map(eviction -> eviction.weightedSize().orElse(0L))
+                        .orElse(0L))
+                .description("Estimated heap held by rate limit counters")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, counters, "rateLimitBuckets");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Health checks and metric scrapes must not eat into (or be blocked by) client limits
+        return request.getRequestURI().startsWith("/actuator/");
+    }
 
     @Override
     protected void doFilterInternal(
@@ -44,46 +142,149 @@ public class RateLimitingFilter extends OncePerRequestFilter {
             filterChain.doFilter(request, response);
             return;
         }
-        
-        // Get client IP for rate limiting
-        String clientIp = getClientIp(request);
-        
-        // Get or create rate limiter for this IP
-        Bucket bucket = buckets.computeIfAbsent(clientIp, this::createNewBucket);
-        
+
+        Limit limit = limitFor(request);
+        String client = clientKey(request);
+        long window = System.currentTimeMillis() / WINDOW_MILLIS;
+
+        // Get or create the counter of this client for this kind of request in the current window
+        WindowCounter counter = counters.get(limit.name() + '|' + client + '|' + window,
+                key -> new WindowCounter(key, window, limits.get(limit)));
+
         // Try to consume a token
-        if (bucket.tryConsume(1)) {
+        if (counter.tryConsume()) {
+            if (!counter.queued.get() && counter.queued.compareAndSet(false, true)) {
+                unsynced.offer(counter);
+            }
             filterChain.doFilter(request, response);
         } else {
             // Rate limit exceeded
-            log.warn("Rate limit exceeded for IP: {}", clientIp);
-            
+            rejections.get(limit).increment();
+            log.warn("Rate limit ({}) exceeded for {}", limit, client);
+
             response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
             response.setContentType(MediaType.APPLICATION_JSON_VALUE);
-            
+
             ErrorResponse errorResponse = ErrorResponse.builder()
                     .status(HttpStatus.TOO_MANY_REQUESTS.value())
                     .message("Rate limit exceeded. Try again later.")
                     .timestamp(LocalDateTime.now())
                     .path(request.getRequestURI())
                     .build();
-            
-            objectMapper.findAndRegisterModules();
+
             response.getWriter().write(objectMapper.writeValueAsString(errorResponse));
         }
     }
 
-    private Bucket createNewBucket(String clientIp) {
-        return Bucket4j.builder()
-                .addLimit(Bandwidth.classic(requestsPerHour, Refill.intervally(requestsPerHour, Duration.ofHours(1))))
-                .build();
+    Limit limitFor(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        if (path.equals("/api/v1/auth/login") || path.equals("/api/v1/auth/register")) {
+            return Limit.AUTH;
+        }
+        String method = request.getMethod();
+        return method.equals("GET") || method.equals("HEAD") ? Limit.READ : Limit.WRITE;
+    }
+
+    String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return "user:" + principal.getId();
+        }
+        return "ip:" + clientIp(request);
+    }
+
+    long counterCount() {
+        counters.cleanUp();
+        return counters.estimatedSize();
+    }
+
+    /**
+     * Pushes the tokens taken since the last sync to the backend and refreshes every touched
+     * counter with the usage of the other instances. If the backend is unreachable the counts
+     * are kept and sent with the next sync; meanwhile only local usage is enforced.
+     */
+    @Scheduled(fixedDelayString = "${app.cluster.sync-interval:PT0.5S}")
+    public void syncUsage() {
+        Map<Long, List<WindowCounter>> byWindow = new HashMap<>();
+        WindowCounter counter;
+        while ((counter = unsynced.poll()) != null) {
+            counter.queued.set(false);
+            counter.sending = counter.local.get() - counter.synced;
+            if (counter.sending > 0) {
+                byWindow.computeIfAbsent(counter.window, window -> new ArrayList<>()).add(counter);
+            }
+        }
+
+        byWindow.forEach((window, batch) -> {
+            Map<String, Long> deltas = new HashMap<>(batch.size() * 2);
+            for (WindowCounter pending : batch) {
+                deltas.put(pending.key, pending.sending);
+            }
+            try {
+                Map<String, Long> totals = stateBackend.addUsage(deltas, Instant.ofEpochMilli((window + 1) * WINDOW_MILLIS));
+                for (WindowCounter synced : batch) {
+                    synced.synced += synced.sending;
+                    Long total = totals.get(synced.key);
+                    if (total != null) {
+                        synced.remote = Math.max(0L, total - synced.synced);
+                    }
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not sync {} rate limit counters: {}", batch.size(), e.getMessage());
+                for (WindowCounter failed : batch) {
+                    if (failed.queued.compareAndSet(false, true)) {
+                        unsynced.offer(failed);
+                    }
+                }
+            }
+        });
     }
 
-    private String getClientIp(HttpServletRequest request) {
+    private String clientIp(HttpServletRequest request) {
+        String remoteAddr = request.getRemoteAddr();
         String xForwardedFor = request.getHeader("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
-            return xForwardedFor.split(",")[0].trim();
+        if (xForwardedFor == null || xForwardedFor.isEmpty() || !trustedProxies.contains(remoteAddr)) {
+            return remoteAddr;
+        }
+        // Walk back from the nearest hop; the first address not added by one of our proxies is the client
+        String[] hops = xForwardedFor.split(",");
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            if (!hop.isEmpty() && !trustedProxies.contains(hop)) {
+                return hop;
+            }
+        }
+        return hops[0].trim();
+    }
+
+    static final class WindowCounter {
+
+        private final String key;
+        private final long window;
+        private final long limit;
+        /** Tokens taken on this instance in the window. */
+        private final AtomicLong local = new AtomicLong();
+        /** Tokens taken on other instances, as of the last sync. */
+        private volatile long remote;
+        /** Set while the counter waits in the sync queue. */
+        private final AtomicBoolean queued = new AtomicBoolean();
+        /** Local tokens already added to the backend; sync thread only. */
+        private long synced;
+        /** Local tokens in the current sync; sync thread only. */
+        private long sending;
+
+        WindowCounter(String key, long window, long limit) {
+            this.key = key;
+            this.window = window;
+            this.limit = limit;
+        }
+
+        boolean tryConsume() {
+            if (remote + local.incrementAndGet() <= limit) {
+                return true;
+            }
+            local.decrementAndGet();
+            return false;
         }
-        return request.getRemoteAddr();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,17 @@
+package com.waveguide.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ForkJoinPool;
+
+@Configuration
+public class SolverConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool solverPool(@Value("${app.solver.pool-parallelism:0}") int parallelism) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        return new ForkJoinPool(threads);
+    }
+}
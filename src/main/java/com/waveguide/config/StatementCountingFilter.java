@@ -0,0 +1,72 @@
+package com.waveguide.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Records how many SQL statements Hibernate prepares per HTTP request
+ * ({@code hibernate.statements.per.request}). {@link Inspector} is registered as
+ * Hibernate's statement inspector and counts on the request thread, so statements issued
+ * from other threads (password hashing, async stream writers) are not attributed to the
+ * request.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class StatementCountingFilter extends OncePerRequestFilter {
+
+    private static final ThreadLocal<int[]> STATEMENTS = new ThreadLocal<>();
+
+    private final DistributionSummary statementsPerRequest;
+
+    public StatementCountingFilter(MeterRegistry meterRegistry) {
+        this.statementsPerRequest = DistributionSummary.builder("hibernate.statements.per.request")
+                .description("SQL statements prepared by Hibernate while handling one request")
+                .baseUnit("statements")
+                .serviceLevelObjectives(1, 2, 5, 10, 20, 50, 100)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator/");
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+        int[] count = new int[1];
+        STATEMENTS.set(count);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            STATEMENTS.remove();
+            statementsPerRequest.record(count[0]);
+        }
+    }
+
+    public static final class Inspector implements StatementInspector {
+
+        @Override
+        public String inspect(String sql) {
+            int[] count = STATEMENTS.get();
+            if (count != null) {
+                count[0]++;
+            }
+            return sql;
+        }
+    }
+}
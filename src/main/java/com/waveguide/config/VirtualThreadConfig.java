@@ -0,0 +1,72 @@
+package com.waveguide.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Opt-in ({@code app.threads.virtual: true}, Java 21 or later) execution of requests on
+ * virtual threads.
+ * <p>
+ * Tomcat hands every request to a new virtual thread instead of its bounded pool, so
+ * requests blocked on the database, the audit log's caller-runs flush or a password hash
+ * no longer hold a platform thread. The number of concurrent requests is then no longer
+ * limited by {@code server.tomcat.threads.max}, so database access is bounded explicitly
+ * by a {@link ConnectionLimitingDataSource} sized to the Hikari pool. Password hashing,
+ * solver and job pools keep their platform threads: their work is CPU-bound.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.threads.virtual", havingValue = "true")
+@Slf4j
+public class VirtualThreadConfig {
+
+    public VirtualThreadConfig() {
+        if (Runtime.version().feature() < 21) {
+            throw new IllegalStateException("app.threads.virtual requires Java 21 or later, running on "
+                    + Runtime.version());
+        }
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> {
+            protocolHandler.setExecutor(new VirtualThreadExecutor("tomcat-handler-"));
+            log.info("Handling requests on virtual threads");
+        };
+    }
+
+    @Bean
+    public static BeanPostProcessor connectionLimitingPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource hikari) {
+                    return new ConnectionLimitingDataSource(hikari, hikari.getMaximumPoolSize(),
+                            Duration.ofMillis(hikari.getConnectionTimeout()));
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder connectionLimiterMetrics(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof ConnectionLimitingDataSource limiter) {
+                Gauge.builder("jdbc.connections.waiting", limiter, ConnectionLimitingDataSource::getWaitingCount)
+                        .description("Threads waiting for a database connection permit")
+                        .register(registry);
+            }
+        };
+    }
+}
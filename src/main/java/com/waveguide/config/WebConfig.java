@@ -1,10 +1,13 @@
 package com.waveguide.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.waveguide.model.dto.response.ColumnarModule;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
 import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -20,4 +23,16 @@ public class WebConfig implements WebMvcConfigurer {
         objectMapper.registerModule(new JavaTimeModule());
         return objectMapper;
     }
+    
+    /**
+     * CBOR for clients that ask for {@code application/cbor}, with layers and modes in columns.
+     * Takes the place of the converter Spring MVC would register on its own, after JSON, so
+     * JSON stays the default.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        ObjectMapper cborMapper = builder.factory(new CBORFactory()).build();
+        cborMapper.registerModule(new ColumnarModule());
+        return new MappingJackson2CborHttpMessageConverter(cborMapper);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,41 @@
+package com.waveguide.controller;
+
+import com.waveguide.model.dto.request.DispersionRequest;
+import com.waveguide.model.entity.User;
+import com.waveguide.security.CurrentUser;
+import com.waveguide.service.ModeService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/waveguides/{waveguideId}/dispersion")
+@RequiredArgsConstructor
+@Tag(name = "Modes", description = "Guided mode solving for stored waveguides")
+public class DispersionController {
+
+    private static final MediaType DISPERSION = MediaType.parseMediaType("application/vnd.waveguide.dispersion");
+
+    private final ModeService modeService;
+
+    @PostMapping
+    @Operation(summary = "Trace dispersion curves",
+            description = "Tracks the effective index of every mode across a wavelength range with adaptive steps "
+                    + "and returns the curves in a columnar little-endian binary format")
+    public ResponseEntity<StreamingResponseBody> traceDispersion(
+            @PathVariable UUID waveguideId,
+            @Valid @RequestBody DispersionRequest request,
+            @CurrentUser User currentUser
+    ) {
+        ModeService.DispersionPlan plan = modeService.prepareDispersion(waveguideId, request, currentUser);
+        StreamingResponseBody body = out -> modeService.writeDispersion(plan, out);
+        return ResponseEntity.ok().contentType(DISPERSION).body(body);
+    }
+}
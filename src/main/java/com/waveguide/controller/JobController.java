@@ -0,0 +1,122 @@
+package com.waveguide.controller;
+
+import com.waveguide.job.JobEventPublisher;
+import com.waveguide.job.JobPriority;
+import com.waveguide.job.JobType;
+import com.waveguide.model.dto.request.ModeSolveRequest;
+import com.waveguide.model.dto.request.SweepRequest;
+import com.waveguide.model.dto.response.JobResponse;
+import com.waveguide.model.dto.response.PageResponse;
+import com.waveguide.model.entity.User;
+import com.waveguide.security.CurrentUser;
+import com.waveguide.service.JobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1")
+@RequiredArgsConstructor
+@Tag(name = "Jobs", description = "Asynchronous solves and sweeps")
+public class JobController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final JobService jobService;
+    private final JobEventPublisher jobEventPublisher;
+
+    @PostMapping("/waveguides/{waveguideId}/modes/jobs")
+    @Operation(summary = "Queue a mode solve",
+            description = "Validates the request and queues the solve; the result is fetched from the job once it has succeeded")
+    public ResponseEntity<JobResponse> submitSolve(
+            @PathVariable UUID waveguideId,
+            @RequestParam(defaultValue = "NORMAL") JobPriority priority,
+            @Valid @RequestBody ModeSolveRequest request,
+            @CurrentUser User currentUser
+    ) throws IOException {
+        JobResponse response = jobService.submitSolve(waveguideId, request, priority, currentUser);
+        return ResponseEntity.accepted().location(jobLocation(response)).body(response);
+    }
+
+    @PostMapping("/waveguides/{waveguideId}/sweeps/jobs")
+    @Operation(summary = "Queue a parameter sweep",
+            description = "Validates the request and queues the sweep; the result is the NDJSON the synchronous sweep would stream")
+    public ResponseEntity<JobResponse> submitSweep(
+            @PathVariable UUID waveguideId,
+            @RequestParam(defaultValue = "NORMAL") JobPriority priority,
+            @Valid @RequestBody SweepRequest request,
+            @CurrentUser User currentUser
+    ) throws IOException {
+        JobResponse response = jobService.submitSweep(waveguideId, request, priority, currentUser);
+        return ResponseEntity.accepted().location(jobLocation(response)).body(response);
+    }
+
+    @GetMapping("/jobs")
+    @Operation(summary = "Get all jobs", description = "Returns a paginated list of the user's jobs, newest first")
+    public ResponseEntity<PageResponse<JobResponse>> getJobs(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @CurrentUser User currentUser
+    ) {
+        // Limit page size to 100
+        size = Math.max(1, Math.min(size, 100));
+        PageRequest pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
+        return ResponseEntity.ok(PageResponse.from(jobService.getJobs(currentUser, pageable)));
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    @Operation(summary = "Get a job", description = "Returns the status and progress of a job")
+    public ResponseEntity<JobResponse> getJob(
+            @PathVariable UUID jobId,
+            @CurrentUser User currentUser
+    ) {
+        return ResponseEntity.ok(jobService.getJob(jobId, currentUser));
+    }
+
+    @GetMapping(path = "/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Follow a job",
+            description = "Streams Server-Sent Events: progress whenever the job's state changes, then done once it has finished")
+    public SseEmitter getJobEvents(
+            @PathVariable UUID jobId,
+            @CurrentUser User currentUser
+    ) {
+        return jobEventPublisher.subscribe(jobService.getJob(jobId, currentUser));
+    }
+
+    @GetMapping("/jobs/{jobId}/result")
+    @Operation(summary = "Get a job result",
+            description = "Returns the ModeSolveResponse of a solve or the NDJSON of a sweep; 409 until the job has succeeded")
+    public ResponseEntity<String> getJobResult(
+            @PathVariable UUID jobId,
+            @CurrentUser User currentUser
+    ) {
+        JobService.JobResult result = jobService.getResult(jobId, currentUser);
+        MediaType contentType = result.getType() == JobType.SWEEP ? NDJSON : MediaType.APPLICATION_JSON;
+        return ResponseEntity.ok().contentType(contentType).body(result.getBody());
+    }
+
+    @DeleteMapping("/jobs/{jobId}")
+    @Operation(summary = "Cancel a job",
+            description = "Cancels a queued job at once; a running job stops at its next progress check")
+    public ResponseEntity<JobResponse> cancelJob(
+            @PathVariable UUID jobId,
+            @CurrentUser User currentUser
+    ) {
+        return ResponseEntity.ok(jobService.cancelJob(jobId, currentUser));
+    }
+
+    private static URI jobLocation(JobResponse job) {
+        return URI.create("/api/v1/jobs/" + job.getId());
+    }
+}
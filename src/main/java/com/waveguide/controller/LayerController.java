@@ -1,6 +1,7 @@
 package com.waveguide.controller;
 
 import com.waveguide.model.dto.request.LayerRequest;
+import com.waveguide.model.dto.request.LayerStackRequest;
 import com.waveguide.model.dto.response.LayerResponse;
 import com.waveguide.model.entity.User;
 import com.waveguide.security.CurrentUser;
@@ -13,6 +14,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -34,6 +36,22 @@ public class LayerController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PutMapping
+    @Operation(
+            summary = "Replace the layer stack",
+            description = "Replaces or reorders all layers of the specified waveguide in one transaction. "
+                    + "Entries with an id keep that layer, entries without one add a new layer, "
+                    + "and layers that are not listed are deleted."
+    )
+    public ResponseEntity<List<LayerResponse>> replaceLayers(
+            @PathVariable UUID waveguideId,
+            @Valid @RequestBody LayerStackRequest request,
+            @CurrentUser User currentUser
+    ) {
+        List<LayerResponse> response = waveguideService.replaceLayers(waveguideId, request, currentUser);
+        return ResponseEntity.ok(response);
+    }
+
     @PutMapping("/{layerId}")
     @Operation(summary = "Update a layer", description = "Updates an existing layer in the specified waveguide")
     public ResponseEntity<LayerResponse> updateLayer(
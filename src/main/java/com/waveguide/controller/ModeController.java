@@ -0,0 +1,62 @@
+package com.waveguide.controller;
+
+import com.waveguide.model.dto.request.FieldRequest;
+import com.waveguide.model.dto.request.ModeSolveRequest;
+import com.waveguide.model.dto.response.ModeSolveResponse;
+import com.waveguide.model.entity.User;
+import com.waveguide.security.CurrentUser;
+import com.waveguide.service.ModeService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/waveguides/{waveguideId}/modes")
+@RequiredArgsConstructor
+@Tag(name = "Modes", description = "Guided mode solving for stored waveguides")
+public class ModeController {
+
+    private final ModeService modeService;
+
+    @PostMapping
+    @Operation(summary = "Solve guided modes", description = "Finds all guided modes of the waveguide inside its n_eff window")
+    public ResponseEntity<ModeSolveResponse> solveModes(
+            @PathVariable UUID waveguideId,
+            @Valid @RequestBody ModeSolveRequest request,
+            @CurrentUser User currentUser
+    ) {
+        ModeSolveResponse response = modeService.solveModes(waveguideId, request, currentUser);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/{order}/field")
+    @Operation(summary = "Get a mode field profile",
+            description = "Streams the field of one mode as raw little-endian float64 or float32 values, "
+                    + "real parts only for lossless stacks and real/imaginary pairs otherwise. "
+                    + "Sample positions are from + i * X-Field-Step.")
+    public ResponseEntity<StreamingResponseBody> getFieldProfile(
+            @PathVariable UUID waveguideId,
+            @PathVariable int order,
+            @Valid FieldRequest request,
+            @CurrentUser User currentUser
+    ) {
+        ModeService.FieldPlan plan = modeService.prepareField(waveguideId, order, request, currentUser);
+        StreamingResponseBody body = out -> modeService.writeField(plan, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .contentLength(plan.contentLength())
+                .header("X-Field-From", Double.toString(plan.getFrom()))
+                .header("X-Field-Step", Double.toString(plan.getStep()))
+                .header("X-Field-Count", Long.toString(plan.getCount()))
+                .header("X-Field-Components", plan.isComplex() ? "re,im" : "re")
+                .header("X-Field-Format", plan.isFloat32() ? "float32" : "float64")
+                .body(body);
+    }
+}
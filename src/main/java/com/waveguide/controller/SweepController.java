@@ -0,0 +1,40 @@
+package com.waveguide.controller;
+
+import com.waveguide.model.dto.request.SweepRequest;
+import com.waveguide.model.entity.User;
+import com.waveguide.security.CurrentUser;
+import com.waveguide.service.ModeService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/waveguides/{waveguideId}/sweeps")
+@RequiredArgsConstructor
+@Tag(name = "Modes", description = "Guided mode solving for stored waveguides")
+public class SweepController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final ModeService modeService;
+
+    @PostMapping
+    @Operation(summary = "Run a parameter sweep",
+            description = "Solves the waveguide across a range of one parameter and streams one NDJSON line per point")
+    public ResponseEntity<StreamingResponseBody> runSweep(
+            @PathVariable UUID waveguideId,
+            @Valid @RequestBody SweepRequest request,
+            @CurrentUser User currentUser
+    ) {
+        ModeService.SweepPlan plan = modeService.prepareSweep(waveguideId, request, currentUser);
+        StreamingResponseBody body = out -> modeService.writeSweep(plan, out);
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+}
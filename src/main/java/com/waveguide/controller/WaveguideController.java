@@ -1,10 +1,15 @@
 package com.waveguide.controller;
 
 import com.waveguide.model.dto.request.WaveguideRequest;
+import com.waveguide.model.dto.response.CursorPageResponse;
+import com.waveguide.model.dto.response.ImportResponse;
 import com.waveguide.model.dto.response.PageResponse;
 import com.waveguide.model.dto.response.WaveguideResponse;
 import com.waveguide.model.entity.User;
+import com.waveguide.model.projection.WaveguideListVersion;
 import com.waveguide.security.CurrentUser;
+import com.waveguide.service.WaveguideExportService;
+import com.waveguide.service.WaveguideImportService;
 import com.waveguide.service.WaveguideService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -14,10 +19,21 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.ZoneOffset;
+import java.util.Arrays;
 import java.util.UUID;
 
 @RestController
@@ -26,7 +42,14 @@ import java.util.UUID;
 @Tag(name = "Waveguides", description = "Operations for managing waveguides")
 public class WaveguideController {
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    /** Clients may keep a response but must revalidate it (cheaply, by ETag) before each use. */
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     private final WaveguideService waveguideService;
+    private final WaveguideExportService waveguideExportService;
+    private final WaveguideImportService waveguideImportService;
+    private final ContentNegotiationManager contentNegotiationManager;
 
     @PostMapping
     @Operation(summary = "Create a new waveguide", description = "Creates a new waveguide with the provided parameters")
@@ -38,14 +61,34 @@ public class WaveguideController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping(path = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, "application/x-ndjson"})
+    @Operation(
+            summary = "Import waveguides in bulk",
+            description = "Imports a JSON array or NDJSON stream of waveguides. Invalid records are "
+                    + "reported by position and skipped without aborting the import."
+    )
+    public ResponseEntity<ImportResponse> importWaveguides(
+            InputStream body,
+            @CurrentUser User currentUser
+    ) throws IOException {
+        ImportResponse response = waveguideImportService.importWaveguides(body, currentUser);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping
     @Operation(summary = "Get all waveguides", description = "Returns a paginated list of user's waveguides")
     public ResponseEntity<PageResponse<WaveguideResponse>> getWaveguides(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(defaultValue = "createdAt,desc") String sort,
-            @CurrentUser User currentUser
+            @CurrentUser User currentUser,
+            NativeWebRequest webRequest
     ) {
+        String eTag = listETag(waveguideService.getWaveguidesVersion(currentUser), webRequest);
+        if (webRequest.checkNotModified(eTag)) {
+            return notModified(eTag);
+        }
+        
         // Limit page size to 100
         size = Math.min(size, 100);
         
@@ -59,17 +102,84 @@ public class WaveguideController {
         
         Page<WaveguideResponse> waveguidesPage = waveguideService.getWaveguides(currentUser, pageable);
         
-        return ResponseEntity.ok(PageResponse.from(waveguidesPage));
+        return tagged(eTag, PageResponse.from(waveguidesPage));
+    }
+
+    @GetMapping(params = "cursor")
+    @Operation(
+            summary = "Get all waveguides by cursor",
+            description = "Returns user's waveguides ordered by creation time using keyset pagination. "
+                    + "Pass an empty cursor for the first page and nextCursor for the following ones."
+    )
+    public ResponseEntity<CursorPageResponse<WaveguideResponse>> getWaveguidesByCursor(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "createdAt,desc") String sort,
+            @CurrentUser User currentUser,
+            NativeWebRequest webRequest
+    ) {
+        // Limit page size to 100
+        size = Math.max(1, Math.min(size, 100));
+        
+        String[] sortParams = sort.split(",");
+        if (!"createdAt".equals(sortParams[0])) {
+            throw new IllegalArgumentException("Cursor pagination only supports sorting by createdAt");
+        }
+        Sort.Direction direction = sortParams.length > 1 && sortParams[1].equalsIgnoreCase("asc")
+                ? Sort.Direction.ASC : Sort.Direction.DESC;
+        
+        String eTag = listETag(waveguideService.getWaveguidesVersion(currentUser), webRequest);
+        if (webRequest.checkNotModified(eTag)) {
+            return notModified(eTag);
+        }
+        
+        CursorPageResponse<WaveguideResponse> response = waveguideService.getWaveguides(
+                currentUser, cursor.isEmpty() ? null : cursor, size, direction);
+        
+        return tagged(eTag, response);
+    }
+
+    @GetMapping("/export")
+    @Operation(
+            summary = "Export all waveguides",
+            description = "Streams every waveguide of the user with its layers as NDJSON, gzip-encoded if the client accepts it"
+    )
+    public ResponseEntity<StreamingResponseBody> exportWaveguides(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @CurrentUser User currentUser
+    ) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        UUID userId = currentUser.getId();
+        StreamingResponseBody body = out -> waveguideExportService.export(userId, out, gzip);
+        
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(NDJSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
     }
 
     @GetMapping("/{id}")
-    @Operation(summary = "Get waveguide by ID", description = "Returns a specific waveguide by ID")
+    @Operation(
+            summary = "Get waveguide by ID",
+            description = "Returns a specific waveguide by ID; 304 if If-None-Match holds its current ETag"
+    )
     public ResponseEntity<WaveguideResponse> getWaveguide(
             @PathVariable("id") UUID waveguideId,
-            @CurrentUser User currentUser
+            @CurrentUser User currentUser,
+            NativeWebRequest webRequest
     ) {
+        // Checked against the version alone, before the layers are loaded
+        String current = eTag(Long.toString(waveguideService.getWaveguideVersion(waveguideId, currentUser)), webRequest);
+        if (isListedIn(current, webRequest.getHeaderValues(HttpHeaders.IF_NONE_MATCH))) {
+            return notModified(current);
+        }
+        
+        // Tagged with the version the body was read from: an edit may have committed since the check
         WaveguideResponse response = waveguideService.getWaveguideById(waveguideId, currentUser);
-        return ResponseEntity.ok(response);
+        return tagged(eTag(Long.toString(response.getVersion()), webRequest), response);
     }
 
     @DeleteMapping("/{id}")
@@ -81,4 +191,70 @@ public class WaveguideController {
         waveguideService.deleteWaveguide(waveguideId, currentUser);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    private String listETag(WaveguideListVersion version, NativeWebRequest webRequest) {
+        long lastCreated = version.getLastCreatedAt() == null
+                ? 0L : version.getLastCreatedAt().toInstant(ZoneOffset.UTC).toEpochMilli();
+        return eTag(version.getCount() + "-" + version.getVersionSum() + "-" + lastCreated, webRequest);
+    }
+
+    /**
+     * Whether an {@code If-None-Match} header matches {@code eTag}. Unlike
+     * {@link NativeWebRequest#checkNotModified(String)} this leaves the response alone, so a body
+     * read afterwards can still be tagged with its own version.
+     */
+    private static boolean isListedIn(String eTag, String[] ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.put(HttpHeaders.IF_NONE_MATCH, Arrays.asList(ifNoneMatch));
+        return headers.getIfNoneMatch().stream()
+                .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+                .anyMatch(tag -> tag.equals("*") || tag.equals(eTag));
+    }
+
+    /**
+     * A strong ETag identifies the bytes, so the CBOR body of a version is tagged apart from its
+     * JSON body.
+     */
+    private String eTag(String version, NativeWebRequest webRequest) {
+        return prefersCbor(webRequest) ? "\"" + version + "-cbor\"" : "\"" + version + "\"";
+    }
+
+    /**
+     * Whether content negotiation will pick CBOR: the first accepted type that covers either
+     * representation decides, and JSON is listed first, as among the message converters.
+     */
+    private boolean prefersCbor(NativeWebRequest webRequest) {
+        try {
+            for (MediaType accepted : contentNegotiationManager.resolveMediaTypes(webRequest)) {
+                if (accepted.includes(MediaType.APPLICATION_JSON)) {
+                    return false;
+                }
+                if (accepted.includes(MediaType.APPLICATION_CBOR)) {
+                    return true;
+                }
+            }
+        } catch (HttpMediaTypeNotAcceptableException e) {
+            // Rejected with 406 when the body is written
+        }
+        return false;
+    }
+
+    private static <T> ResponseEntity<T> tagged(String eTag, T body) {
+        return ResponseEntity.ok()
+                .cacheControl(REVALIDATE)
+                .eTag(eTag)
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(body);
+    }
+
+    private static <T> ResponseEntity<T> notModified(String eTag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .cacheControl(REVALIDATE)
+                .eTag(eTag)
+                .varyBy(HttpHeaders.ACCEPT)
+                .build();
+    }
+}
@@ -0,0 +1,16 @@
+package com.waveguide.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * The job is not in a state that allows the operation, e.g. its result was requested
+ * before it finished.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class JobStateException extends RuntimeException {
+
+    public JobStateException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,13 @@
+package com.waveguide.job;
+
+import java.util.UUID;
+
+/**
+ * Thrown from inside a running job to unwind it once it has been asked to stop.
+ */
+public class JobCancelledException extends RuntimeException {
+
+    public JobCancelledException(UUID jobId) {
+        super("Job " + jobId + " was stopped");
+    }
+}
@@ -0,0 +1,128 @@
+package com.waveguide.job;
+
+import com.waveguide.model.dto.response.JobResponse;
+import com.waveguide.service.JobService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Streams job progress as Server-Sent Events.
+ * <p>
+ * The state comes from the {@code jobs} table rather than from the worker, so a client can
+ * follow a job from any instance, wherever it runs. Every {@code app.jobs.progress-interval}
+ * the jobs with subscribers are read in one query; a {@code progress} event is sent when a
+ * job's state has changed, and a final {@code done} event when it has finished.
+ */
+@Component
+@Slf4j
+public class JobEventPublisher {
+
+    private final JobService jobService;
+    private final long timeoutMillis;
+    private final Map<UUID, Subscription> subscriptions = new ConcurrentHashMap<>();
+
+    public JobEventPublisher(
+            JobService jobService,
+            @Value("${app.jobs.events-timeout:PT30M}") Duration timeout
+    ) {
+        this.jobService = jobService;
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    /**
+     * Opens an event stream for a job whose access has been checked, starting with its
+     * current state.
+     */
+    public SseEmitter subscribe(JobResponse job) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        if (!send(emitter, job)) {
+            return emitter;
+        }
+        if (job.getStatus().isFinished()) {
+            emitter.complete();
+            return emitter;
+        }
+        Subscription subscription = subscriptions.computeIfAbsent(job.getId(), id -> new Subscription(job));
+        subscription.emitters.add(emitter);
+        Runnable unsubscribe = () -> unsubscribe(job.getId(), emitter);
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(() -> {
+            unsubscribe.run();
+            emitter.complete();
+        });
+        emitter.onError(error -> unsubscribe.run());
+        return emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${app.jobs.progress-interval:PT1S}")
+    public void publish() {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        List<JobResponse> jobs;
+        try {
+            jobs = jobService.getJobs(subscriptions.keySet());
+        } catch (RuntimeException e) {
+            log.warn("Could not read job progress: {}", e.getMessage());
+            return;
+        }
+        for (JobResponse job : jobs) {
+            Subscription subscription = subscriptions.get(job.getId());
+            if (subscription == null || job.equals(subscription.last)) {
+                continue;
+            }
+            subscription.last = job;
+            boolean finished = job.getStatus().isFinished();
+            for (SseEmitter emitter : subscription.emitters) {
+                if (send(emitter, job) && finished) {
+                    emitter.complete();
+                }
+            }
+            if (finished) {
+                subscriptions.remove(job.getId());
+            }
+        }
+    }
+
+    private boolean send(SseEmitter emitter, JobResponse job) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .name(job.getStatus().isFinished() ? "done" : "progress")
+                    .data(job, MediaType.APPLICATION_JSON));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // The client went away; the emitter's completion callback unsubscribes it
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    private void unsubscribe(UUID jobId, SseEmitter emitter) {
+        subscriptions.computeIfPresent(jobId, (id, subscription) -> {
+            subscription.emitters.remove(emitter);
+            return subscription.emitters.isEmpty() ? null : subscription;
+        });
+    }
+
+    private static final class Subscription {
+
+        private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+        private volatile JobResponse last;
+
+        private Subscription(JobResponse initial) {
+            this.last = initial;
+        }
+    }
+}
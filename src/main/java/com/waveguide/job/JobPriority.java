@@ -0,0 +1,12 @@
+package com.waveguide.job;
+
+/**
+ * Priority lane of a job. Stored by ordinal, so workers claim jobs in declaration order.
+ * A share of the workers is reserved for {@link #HIGH}, so interactive solves are not
+ * stuck behind long batch sweeps.
+ */
+public enum JobPriority {
+    HIGH,
+    NORMAL,
+    LOW
+}
@@ -0,0 +1,56 @@
+package com.waveguide.job;
+
+import java.util.UUID;
+
+/**
+ * Progress of a job running on this instance, written by the job and flushed to the
+ * {@code jobs} table with each heartbeat. Also carries the request to stop.
+ */
+public class JobProgress {
+
+    private final UUID jobId;
+    private volatile int completed;
+    private volatile int total;
+    private volatile boolean stopRequested;
+
+    public JobProgress(UUID jobId) {
+        this.jobId = jobId;
+    }
+
+    public UUID getJobId() {
+        return jobId;
+    }
+
+    public int getCompleted() {
+        return completed;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * Records progress and, as this is where long-running work checks in, stops the job if
+     * that was requested.
+     *
+     * @throws JobCancelledException if the job should stop
+     */
+    public void update(int completed, int total) {
+        this.completed = completed;
+        this.total = total;
+        checkStopRequested();
+    }
+
+    /**
+     * @throws JobCancelledException if the job should stop
+     */
+    public void checkStopRequested() {
+        if (stopRequested) {
+            throw new JobCancelledException(jobId);
+        }
+    }
+
+    void requestStop() {
+        stopRequested = true;
+    }
+}
@@ -0,0 +1,247 @@
+package com.waveguide.job;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * The {@code jobs} table as a work queue shared by every instance.
+ * <p>
+ * Workers claim jobs with a {@code SELECT ... FOR UPDATE SKIP LOCKED} on PostgreSQL, so
+ * instances polling at the same time take different rows instead of queueing on each
+ * other's locks. Every state change is a conditional update on the expected status (and
+ * owner), which keeps claims exclusive on databases without {@code SKIP LOCKED} as well.
+ * A running job is kept alive by heartbeats; one whose owner stops heartbeating for a
+ * lease period is put back in the queue.
+ */
+@Component
+@Slf4j
+public class JobQueue {
+
+    /** Queued rows read per free worker, so users at their quota do not starve the others. */
+    private static final int CANDIDATES_PER_SLOT = 4;
+
+    private static final String SELECT_CANDIDATES_SQL =
+            "SELECT j.id, j.user_id, j.waveguide_id, j.type, j.priority, j.request, "
+                    + "(SELECT COUNT(*) FROM jobs r WHERE r.user_id = j.user_id AND r.status = 'RUNNING') "
+                    + "FROM jobs j WHERE j.status = 'QUEUED' ORDER BY j.priority, j.created_at LIMIT ?";
+    private static final String CLAIM_SQL =
+            "UPDATE jobs SET status = 'RUNNING', owner = ?, started_at = ?, heartbeat_at = ? "
+                    + "WHERE id = ? AND status = 'QUEUED'";
+    private static final String HEARTBEAT_SQL =
+            "UPDATE jobs SET completed = ?, total = ?, heartbeat_at = ? "
+                    + "WHERE id = ? AND owner = ? AND status = 'RUNNING'";
+    private static final String SELECT_CANCEL_REQUESTED_SQL =
+            "SELECT id FROM jobs WHERE id IN (:ids) AND cancel_requested = TRUE";
+    private static final String FINISH_SQL =
+            "UPDATE jobs SET status = ?, result = ?, error = ?, completed = ?, total = ?, finished_at = ?, "
+                    + "heartbeat_at = NULL WHERE id = ? AND owner = ? AND status = 'RUNNING'";
+    private static final String RELEASE_SQL =
+            "UPDATE jobs SET status = 'QUEUED', owner = NULL, started_at = NULL, heartbeat_at = NULL, completed = 0 "
+                    + "WHERE id = ? AND owner = ? AND status = 'RUNNING'";
+    private static final String CANCEL_QUEUED_SQL =
+            "UPDATE jobs SET status = 'CANCELLED', finished_at = ? WHERE id = ? AND status = 'QUEUED'";
+    private static final String CANCEL_RUNNING_SQL =
+            "UPDATE jobs SET cancel_requested = TRUE WHERE id = ? AND status = 'RUNNING'";
+    private static final String EXPIRE_CANCELLED_SQL =
+            "UPDATE jobs SET status = 'CANCELLED', owner = NULL, heartbeat_at = NULL, finished_at = ? "
+                    + "WHERE status = 'RUNNING' AND heartbeat_at < ? AND cancel_requested = TRUE";
+    private static final String REQUEUE_EXPIRED_SQL =
+            "UPDATE jobs SET status = 'QUEUED', owner = NULL, started_at = NULL, heartbeat_at = NULL, completed = 0 "
+                    + "WHERE status = 'RUNNING' AND heartbeat_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final String selectCandidatesSql;
+
+    public JobQueue(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        boolean skipLocked = "PostgreSQL".equals(database);
+        this.selectCandidatesSql = skipLocked ? SELECT_CANDIDATES_SQL + " FOR UPDATE OF j SKIP LOCKED" : SELECT_CANDIDATES_SQL;
+        if (!skipLocked) {
+            log.info("{} has no SKIP LOCKED; job claims fall back to conditional updates", database);
+        }
+    }
+
+    /**
+     * Claims up to {@code slots} queued jobs for {@code owner}, highest priority and oldest
+     * first, of which at most {@code lowPrioritySlots} below {@link JobPriority#HIGH}. Jobs of
+     * users who already have {@code maxRunningPerUser} jobs running anywhere in the cluster
+     * are passed over. The quota is checked against committed state, so two instances claiming
+     * for the same user at the same moment can briefly exceed it.
+     */
+    @Transactional
+    public List<ClaimedJob> claim(String owner, int slots, int lowPrioritySlots, int maxRunningPerUser) {
+        List<ClaimedJob> candidates = new ArrayList<>();
+        Map<UUID, Integer> runningPerUser = new HashMap<>();
+        jdbcTemplate.query(selectCandidatesSql,
+                rs -> {
+                    ClaimedJob job = new ClaimedJob(
+                            rs.getObject(1, UUID.class),
+                            rs.getObject(2, UUID.class),
+                            rs.getObject(3, UUID.class),
+                            JobType.valueOf(rs.getString(4)),
+                            JobPriority.values()[rs.getInt(5)],
+                            rs.getString(6));
+                    candidates.add(job);
+                    runningPerUser.putIfAbsent(job.getUserId(), rs.getInt(7));
+                },
+                slots * CANDIDATES_PER_SLOT);
+
+        List<ClaimedJob> picked = new ArrayList<>(slots);
+        int lowPriorityLeft = lowPrioritySlots;
+        for (ClaimedJob job : candidates) {
+            if (picked.size() == slots) {
+                break;
+            }
+            boolean high = job.getPriority() == JobPriority.HIGH;
+            int running = runningPerUser.get(job.getUserId());
+            if ((!high && lowPriorityLeft == 0) || running >= maxRunningPerUser) {
+                continue;
+            }
+            runningPerUser.put(job.getUserId(), running + 1);
+            if (!high) {
+                lowPriorityLeft--;
+            }
+            picked.add(job);
+        }
+        if (picked.isEmpty()) {
+            return picked;
+        }
+
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> claims = new ArrayList<>(picked.size());
+        for (ClaimedJob job : picked) {
+            claims.add(new Object[]{owner, now, now, job.getId()});
+        }
+        int[] updated = jdbcTemplate.batchUpdate(CLAIM_SQL, claims);
+        List<ClaimedJob> claimed = new ArrayList<>(picked.size());
+        for (int i = 0; i < picked.size(); i++) {
+            // Zero when another instance claimed or a user cancelled the job since the select
+            if (updated[i] == 1 || updated[i] == Statement.SUCCESS_NO_INFO) {
+                claimed.add(picked.get(i));
+            }
+        }
+        return claimed;
+    }
+
+    /**
+     * Records the progress of jobs running on {@code owner} and extends their lease.
+     *
+     * @return the jobs that should stop: cancelled by their user, or no longer owned by
+     *         {@code owner} because the lease expired
+     */
+    public Set<UUID> heartbeat(String owner, Collection<JobProgress> jobs) {
+        if (jobs.isEmpty()) {
+            return Set.of();
+        }
+        List<JobProgress> running = new ArrayList<>(jobs);
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> updates = new ArrayList<>(running.size());
+        for (JobProgress job : running) {
+            updates.add(new Object[]{job.getCompleted(), job.getTotal(), now, job.getJobId(), owner});
+        }
+        int[] updated = jdbcTemplate.batchUpdate(HEARTBEAT_SQL, updates);
+
+        Set<UUID> stop = new HashSet<>();
+        List<UUID> ids = new ArrayList<>(running.size());
+        for (int i = 0; i < running.size(); i++) {
+            if (updated[i] == 0) {
+                stop.add(running.get(i).getJobId());
+            }
+            ids.add(running.get(i).getJobId());
+        }
+        namedJdbcTemplate.query(SELECT_CANCEL_REQUESTED_SQL, new MapSqlParameterSource("ids", ids),
+                rs -> {
+                    stop.add(rs.getObject(1, UUID.class));
+                });
+        return stop;
+    }
+
+    /**
+     * Moves a running job of {@code owner} to its final state. A no-op if the job is no
+     * longer owned by {@code owner}.
+     */
+    public boolean finish(UUID id, String owner, JobStatus status, String result, String error, int completed, int total) {
+        return jdbcTemplate.update(FINISH_SQL, status.name(), result, error, completed, total,
+                Timestamp.from(Instant.now()), id, owner) == 1;
+    }
+
+    /**
+     * Puts a running job of {@code owner} back in the queue, e.g. on shutdown.
+     */
+    public boolean release(UUID id, String owner) {
+        return jdbcTemplate.update(RELEASE_SQL, id, owner) == 1;
+    }
+
+    /**
+     * Cancels a queued job at once, or asks the instance running it to stop.
+     *
+     * @return {@code false} if the job had already finished
+     */
+    public boolean cancel(UUID id) {
+        if (jdbcTemplate.update(CANCEL_QUEUED_SQL, Timestamp.from(Instant.now()), id) == 1) {
+            return true;
+        }
+        return jdbcTemplate.update(CANCEL_RUNNING_SQL, id) == 1;
+    }
+
+    /**
+     * Requeues running jobs whose last heartbeat is older than {@code staleBefore}, after
+     * their instance died or hung. Jobs whose cancellation was requested are cancelled instead.
+     *
+     * @return the number of jobs requeued
+     */
+    public int requeueExpired(Instant staleBefore) {
+        Timestamp stale = Timestamp.from(staleBefore);
+        jdbcTemplate.update(EXPIRE_CANCELLED_SQL, Timestamp.from(Instant.now()), stale);
+        return jdbcTemplate.update(REQUEUE_EXPIRED_SQL, stale);
+    }
+
+    public int purgeFinished(Instant finishedBefore) {
+        return jdbcTemplate.update("DELETE FROM jobs WHERE finished_at < ?", Timestamp.from(finishedBefore));
+    }
+
+    /**
+     * A job claimed by this instance, with what is needed to run it.
+     */
+    @Getter
+    public static final class ClaimedJob {
+
+        private final UUID id;
+        private final UUID userId;
+        private final UUID waveguideId;
+        private final JobType type;
+        private final JobPriority priority;
+        private final String request;
+
+        ClaimedJob(UUID id, UUID userId, UUID waveguideId, JobType type, JobPriority priority, String request) {
+            this.id = id;
+            this.userId = userId;
+            this.waveguideId = waveguideId;
+            this.type = type;
+            this.priority = priority;
+            this.request = request;
+        }
+    }
+}
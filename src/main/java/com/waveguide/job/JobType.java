@@ -0,0 +1,8 @@
+package com.waveguide.job;
+
+public enum JobType {
+    /** One mode solve; the result is a {@code ModeSolveResponse}. */
+    SOLVE,
+    /** A parameter sweep; the result is the NDJSON a synchronous sweep would stream. */
+    SWEEP
+}
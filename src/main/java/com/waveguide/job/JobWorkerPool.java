@@ -0,0 +1,202 @@
+package com.waveguide.job;
+
+import com.waveguide.service.JobService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Fixed pool of job workers on this instance. Free workers claim queued jobs from the
+ * shared {@link JobQueue}, so any instance can pick up work submitted to any other.
+ * <p>
+ * {@code app.jobs.high-priority-workers} workers only take {@link JobPriority#HIGH} jobs;
+ * the rest take any priority. Progress and liveness of running jobs are written back every
+ * {@code app.jobs.progress-interval}, which is also when cancellations are picked up.
+ */
+@Component
+@Slf4j
+public class JobWorkerPool {
+
+    /** Longest error message kept on a failed job, the length of {@code jobs.error}. */
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final JobQueue jobQueue;
+    private final JobService jobService;
+    private final String nodeId;
+    private final int workers;
+    private final int lowPriorityWorkers;
+    private final int maxRunningPerUser;
+    private final Duration lease;
+    private final Duration retention;
+    private final ThreadPoolExecutor executor;
+    private final Map<UUID, RunningJob> running = new ConcurrentHashMap<>();
+    private volatile boolean shuttingDown;
+
+    public JobWorkerPool(
+            JobQueue jobQueue,
+            JobService jobService,
+            @Value("${app.jobs.node-id:}") String nodeId,
+            @Value("${app.jobs.workers:2}") int workers,
+            @Value("${app.jobs.high-priority-workers:1}") int highPriorityWorkers,
+            @Value("${app.jobs.max-running-per-user:1}") int maxRunningPerUser,
+            @Value("${app.jobs.lease:PT1M}") Duration lease,
+            @Value("${app.jobs.retention:P7D}") Duration retention
+    ) {
+        this.jobQueue = jobQueue;
+        this.jobService = jobService;
+        this.nodeId = nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+        this.workers = Math.max(1, workers);
+        this.lowPriorityWorkers = Math.max(0, this.workers - Math.max(0, highPriorityWorkers));
+        this.maxRunningPerUser = Math.max(1, maxRunningPerUser);
+        this.lease = lease;
+        this.retention = retention;
+        AtomicInteger threadNumber = new AtomicInteger();
+        // Never more tasks than workers: jobs are only claimed for free workers
+        this.executor = new ThreadPoolExecutor(
+                this.workers,
+                this.workers,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "job-worker-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+        );
+        log.info("Job worker pool {} started with {} workers ({} reserved for high priority)",
+                this.nodeId, this.workers, this.workers - lowPriorityWorkers);
+    }
+
+    /**
+     * Claims as many queued jobs as there are free workers and starts them.
+     */
+    @Scheduled(fixedDelayString = "${app.jobs.poll-interval:PT0.5S}")
+    public synchronized void poll() {
+        int free = workers - running.size();
+        if (shuttingDown || free <= 0) {
+            return;
+        }
+        int lowPriorityBusy = (int) running.values().stream()
+                .filter(job -> job.priority != JobPriority.HIGH)
+                .count();
+        int lowPriorityFree = Math.max(0, Math.min(free, lowPriorityWorkers - lowPriorityBusy));
+
+        List<JobQueue.ClaimedJob> claimed;
+        try {
+            claimed = jobQueue.claim(nodeId, free, lowPriorityFree, maxRunningPerUser);
+        } catch (RuntimeException e) {
+            log.warn("Could not claim jobs: {}", e.getMessage());
+            return;
+        }
+        for (JobQueue.ClaimedJob job : claimed) {
+            RunningJob runningJob = new RunningJob(job.getPriority(), new JobProgress(job.getId()));
+            running.put(job.getId(), runningJob);
+            executor.execute(() -> run(job, runningJob.progress));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.jobs.progress-interval:PT1S}")
+    public void heartbeat() {
+        if (running.isEmpty()) {
+            return;
+        }
+        try {
+            Set<UUID> stop = jobQueue.heartbeat(nodeId, running.values().stream()
+                    .map(job -> job.progress)
+                    .collect(Collectors.toList()));
+            for (UUID id : stop) {
+                RunningJob job = running.get(id);
+                if (job != null) {
+                    job.progress.requestStop();
+                }
+            }
+        } catch (RuntimeException e) {
+            // Jobs keep running; if this persists beyond the lease other instances take them over
+            log.warn("Could not record job heartbeats: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.jobs.reap-interval:PT30S}")
+    public void reap() {
+        Instant now = Instant.now();
+        int requeued = jobQueue.requeueExpired(now.minus(lease));
+        if (requeued > 0) {
+            log.warn("Requeued {} jobs whose worker stopped heartbeating", requeued);
+        }
+        int purged = jobQueue.purgeFinished(now.minus(retention));
+        log.debug("Purged {} finished jobs", purged);
+    }
+
+    /** Jobs currently running on this instance. */
+    public int getRunningCount() {
+        return running.size();
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        shuttingDown = true;
+        running.values().forEach(job -> job.progress.requestStop());
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("Job workers did not stop in time; their jobs are requeued when the lease expires");
+        }
+    }
+
+    private void run(JobQueue.ClaimedJob job, JobProgress progress) {
+        UUID id = job.getId();
+        try {
+            String result = jobService.execute(job, progress);
+            jobQueue.finish(id, nodeId, JobStatus.SUCCEEDED, result, null, progress.getTotal(), progress.getTotal());
+            log.debug("Job {} succeeded", id);
+        } catch (JobCancelledException e) {
+            if (shuttingDown) {
+                // Not cancelled by the user: let another instance run it
+                jobQueue.release(id, nodeId);
+            } else {
+                jobQueue.finish(id, nodeId, JobStatus.CANCELLED, null, null, progress.getCompleted(), progress.getTotal());
+                log.debug("Job {} cancelled", id);
+            }
+        } catch (Exception e) {
+            log.warn("Job {} failed: {}", id, e.toString());
+            String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            jobQueue.finish(id, nodeId, JobStatus.FAILED, null,
+                    message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message,
+                    progress.getCompleted(), progress.getTotal());
+        } finally {
+            running.remove(id);
+        }
+        // Take the next job right away instead of waiting for the next poll
+        poll();
+    }
+
+    private static final class RunningJob {
+
+        private final JobPriority priority;
+        private final JobProgress progress;
+
+        private RunningJob(JobPriority priority, JobProgress progress) {
+            this.priority = priority;
+            this.progress = progress;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.waveguide.model.dto.request;
+
+import com.waveguide.solver.Polarization;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DispersionRequest {
+
+    @NotNull(message = "start is required")
+    @Positive(message = "start must be greater than 0")
+    private Double start;
+
+    @NotNull(message = "end is required")
+    @Positive(message = "end must be greater than 0")
+    private Double end;
+
+    @Builder.Default
+    private Polarization polarization = Polarization.TE;
+
+    @Positive(message = "accuracy must be greater than 0")
+    private Double accuracy;
+
+    @Min(value = 16, message = "samples must be at least 16")
+    @Max(value = 1000000, message = "samples must be at most 1000000")
+    private Integer samples;
+}
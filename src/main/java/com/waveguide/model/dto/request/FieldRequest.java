@@ -0,0 +1,48 @@
+package com.waveguide.model.dto.request;
+
+import com.waveguide.solver.Polarization;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Query parameters of a field profile request. The profile is sampled at {@code points}
+ * evenly spaced positions over {@code [from, to]} and every {@code decimate}-th sample is
+ * returned.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FieldRequest {
+
+    @NotNull(message = "wavelength is required")
+    @Positive(message = "wavelength must be greater than 0")
+    private Double wavelength;
+
+    @Builder.Default
+    private Polarization polarization = Polarization.TE;
+
+    @Min(value = 16, message = "samples must be at least 16")
+    @Max(value = 1000000, message = "samples must be at most 1000000")
+    private Integer samples;
+
+    private Double from;
+
+    private Double to;
+
+    @Min(value = 2, message = "points must be at least 2")
+    @Max(value = 1000000, message = "points must be at most 1000000")
+    private Integer points;
+
+    @Min(value = 1, message = "decimate must be at least 1")
+    private Integer decimate;
+
+    /** {@code float64} (default) or {@code float32}. */
+    private String format;
+}
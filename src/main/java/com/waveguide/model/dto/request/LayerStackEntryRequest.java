@@ -0,0 +1,36 @@
+package com.waveguide.model.dto.request;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * One position of a replaced layer stack: an existing layer when {@code id} is set,
+ * otherwise a new one.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LayerStackEntryRequest {
+
+    private UUID id;
+
+    @NotNull(message = "E is required")
+    private Double E;
+
+    @NotNull(message = "re_eps is required")
+    private Double reEps;
+
+    @NotNull(message = "im_eps is required")
+    private Double imEps;
+
+    @NotNull(message = "d is required")
+    @Min(value = 0, message = "d must be greater than 0")
+    private Double d;
+}
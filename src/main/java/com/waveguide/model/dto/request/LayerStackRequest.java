@@ -0,0 +1,21 @@
+package com.waveguide.model.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LayerStackRequest {
+
+    @NotNull(message = "layers is required")
+    @Valid
+    private List<LayerStackEntryRequest> layers;
+}
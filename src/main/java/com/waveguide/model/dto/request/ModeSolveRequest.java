@@ -0,0 +1,32 @@
+package com.waveguide.model.dto.request;
+
+import com.waveguide.solver.Polarization;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ModeSolveRequest {
+
+    @NotNull(message = "wavelength is required")
+    @Positive(message = "wavelength must be greater than 0")
+    private Double wavelength;
+
+    @Builder.Default
+    private Polarization polarization = Polarization.TE;
+
+    @Min(value = 16, message = "samples must be at least 16")
+    @Max(value = 1000000, message = "samples must be at most 1000000")
+    private Integer samples;
+
+    @Min(value = 1, message = "parallelism must be at least 1")
+    private Integer parallelism;
+}
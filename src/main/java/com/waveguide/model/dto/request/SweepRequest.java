@@ -0,0 +1,46 @@
+package com.waveguide.model.dto.request;
+
+import com.waveguide.solver.Polarization;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SweepRequest {
+
+    @NotBlank(message = "parameter is required")
+    private String parameter;
+
+    @NotNull(message = "start is required")
+    private Double start;
+
+    @NotNull(message = "end is required")
+    private Double end;
+
+    @NotNull(message = "points is required")
+    @Min(value = 1, message = "points must be at least 1")
+    @Max(value = 100000, message = "points must be at most 100000")
+    private Integer points;
+
+    @Positive(message = "wavelength must be greater than 0")
+    private Double wavelength;
+
+    @Builder.Default
+    private Polarization polarization = Polarization.TE;
+
+    @Min(value = 16, message = "samples must be at least 16")
+    @Max(value = 1000000, message = "samples must be at most 1000000")
+    private Integer samples;
+
+    @Min(value = 1, message = "parallelism must be at least 1")
+    private Integer parallelism;
+}
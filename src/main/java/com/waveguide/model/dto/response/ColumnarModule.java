@@ -0,0 +1,216 @@
+package com.waveguide.model.dto.response;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Column layout for the lists that make up most of a binary response: the layers of a
+ * waveguide and the modes of a solve. Instead of one object per row, repeating every key,
+ * the list is written as one object holding a packed array per field. Numbers are
+ * little-endian and, in CBOR, tagged as RFC 8746 typed arrays (sint32 and float64); ids are
+ * 16-byte big-endian UUIDs back to back. Reading accepts the same layout.
+ * <p>
+ * Registered on the CBOR mapper only; JSON keeps one object per row.
+ */
+public class ColumnarModule extends SimpleModule {
+
+    private static final int SINT32_LE = 78;
+    private static final int FLOAT64_LE = 86;
+
+    public ColumnarModule() {
+        super("ColumnarModule");
+        setMixInAnnotation(WaveguideResponse.class, ColumnarWaveguide.class);
+        setMixInAnnotation(ModeSolveResponse.class, ColumnarModeSolve.class);
+    }
+
+    abstract static class ColumnarWaveguide {
+
+        @JsonSerialize(using = LayerColumnsSerializer.class)
+        abstract List<LayerResponse> getLayers();
+
+        @JsonDeserialize(using = LayerColumnsDeserializer.class)
+        abstract void setLayers(List<LayerResponse> layers);
+    }
+
+    abstract static class ColumnarModeSolve {
+
+        @JsonSerialize(using = ModeColumnsSerializer.class)
+        abstract List<ModeResponse> getModes();
+
+        @JsonDeserialize(using = ModeColumnsDeserializer.class)
+        abstract void setModes(List<ModeResponse> modes);
+    }
+
+    static class LayerColumnsSerializer extends StdSerializer<List<LayerResponse>> {
+
+        LayerColumnsSerializer() {
+            super(List.class, false);
+        }
+
+        @Override
+        public void serialize(List<LayerResponse> layers, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            int count = layers.size();
+            ByteBuffer id = ByteBuffer.allocate(count * 16);
+            ByteBuffer layerIndex = column(count, Integer.BYTES);
+            ByteBuffer e = column(count, Double.BYTES);
+            ByteBuffer reEps = column(count, Double.BYTES);
+            ByteBuffer imEps = column(count, Double.BYTES);
+            ByteBuffer d = column(count, Double.BYTES);
+            for (LayerResponse layer : layers) {
+                id.putLong(layer.getId().getMostSignificantBits()).putLong(layer.getId().getLeastSignificantBits());
+                layerIndex.putInt(layer.getLayerIndex());
+                e.putDouble(layer.getE());
+                reEps.putDouble(layer.getReEps());
+                imEps.putDouble(layer.getImEps());
+                d.putDouble(layer.getD());
+            }
+            generator.writeStartObject();
+            writeColumn(generator, "id", -1, id);
+            writeColumn(generator, "layerIndex", SINT32_LE, layerIndex);
+            writeColumn(generator, "e", FLOAT64_LE, e);
+            writeColumn(generator, "reEps", FLOAT64_LE, reEps);
+            writeColumn(generator, "imEps", FLOAT64_LE, imEps);
+            writeColumn(generator, "d", FLOAT64_LE, d);
+            generator.writeEndObject();
+        }
+    }
+
+    static class LayerColumnsDeserializer extends StdDeserializer<List<LayerResponse>> {
+
+        LayerColumnsDeserializer() {
+            super(List.class);
+        }
+
+        @Override
+        public List<LayerResponse> deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            Map<String, ByteBuffer> columns = readColumns(parser);
+            int count = rowCount(columns, "id", 16);
+            ByteBuffer id = column(parser, columns, "id", count, 16).order(ByteOrder.BIG_ENDIAN);
+            ByteBuffer layerIndex = column(parser, columns, "layerIndex", count, Integer.BYTES);
+            ByteBuffer e = column(parser, columns, "e", count, Double.BYTES);
+            ByteBuffer reEps = column(parser, columns, "reEps", count, Double.BYTES);
+            ByteBuffer imEps = column(parser, columns, "imEps", count, Double.BYTES);
+            ByteBuffer d = column(parser, columns, "d", count, Double.BYTES);
+            List<LayerResponse> layers = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                layers.add(LayerResponse.builder()
+                        .id(new UUID(id.getLong(), id.getLong()))
+                        .layerIndex(layerIndex.getInt())
+                        .E(e.getDouble())
+                        .reEps(reEps.getDouble())
+                        .imEps(imEps.getDouble())
+                        .d(d.getDouble())
+                        .build());
+            }
+            return layers;
+        }
+    }
+
+    static class ModeColumnsSerializer extends StdSerializer<List<ModeResponse>> {
+
+        ModeColumnsSerializer() {
+            super(List.class, false);
+        }
+
+        @Override
+        public void serialize(List<ModeResponse> modes, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            int count = modes.size();
+            ByteBuffer order = column(count, Integer.BYTES);
+            ByteBuffer nEffRe = column(count, Double.BYTES);
+            ByteBuffer nEffIm = column(count, Double.BYTES);
+            for (ModeResponse mode : modes) {
+                order.putInt(mode.getOrder());
+                nEffRe.putDouble(mode.getNEffRe());
+                nEffIm.putDouble(mode.getNEffIm());
+            }
+            generator.writeStartObject();
+            writeColumn(generator, "order", SINT32_LE, order);
+            writeColumn(generator, "neffRe", FLOAT64_LE, nEffRe);
+            writeColumn(generator, "neffIm", FLOAT64_LE, nEffIm);
+            generator.writeEndObject();
+        }
+    }
+
+    static class ModeColumnsDeserializer extends StdDeserializer<List<ModeResponse>> {
+
+        ModeColumnsDeserializer() {
+            super(List.class);
+        }
+
+        @Override
+        public List<ModeResponse> deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            Map<String, ByteBuffer> columns = readColumns(parser);
+            int count = rowCount(columns, "order", Integer.BYTES);
+            ByteBuffer order = column(parser, columns, "order", count, Integer.BYTES);
+            ByteBuffer nEffRe = column(parser, columns, "neffRe", count, Double.BYTES);
+            ByteBuffer nEffIm = column(parser, columns, "neffIm", count, Double.BYTES);
+            List<ModeResponse> modes = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                modes.add(new ModeResponse(order.getInt(), nEffRe.getDouble(), nEffIm.getDouble()));
+            }
+            return modes;
+        }
+    }
+
+    private static ByteBuffer column(int count, int width) {
+        return ByteBuffer.allocate(count * width).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static void writeColumn(JsonGenerator generator, String name, int tag, ByteBuffer values) throws IOException {
+        generator.writeFieldName(name);
+        if (tag >= 0 && generator instanceof CBORGenerator cbor) {
+            cbor.writeTag(tag);
+        }
+        generator.writeBinary(values.array());
+    }
+
+    private static Map<String, ByteBuffer> readColumns(JsonParser parser) throws IOException {
+        if (!parser.isExpectedStartObjectToken()) {
+            throw JsonMappingException.from(parser, "Expected an object of columns");
+        }
+        Map<String, ByteBuffer> columns = new HashMap<>();
+        for (String name = parser.nextFieldName(); name != null; name = parser.nextFieldName()) {
+            JsonToken token = parser.nextToken();
+            if (token != JsonToken.VALUE_EMBEDDED_OBJECT && token != JsonToken.VALUE_STRING) {
+                throw JsonMappingException.from(parser, "Column '" + name + "' is not a byte string");
+            }
+            columns.put(name, ByteBuffer.wrap(parser.getBinaryValue()));
+        }
+        return columns;
+    }
+
+    private static int rowCount(Map<String, ByteBuffer> columns, String name, int width) {
+        ByteBuffer values = columns.get(name);
+        return values == null ? 0 : values.remaining() / width;
+    }
+
+    private static ByteBuffer column(JsonParser parser, Map<String, ByteBuffer> columns, String name, int count, int width)
+            throws JsonMappingException {
+        ByteBuffer values = columns.get(name);
+        if (values == null || values.remaining() != count * width) {
+            throw JsonMappingException.from(parser, "Column '" + name + "' must hold " + count + " values");
+        }
+        return values.order(ByteOrder.LITTLE_ENDIAN);
+    }
+}
@@ -0,0 +1,20 @@
+package com.waveguide.model.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageResponse<T> {
+    
+    private List<T> content;
+    private int size;
+    private String nextCursor;
+    private boolean last;
+}
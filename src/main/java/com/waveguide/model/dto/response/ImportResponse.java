@@ -0,0 +1,35 @@
+package com.waveguide.model.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportResponse {
+
+    private long received;
+    private long imported;
+    private long rejected;
+    private boolean aborted;
+    private List<ImportError> errors;
+    private boolean errorsTruncated;
+    private double elapsedMs;
+    private double stacksPerSecond;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ImportError {
+
+        /** Zero-based position of the record in the uploaded stream. */
+        private long index;
+        private String message;
+    }
+}
@@ -0,0 +1,32 @@
+package com.waveguide.model.dto.response;
+
+import com.waveguide.job.JobPriority;
+import com.waveguide.job.JobStatus;
+import com.waveguide.job.JobType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobResponse {
+
+    private UUID id;
+    private UUID waveguideId;
+    private JobType type;
+    private JobPriority priority;
+    private JobStatus status;
+    /** Points done so far, for sweeps; 0 or 1 for solves. */
+    private int completed;
+    private int total;
+    private String error;
+    private Instant createdAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+}
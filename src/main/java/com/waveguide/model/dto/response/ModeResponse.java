@@ -0,0 +1,17 @@
+package com.waveguide.model.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ModeResponse {
+
+    private int order;
+    private double nEffRe;
+    private double nEffIm;
+}
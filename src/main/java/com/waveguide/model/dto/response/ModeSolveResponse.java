@@ -0,0 +1,25 @@
+package com.waveguide.model.dto.response;
+
+import com.waveguide.solver.Polarization;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ModeSolveResponse {
+
+    private UUID waveguideId;
+    private double wavelength;
+    private Polarization polarization;
+    private List<ModeResponse> modes;
+    private long evaluations;
+    private double elapsedMs;
+    private boolean cached;
+}
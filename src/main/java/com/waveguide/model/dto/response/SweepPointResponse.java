@@ -0,0 +1,20 @@
+package com.waveguide.model.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SweepPointResponse {
+
+    private int index;
+    private double value;
+    private boolean continued;
+    private List<ModeResponse> modes;
+}
@@ -1,6 +1,7 @@
 package com.waveguide.model.dto.response;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -23,4 +24,8 @@ public class WaveguideResponse {
     
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
     private LocalDateTime createdAt;
+    
+    /** Version of the waveguide this response was read from, for its ETag; not serialized. */
+    @JsonIgnore
+    private Long version;
 }
\ No newline at end of file
@@ -0,0 +1,96 @@
+package com.waveguide.model.entity;
+
+import com.waveguide.job.JobPriority;
+import com.waveguide.job.JobStatus;
+import com.waveguide.job.JobType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * An asynchronous solve or sweep. Created through JPA; claimed, heartbeated and finished
+ * by {@link com.waveguide.job.JobQueue} with plain JDBC.
+ */
+@Entity
+@Table(
+    name = "jobs",
+    indexes = {
+        @Index(name = "idx_jobs_status_priority_created", columnList = "status, priority, created_at"),
+        @Index(name = "idx_jobs_user_created", columnList = "user_id, created_at")
+    }
+)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Job {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    // No foreign key: deleting a waveguide must not be blocked by its job history
+    @Column(name = "waveguide_id", nullable = false)
+    private UUID waveguideId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private JobType type;
+
+    @Enumerated(EnumType.ORDINAL)
+    @Column(nullable = false)
+    private JobPriority priority;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private JobStatus status;
+
+    /** The submitted request as JSON. */
+    @Column(nullable = false, columnDefinition = "text")
+    private String request;
+
+    @Column(columnDefinition = "text")
+    private String result;
+
+    @Column(length = 1000)
+    private String error;
+
+    @Column(nullable = false)
+    private int completed;
+
+    @Column(nullable = false)
+    private int total;
+
+    @Column(name = "cancel_requested", nullable = false)
+    private boolean cancelRequested;
+
+    /** Node running the job, see {@code app.jobs.node-id}. */
+    @Column(length = 100)
+    private String owner;
+
+    @Column(name = "heartbeat_at")
+    private Instant heartbeatAt;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @Column(name = "started_at")
+    private Instant startedAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = Instant.now();
+    }
+}
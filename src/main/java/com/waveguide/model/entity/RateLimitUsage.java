@@ -0,0 +1,38 @@
+package com.waveguide.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Cluster-wide token count of one rate limit window, maintained by
+ * {@link com.waveguide.cluster.JdbcStateBackend} with plain JDBC.
+ */
+@Entity
+@Table(
+    name = "rate_limit_usage",
+    indexes = {
+        @Index(name = "idx_rate_limit_usage_expires_at", columnList = "expires_at")
+    }
+)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RateLimitUsage {
+
+    /** Limit class, client and window, e.g. {@code READ|user:<id>|482113}. */
+    @Id
+    @Column(name = "bucket_key", length = 200)
+    private String bucketKey;
+
+    @Column(nullable = false)
+    private long used;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+}
@@ -0,0 +1,38 @@
+package com.waveguide.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A logged-out token, identified by the SHA-256 digest of the JWT, shared between instances
+ * by {@link com.waveguide.cluster.JdbcStateBackend}.
+ */
+@Entity
+@Table(
+    name = "token_revocations",
+    indexes = {
+        @Index(name = "idx_token_revocations_revoked_at", columnList = "revoked_at"),
+        @Index(name = "idx_token_revocations_expires_at", columnList = "expires_at")
+    }
+)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenRevocation {
+
+    @Id
+    @Column(length = 44)
+    private String digest;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Column(name = "revoked_at", nullable = false)
+    private Instant revokedAt;
+}
@@ -6,6 +6,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.annotation.CreatedDate;
 
 import java.time.LocalDateTime;
@@ -14,7 +16,14 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "waveguides")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "waveguides")
+@Table(
+    name = "waveguides",
+    indexes = {
+        @Index(name = "idx_waveguides_user_created_id", columnList = "user_id, created_at, id")
+    }
+)
 @Data
 @Builder
 @NoArgsConstructor
@@ -38,18 +47,39 @@ public class Waveguide {
     private Double nEffMax;
 
     @OneToMany(mappedBy = "waveguide", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("layerIndex ASC")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "waveguide-layers")
     @Builder.Default
     private List<Layer> layers = new ArrayList<>();
 
     @CreatedDate
-    @Column(nullable = false, updatable = false)
+    @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
+    /**
+     * Bumped on every change of the waveguide or its layers; the ETag of its representation.
+     * Existing rows start at 0.
+     */
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
     }
 
+    /**
+     * Records a change of the layers, which live in their own table, as a change of the
+     * waveguide so that its version is bumped when the transaction flushes.
+     */
+    public void touch() {
+        updatedAt = LocalDateTime.now();
+    }
+
     public void addLayer(Layer layer) {
         layers.add(layer);
         layer.setWaveguide(this);
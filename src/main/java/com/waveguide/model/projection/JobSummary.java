@@ -0,0 +1,29 @@
+package com.waveguide.model.projection;
+
+import com.waveguide.job.JobPriority;
+import com.waveguide.job.JobStatus;
+import com.waveguide.job.JobType;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Scalar columns of a job without its request and result text, for status, list and
+ * progress queries.
+ */
+@Value
+public class JobSummary {
+
+    UUID id;
+    UUID waveguideId;
+    JobType type;
+    JobPriority priority;
+    JobStatus status;
+    int completed;
+    int total;
+    String error;
+    Instant createdAt;
+    Instant startedAt;
+    Instant finishedAt;
+}
@@ -0,0 +1,21 @@
+package com.waveguide.model.projection;
+
+import lombok.Value;
+
+import java.util.UUID;
+
+/**
+ * Scalar columns of a layer together with the id of its waveguide, so the layers of a
+ * whole page can be loaded in one query and grouped in memory.
+ */
+@Value
+public class LayerRow {
+
+    UUID waveguideId;
+    UUID id;
+    Integer layerIndex;
+    Double E;
+    Double reEps;
+    Double imEps;
+    Double d;
+}
@@ -0,0 +1,19 @@
+package com.waveguide.model.projection;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Aggregate over a user's waveguides that changes whenever one of them is created, changed or
+ * deleted: every change raises the version sum, a delete lowers the count, and a create that
+ * makes up for a delete moves the latest creation time. The largest version alone would miss
+ * changes to any but the most changed waveguide.
+ */
+@Value
+public class WaveguideListVersion {
+
+    Long count;
+    Long versionSum;
+    LocalDateTime lastCreatedAt;
+}
@@ -0,0 +1,18 @@
+package com.waveguide.model.projection;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Scalar columns of a waveguide, selected directly into a DTO for list pages.
+ */
+@Value
+public class WaveguideSummary {
+
+    UUID id;
+    Double nEffMin;
+    Double nEffMax;
+    LocalDateTime createdAt;
+}
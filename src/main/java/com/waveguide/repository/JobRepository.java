@@ -0,0 +1,47 @@
+package com.waveguide.repository;
+
+import com.waveguide.job.JobStatus;
+import com.waveguide.model.entity.Job;
+import com.waveguide.model.entity.User;
+import com.waveguide.model.projection.JobSummary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface JobRepository extends JpaRepository<Job, UUID> {
+
+    Optional<Job> findByIdAndUser(UUID id, User user);
+
+    long countByUserAndStatus(User user, JobStatus status);
+
+    /*
+     * Summaries leave out the request and result text, which can be large for sweeps.
+     */
+
+    @Query("select new com.waveguide.model.projection.JobSummary(j.id, j.waveguideId, j.type, j.priority, j.status, "
+            + "j.completed, j.total, j.error, j.createdAt, j.startedAt, j.finishedAt) "
+            + "from Job j where j.id = :id and j.user = :user")
+    Optional<JobSummary> findSummaryByIdAndUser(@Param("id") UUID id, @Param("user") User user);
+
+    @Query(
+        value = "select new com.waveguide.model.projection.JobSummary(j.id, j.waveguideId, j.type, j.priority, j.status, "
+                + "j.completed, j.total, j.error, j.createdAt, j.startedAt, j.finishedAt) "
+                + "from Job j where j.user = :user",
+        countQuery = "select count(j) from Job j where j.user = :user"
+    )
+    Page<JobSummary> findSummariesByUser(@Param("user") User user, Pageable pageable);
+
+    @Query("select new com.waveguide.model.projection.JobSummary(j.id, j.waveguideId, j.type, j.priority, j.status, "
+            + "j.completed, j.total, j.error, j.createdAt, j.startedAt, j.finishedAt) "
+            + "from Job j where j.id in :ids")
+    List<JobSummary> findSummariesByIdIn(@Param("ids") Collection<UUID> ids);
+}
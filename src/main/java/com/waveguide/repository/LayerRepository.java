@@ -2,9 +2,13 @@ package com.waveguide.repository;
 
 import com.waveguide.model.entity.Layer;
 import com.waveguide.model.entity.Waveguide;
+import com.waveguide.model.projection.LayerRow;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -14,6 +18,10 @@ public interface LayerRepository extends JpaRepository<Layer, UUID> {
     
     List<Layer> findAllByWaveguideOrderByLayerIndexAsc(Waveguide waveguide);
     
+    @Query("select new com.waveguide.model.projection.LayerRow(l.waveguide.id, l.id, l.layerIndex, l.E, l.reEps, l.imEps, l.d) "
+            + "from Layer l where l.waveguide.id in :waveguideIds order by l.layerIndex")
+    List<LayerRow> findRowsByWaveguideIds(@Param("waveguideIds") Collection<UUID> waveguideIds);
+    
     Optional<Layer> findByIdAndWaveguideId(UUID id, UUID waveguideId);
     
     boolean existsByIdAndWaveguideId(UUID id, UUID waveguideId);
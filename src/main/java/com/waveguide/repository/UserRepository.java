@@ -1,7 +1,10 @@
 package com.waveguide.repository;
 
 import com.waveguide.model.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -10,11 +13,25 @@ import java.util.UUID;
 @Repository
 public interface UserRepository extends JpaRepository<User, UUID> {
     
+    /*
+     * The lookups by username and email run on every login and token check. Their results
+     * (user ids) are kept in the query cache and invalidated by any write to users; the
+     * users themselves come from the entity cache.
+     */
+    
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "user-lookups")
+    })
     Optional<User> findByUsername(String username);
     
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "user-lookups")
+    })
     Optional<User> findByEmail(String email);
     
     boolean existsByUsername(String username);
     
     boolean existsByEmail(String email);
-}
\ No newline at end of file
+}
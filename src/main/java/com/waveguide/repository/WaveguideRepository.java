@@ -2,11 +2,18 @@ package com.waveguide.repository;
 
 import com.waveguide.model.entity.User;
 import com.waveguide.model.entity.Waveguide;
+import com.waveguide.model.projection.WaveguideListVersion;
+import com.waveguide.model.projection.WaveguideSummary;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -15,8 +22,56 @@ public interface WaveguideRepository extends JpaRepository<Waveguide, UUID> {
     
     Page<Waveguide> findAllByUser(User user, Pageable pageable);
     
+    /**
+     * Pages over the waveguide rows alone; no collection is joined, so limit and offset
+     * are applied by the database.
+     */
+    @Query(
+        value = "select new com.waveguide.model.projection.WaveguideSummary(w.id, w.nEffMin, w.nEffMax, w.createdAt) "
+                + "from Waveguide w where w.user = :user",
+        countQuery = "select count(w) from Waveguide w where w.user = :user"
+    )
+    Page<WaveguideSummary> findSummariesByUser(@Param("user") User user, Pageable pageable);
+    
+    /*
+     * Keyset pages over (createdAt, id), served by idx_waveguides_user_created_id. The sort
+     * and the row limit come from the Pageable; returning a List skips the count query.
+     */
+    
+    @Query("select new com.waveguide.model.projection.WaveguideSummary(w.id, w.nEffMin, w.nEffMax, w.createdAt) "
+            + "from Waveguide w where w.user = :user")
+    List<WaveguideSummary> findSummarySliceByUser(@Param("user") User user, Pageable pageable);
+    
+    @Query("select new com.waveguide.model.projection.WaveguideSummary(w.id, w.nEffMin, w.nEffMax, w.createdAt) "
+            + "from Waveguide w where w.user = :user "
+            + "and (w.createdAt < :createdAt or (w.createdAt = :createdAt and w.id < :id))")
+    List<WaveguideSummary> findSummariesBefore(
+            @Param("user") User user,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") UUID id,
+            Pageable pageable
+    );
+    
+    @Query("select new com.waveguide.model.projection.WaveguideSummary(w.id, w.nEffMin, w.nEffMax, w.createdAt) "
+            + "from Waveguide w where w.user = :user "
+            + "and (w.createdAt > :createdAt or (w.createdAt = :createdAt and w.id > :id))")
+    List<WaveguideSummary> findSummariesAfter(
+            @Param("user") User user,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") UUID id,
+            Pageable pageable
+    );
+    
+    @EntityGraph(attributePaths = "layers")
     Optional<Waveguide> findByIdAndUser(UUID id, User user);
     
+    @Query("select w.version from Waveguide w where w.id = :id and w.user = :user")
+    Optional<Long> findVersionByIdAndUser(@Param("id") UUID id, @Param("user") User user);
+    
+    @Query("select new com.waveguide.model.projection.WaveguideListVersion(count(w), coalesce(sum(w.version), 0L), max(w.createdAt)) "
+            + "from Waveguide w where w.user = :user")
+    WaveguideListVersion findListVersionByUser(@Param("user") User user);
+    
     boolean existsByIdAndUser(UUID id, User user);
     
     void deleteByIdAndUser(UUID id, User user);
@@ -7,6 +7,6 @@ import java.lang.annotation.*;
 @Target({ElementType.PARAMETER, ElementType.TYPE})
 @Retention(RetentionPolicy.RUNTIME)
 @Documented
-@AuthenticationPrincipal(expression = "@userRepository.findByUsername(authentication.name)")
+@AuthenticationPrincipal(expression = "@currentUserResolver.resolve(#this)")
 public @interface CurrentUser {
 }
\ No newline at end of file
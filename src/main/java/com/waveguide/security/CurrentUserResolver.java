@@ -0,0 +1,36 @@
+package com.waveguide.security;
+
+import com.waveguide.model.entity.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+/**
+ * Resolves the authentication principal to the {@link User} passed to controllers
+ * through {@link CurrentUser}.
+ * <p>
+ * For JWT-authenticated requests the result is a detached reference carrying only the
+ * id, username and email from the token. That is all the services need to scope queries
+ * and attribute audit entries, and it costs no database round trip. Other principal
+ * types fall back to the {@link UserCache}.
+ */
+@Component
+@RequiredArgsConstructor
+public class CurrentUserResolver {
+
+    private final UserCache userCache;
+
+    public User resolve(Object principal) {
+        if (principal instanceof UserPrincipal userPrincipal) {
+            return User.builder()
+                    .id(userPrincipal.getId())
+                    .username(userPrincipal.getUsername())
+                    .email(userPrincipal.getEmail())
+                    .build();
+        }
+        if (principal instanceof UserDetails userDetails) {
+            return userCache.findByUsername(userDetails.getUsername()).orElse(null);
+        }
+        return null;
+    }
+}
@@ -30,8 +30,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                Authentication auth = tokenProvider.getAuthentication(jwt);
+            Authentication auth = StringUtils.hasText(jwt) ? tokenProvider.authenticate(jwt) : null;
+            if (auth != null) {
                 SecurityContextHolder.getContext().setAuthentication(auth);
                 log.debug("Set authentication in security context for '{}'", auth.getName());
             }
@@ -1,32 +1,99 @@
 package com.waveguide.security;
 
+import com.waveguide.cluster.StateBackend;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Revoked (logged-out) tokens, keyed by the SHA-256 digest of the JWT.
+ * <p>
+ * Lookups only read the local copy, a {@link RevokedDigestSet} whose Bloom filter answers
+ * the usual "not revoked" case without locking. A logout is written through to the
+ * {@link StateBackend} and every {@code app.cluster.sync-interval} the revocations of other
+ * instances are pulled in, so a token logged out on one instance stops working on all of
+ * them within one sync.
+ */
 @Component
 @Slf4j
 public class JwtTokenBlacklist {
 
-    private final Map<String, Date> blacklistedTokens = new ConcurrentHashMap<>();
-    
+    /** Re-read this far back on every sync so revocations committed late or by a node with a skewed clock are not missed. */
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(30);
+
+    private final StateBackend stateBackend;
+    private final RevokedDigestSet revokedDigests = new RevokedDigestSet(System.currentTimeMillis());
+    private volatile Instant lastSync = Instant.EPOCH;
+
+    public JwtTokenBlacklist(StateBackend stateBackend) {
+        this.stateBackend = stateBackend;
+    }
+
     public void addToBlacklist(String token, Date expiration) {
-        blacklistedTokens.put(token, expiration);
+        byte[] hash = JwtTokenProvider.sha256(token);
+        ByteBuffer buffer = ByteBuffer.wrap(hash);
+        revokedDigests.add(buffer.getLong(), buffer.getLong(), expiration.getTime());
+        stateBackend.revoke(Base64.getEncoder().encodeToString(hash), expiration.toInstant());
         log.debug("Token added to blacklist, expires at: {}", expiration);
     }
-    
+
     public boolean isBlacklisted(String token) {
-        return blacklistedTokens.containsKey(token);
+        return isBlacklisted(JwtTokenProvider.sha256(token));
+    }
+
+    /**
+     * @param sha256 the SHA-256 digest of the token, as from {@link JwtTokenProvider#sha256}
+     */
+    public boolean isBlacklisted(byte[] sha256) {
+        ByteBuffer buffer = ByteBuffer.wrap(sha256);
+        return revokedDigests.contains(buffer.getLong(), buffer.getLong());
     }
-    
-    @Scheduled(fixedRate = 3600000) // Run every hour
+
+    public int size() {
+        return revokedDigests.size();
+    }
+
+    public long memoryBytes() {
+        return revokedDigests.memoryBytes();
+    }
+
+    @Scheduled(fixedDelayString = "${app.cluster.sync-interval:PT0.5S}")
+    public void syncRevocations() {
+        Instant started = Instant.now();
+        try {
+            Map<String, Instant> revoked = stateBackend.revokedSince(lastSync.minus(SYNC_OVERLAP));
+            if (!revoked.isEmpty()) {
+                long[] digests = new long[2 * revoked.size()];
+                long[] expirations = new long[revoked.size()];
+                int i = 0;
+                for (Map.Entry<String, Instant> entry : revoked.entrySet()) {
+                    ByteBuffer buffer = ByteBuffer.wrap(Base64.getDecoder().decode(entry.getKey()));
+                    digests[2 * i] = buffer.getLong();
+                    digests[2 * i + 1] = buffer.getLong();
+                    expirations[i] = entry.getValue().toEpochMilli();
+                    i++;
+                }
+                revokedDigests.addAll(digests, expirations);
+            }
+            lastSync = started;
+        } catch (RuntimeException e) {
+            // Keep the local copy and retry from the same point next time
+            log.warn("Could not sync token revocations: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedRateString = "${app.security.jwt.blacklist.expiry-tick:PT1M}")
     public void cleanupExpiredTokens() {
-        Date now = new Date();
-        blacklistedTokens.entrySet().removeIf(entry -> entry.getValue().before(now));
-        log.debug("Cleaned up expired tokens from blacklist");
+        int removed = revokedDigests.advance(System.currentTimeMillis());
+        if (removed > 0) {
+            log.debug("Cleaned up {} expired tokens from blacklist", removed);
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,8 @@
 package com.waveguide.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.waveguide.model.entity.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
@@ -10,15 +13,28 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Issues and verifies JWTs.
+ * <p>
+ * A token is parsed and its signature checked at most once per cache lifetime: verified
+ * claims are kept in a bounded cache keyed by the SHA-256 digest of the token, and an
+ * entry never outlives the token's own expiration. The blacklist is still consulted on
+ * every request, so a logout takes effect immediately.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
@@ -32,15 +48,51 @@ public class JwtTokenProvider {
     
     @Value("${app.security.jwt.issuer:waveguide-management-system}")
     private String issuer;
+
+    @Value("${app.security.jwt.claims-cache.maximum-size:10000}")
+    private long claimsCacheMaximumSize;
+
+    @Value("${app.security.jwt.claims-cache.ttl:PT5M}")
+    private Duration claimsCacheTtl;
     
     private final JwtTokenBlacklist tokenBlacklist;
-    private final CustomUserDetailsService userDetailsService;
     private Key key;
+    private JwtParser parser;
+    private Cache<String, VerifiedToken> verifiedTokens;
     
     @PostConstruct
     protected void init() {
         String encodedKey = Base64.getEncoder().encodeToString(secretKey.getBytes());
         key = Keys.hmacShaKeyFor(encodedKey.getBytes());
+        parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
+        long ttlNanos = claimsCacheTtl.toNanos();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(claimsCacheMaximumSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String digest, VerifiedToken token, long currentTime) {
+                        Date expiration = token.claims.getExpiration();
+                        if (expiration == null) {
+                            return ttlNanos;
+                        }
+                        long remaining = TimeUnit.MILLISECONDS.toNanos(expiration.getTime() - System.currentTimeMillis());
+                        return Math.max(0L, Math.min(ttlNanos, remaining));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String digest, VerifiedToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String digest, VerifiedToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
     }
     
     public String generateToken(User user) {
@@ -60,19 +112,108 @@ public class JwtTokenProvider {
                 .signWith(key, SignatureAlgorithm.HS512)
                 .compact();
     }
+
+    /**
+     * Validates the token and builds the authentication for it in one pass.
+     *
+     * @return the authentication, or {@code null} if the token is blacklisted or invalid
+     */
+    public Authentication authenticate(String token) {
+        if (token == null || token.isEmpty()) {
+            log.error("JWT claims string is empty");
+            return null;
+        }
+        // One hash serves both the blacklist lookup and the claims cache key
+        byte[] hash = sha256(token);
+        if (tokenBlacklist.isBlacklisted(hash)) {
+            log.warn("Attempt to use blacklisted token");
+            return null;
+        }
+        VerifiedToken verified = verify(token, Base64.getEncoder().encodeToString(hash));
+        if (verified == null) {
+            return null;
+        }
+        return new UsernamePasswordAuthenticationToken(verified.principal, "", verified.principal.getAuthorities());
+    }
     
     public boolean validateToken(String token) {
-        if (tokenBlacklist.isBlacklisted(token)) {
-            log.warn("Attempt to use blacklisted token");
-            return false;
+        return authenticate(token) != null;
+    }
+
+    /**
+     * Returns the verified claims of the token, or {@code null} if it is not valid.
+     * Does not consult the blacklist.
+     */
+    public Claims parseClaims(String token) {
+        VerifiedToken verified = verify(token);
+        return verified != null ? verified.claims : null;
+    }
+    
+    public String getUsernameFromToken(String token) {
+        return requireClaims(token).getSubject();
+    }
+    
+    public Date getExpirationFromToken(String token) {
+        return requireClaims(token).getExpiration();
+    }
+    
+    public Authentication getAuthentication(String token) {
+        Authentication authentication = authenticate(token);
+        if (authentication == null) {
+            throw new JwtException("Invalid JWT token");
         }
-        
+        return authentication;
+    }
+    
+    public void blacklistToken(String token) {
+        Date expiration = getExpirationFromToken(token);
+        tokenBlacklist.addToBlacklist(token, expiration);
+        verifiedTokens.invalidate(digest(token));
+    }
+
+    long cachedTokenCount() {
+        verifiedTokens.cleanUp();
+        return verifiedTokens.estimatedSize();
+    }
+
+    private Claims requireClaims(String token) {
+        Claims claims = parseClaims(token);
+        if (claims == null) {
+            throw new JwtException("Invalid JWT token");
+        }
+        return claims;
+    }
+
+    private VerifiedToken verify(String token) {
+        if (token == null || token.isEmpty()) {
+            log.error("JWT claims string is empty");
+            return null;
+        }
+        return verify(token, digest(token));
+    }
+
+    private VerifiedToken verify(String token, String digest) {
+        VerifiedToken verified = verifiedTokens.getIfPresent(digest);
+        if (verified != null) {
+            return verified;
+        }
+
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token);
-            return true;
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            String userId = claims.get("userId", String.class);
+            if (userId == null) {
+                log.error("JWT token has no userId claim");
+                return null;
+            }
+            // Everything the principal needs is already in the signed claims; no user lookup
+            UserPrincipal principal = new UserPrincipal(
+                    UUID.fromString(userId),
+                    claims.getSubject(),
+                    claims.get("email", String.class)
+            );
+            verified = new VerifiedToken(claims, principal);
+            verifiedTokens.put(digest, verified);
+            return verified;
         } catch (SignatureException ex) {
             log.error("Invalid JWT signature");
         } catch (MalformedJwtException ex) {
@@ -84,36 +225,29 @@ public class JwtTokenProvider {
         } catch (IllegalArgumentException ex) {
             log.error("JWT claims string is empty");
         }
-        return false;
-    }
-    
-    public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        
-        return claims.getSubject();
+        return null;
     }
-    
-    public Date getExpirationFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        
-        return claims.getExpiration();
+
+    static String digest(String token) {
+        return Base64.getEncoder().encodeToString(sha256(token));
     }
-    
-    public Authentication getAuthentication(String token) {
-        UserDetails userDetails = userDetailsService.loadUserByUsername(getUsernameFromToken(token));
-        return new UsernamePasswordAuthenticationToken(userDetails, "", userDetails.getAuthorities());
+
+    static byte[] sha256(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
-    
-    public void blacklistToken(String token) {
-        Date expiration = getExpirationFromToken(token);
-        tokenBlacklist.addToBlacklist(token, expiration);
+
+    private static final class VerifiedToken {
+
+        private final Claims claims;
+        private final UserPrincipal principal;
+
+        private VerifiedToken(Claims claims, UserPrincipal principal) {
+            this.claims = claims;
+            this.principal = principal;
+        }
     }
-}
\ No newline at end of file
+}
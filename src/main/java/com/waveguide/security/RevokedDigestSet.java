@@ -0,0 +1,297 @@
+package com.waveguide.security;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Set of revoked token digests with expiry, built for a hot negative lookup.
+ * <p>
+ * Each digest is reduced to its first 128 bits, stored as two {@code long}s in an
+ * open-addressing table (linear probing, backward-shift deletion, no per-entry objects).
+ * In front of it sits a blocked Bloom filter: all probe bits of a digest lie in one
+ * 512-bit block, so a token that was never revoked, the common case, is answered from a
+ * single cache line under an optimistic read without taking a lock.
+ * <p>
+ * Expiry uses a timing wheel of one-minute slots: a digest is filed in the slot of its
+ * expiry minute and {@link #advance} only visits the slots that have come due, instead of
+ * scanning every entry. Expiries further out than the wheel's span wait in their slot and
+ * are re-filed when it comes round.
+ */
+final class RevokedDigestSet {
+
+    static final long TICK_MILLIS = 60_000L;
+    static final int WHEEL_SLOTS = 2048;
+
+    private static final int MIN_CAPACITY = 64;
+    private static final int BLOOM_BITS_PER_ENTRY = 16;
+    private static final int BLOOM_BLOCK_LONGS = 8;
+
+    private final StampedLock lock = new StampedLock();
+    /** Digest pairs (hi, lo); (0, 0) marks a free slot. Capacity is a power of two, at most half full. */
+    private long[] table = new long[2 * MIN_CAPACITY];
+    private int size;
+    /** Blocks of {@value #BLOOM_BLOCK_LONGS} longs; the block count is a power of two. */
+    private long[] bloom = new long[BLOOM_BLOCK_LONGS * bloomBlocks(MIN_CAPACITY)];
+    /** Per slot: triples (hi, lo, expiry tick). */
+    private final LongList[] wheel = new LongList[WHEEL_SLOTS];
+    private long currentTick;
+
+    RevokedDigestSet(long nowMillis) {
+        this.currentTick = nowMillis / TICK_MILLIS;
+    }
+
+    /**
+     * Adds a digest that stops mattering at {@code expiresAtMillis}. Already expired digests
+     * are ignored.
+     */
+    void add(long hi, long lo, long expiresAtMillis) {
+        long stamp = lock.writeLock();
+        try {
+            insert(hi, lo, expiresAtMillis);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Adds several digests under one lock: {@code digests} holds (hi, lo) pairs.
+     */
+    void addAll(long[] digests, long[] expiresAtMillis) {
+        long stamp = lock.writeLock();
+        try {
+            for (int i = 0; i < expiresAtMillis.length; i++) {
+                insert(digests[2 * i], digests[2 * i + 1], expiresAtMillis[i]);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    boolean contains(long hi, long lo) {
+        long stamp = lock.tryOptimisticRead();
+        boolean maybe = mightContain(bloom, hi);
+        if (lock.validate(stamp) && !maybe) {
+            return false;
+        }
+        stamp = lock.readLock();
+        try {
+            return indexOf(hi, lo) >= 0;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Drops every digest that expired up to {@code nowMillis}.
+     *
+     * @return the number of digests removed
+     */
+    int advance(long nowMillis) {
+        long nowTick = nowMillis / TICK_MILLIS;
+        long stamp = lock.writeLock();
+        try {
+            int removed = 0;
+            long from = Math.max(currentTick + 1, nowTick - WHEEL_SLOTS + 1);
+            for (long tick = from; tick <= nowTick; tick++) {
+                int slot = (int) (tick % WHEEL_SLOTS);
+                LongList due = wheel[slot];
+                if (due == null) {
+                    continue;
+                }
+                wheel[slot] = null;
+                for (int i = 0; i < due.size; i += 3) {
+                    long expiryTick = due.values[i + 2];
+                    if (expiryTick <= nowTick) {
+                        int index = indexOf(due.values[i], due.values[i + 1]);
+                        if (index >= 0) {
+                            removeAt(index);
+                            removed++;
+                        }
+                    } else {
+                        file(due.values[i], due.values[i + 1], expiryTick);
+                    }
+                }
+            }
+            currentTick = Math.max(currentTick, nowTick);
+            if (removed > 0) {
+                rebuildBloom(table.length / 2);
+            }
+            return removed;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Heap held by the table, the Bloom filter and the wheel, in bytes (arrays only).
+     */
+    long memoryBytes() {
+        long stamp = lock.readLock();
+        try {
+            long bytes = 8L * table.length + 8L * bloom.length + 4L * wheel.length;
+            for (LongList slot : wheel) {
+                if (slot != null) {
+                    bytes += 8L * slot.values.length;
+                }
+            }
+            return bytes;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private void insert(long hi, long lo, long expiresAtMillis) {
+        if (hi == 0L && lo == 0L) {
+            lo = 1L; // (0, 0) marks free slots; a 2^-128 chance, and a false positive at worst
+        }
+        long expiryTick = Math.floorDiv(expiresAtMillis + TICK_MILLIS - 1, TICK_MILLIS);
+        if (expiryTick <= currentTick || indexOf(hi, lo) >= 0) {
+            return;
+        }
+        if (2 * (size + 1) > table.length / 2) {
+            resize(table.length);
+        }
+        int mask = table.length / 2 - 1;
+        int index = (int) lo & mask;
+        while (table[2 * index] != 0L || table[2 * index + 1] != 0L) {
+            index = (index + 1) & mask;
+        }
+        table[2 * index] = hi;
+        table[2 * index + 1] = lo;
+        size++;
+        setBloom(bloom, hi);
+        file(hi, lo, expiryTick);
+    }
+
+    private void file(long hi, long lo, long expiryTick) {
+        int slot = (int) (expiryTick % WHEEL_SLOTS);
+        LongList list = wheel[slot];
+        if (list == null) {
+            list = new LongList();
+            wheel[slot] = list;
+        }
+        list.add(hi, lo, expiryTick);
+    }
+
+    private int indexOf(long hi, long lo) {
+        long[] keys = table;
+        int mask = keys.length / 2 - 1;
+        int index = (int) lo & mask;
+        while (true) {
+            long storedHi = keys[2 * index];
+            long storedLo = keys[2 * index + 1];
+            if (storedHi == hi && storedLo == lo) {
+                return index;
+            }
+            if (storedHi == 0L && storedLo == 0L) {
+                return -1;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    private void removeAt(int index) {
+        int mask = table.length / 2 - 1;
+        int hole = index;
+        int next = (hole + 1) & mask;
+        while (table[2 * next] != 0L || table[2 * next + 1] != 0L) {
+            int home = (int) table[2 * next + 1] & mask;
+            // Move the entry back unless its home slot lies cyclically in (hole, next]
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                table[2 * hole] = table[2 * next];
+                table[2 * hole + 1] = table[2 * next + 1];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        table[2 * hole] = 0L;
+        table[2 * hole + 1] = 0L;
+        size--;
+    }
+
+    private void resize(int newCapacity) {
+        long[] old = table;
+        table = new long[2 * newCapacity];
+        int mask = newCapacity - 1;
+        for (int i = 0; i < old.length; i += 2) {
+            if (old[i] != 0L || old[i + 1] != 0L) {
+                int index = (int) old[i + 1] & mask;
+                while (table[2 * index] != 0L || table[2 * index + 1] != 0L) {
+                    index = (index + 1) & mask;
+                }
+                table[2 * index] = old[i];
+                table[2 * index + 1] = old[i + 1];
+            }
+        }
+        rebuildBloom(newCapacity);
+    }
+
+    private void rebuildBloom(int capacity) {
+        long[] bits = new long[BLOOM_BLOCK_LONGS * bloomBlocks(capacity)];
+        for (int i = 0; i < table.length; i += 2) {
+            if (table[i] != 0L || table[i + 1] != 0L) {
+                setBloom(bits, table[i]);
+            }
+        }
+        bloom = bits;
+    }
+
+    private static int bloomBlocks(int capacity) {
+        // Sized for the table's maximum load (half its capacity)
+        long bits = (long) (capacity / 2) * BLOOM_BITS_PER_ENTRY;
+        int blocks = (int) (bits / (64L * BLOOM_BLOCK_LONGS));
+        return blocks <= 1 ? 1 : Integer.highestOneBit(blocks - 1) << 1;
+    }
+
+    // The digest is uniformly distributed, so its bits serve directly as hash values:
+    // bits 40.. pick the block, four 9-bit fields pick one bit each within the 512-bit block.
+
+    private static void setBloom(long[] bits, long hi) {
+        int base = block(bits, hi);
+        for (int probe = 0; probe < 4; probe++) {
+            int bit = (int) (hi >>> (9 * probe)) & 511;
+            bits[base + (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    private static boolean mightContain(long[] bits, long hi) {
+        int base = block(bits, hi);
+        for (int probe = 0; probe < 4; probe++) {
+            int bit = (int) (hi >>> (9 * probe)) & 511;
+            if ((bits[base + (bit >>> 6)] & (1L << bit)) == 0L) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int block(long[] bits, long hi) {
+        int blocks = bits.length / BLOOM_BLOCK_LONGS;
+        return ((int) (hi >>> 40) & (blocks - 1)) * BLOOM_BLOCK_LONGS;
+    }
+
+    private static final class LongList {
+
+        private long[] values = new long[6];
+        private int size;
+
+        private void add(long a, long b, long c) {
+            if (size + 3 > values.length) {
+                long[] grown = new long[values.length * 2];
+                System.arraycopy(values, 0, grown, 0, size);
+                values = grown;
+            }
+            values[size++] = a;
+            values[size++] = b;
+            values[size++] = c;
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.waveguide.security;
 
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -35,9 +38,19 @@ public class SecurityConfig {
             "/api/v1/auth/login",
             "/api-docs/**",
             "/swagger-ui/**",
-            "/swagger-ui.html"
+            "/swagger-ui.html",
+            "/actuator/health"
     };
 
+    @Value("${app.security.bcrypt.strength:12}")
+    private int bcryptStrength;
+
+    @Value("${server.port:8080}")
+    private int serverPort;
+
+    @Value("${management.server.port:#{null}}")
+    private Integer managementPort;
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
@@ -49,7 +62,10 @@ public class SecurityConfig {
                 session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(authorize -> authorize
                 .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+                // Streamed responses finish on an async dispatch of an already authorized request
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers(PUBLIC_ENDPOINTS).permitAll()
+                .requestMatchers(this::isManagementPortScrape).permitAll()
                 .anyRequest().authenticated()
             );
         
@@ -59,17 +75,30 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * The metrics scrape is open on the management port only, which is bound to an internal
+     * interface; on the API port it needs a token like any other request.
+     */
+    private boolean isManagementPortScrape(HttpServletRequest request) {
+        return managementPort != null
+                && managementPort != serverPort
+                && request.getLocalPort() == managementPort
+                && "/actuator/prometheus".equals(request.getRequestURI());
+    }
+
     @Bean
     public DaoAuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
+        // Rehashes on a successful login when the stored hash is weaker than the configured strength
+        authProvider.setUserDetailsPasswordService(userDetailsService);
         return authProvider;
     }
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12);
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
 
     @Bean
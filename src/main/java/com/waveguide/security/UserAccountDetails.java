@@ -0,0 +1,22 @@
+package com.waveguide.security;
+
+import org.springframework.security.core.userdetails.User;
+
+/**
+ * {@link org.springframework.security.core.userdetails.UserDetails} loaded for a password
+ * check. It carries the account's {@link UserPrincipal}, so a successful login can issue
+ * its token without loading the user a second time.
+ */
+public class UserAccountDetails extends User {
+
+    private final UserPrincipal principal;
+
+    public UserAccountDetails(UserPrincipal principal, String passwordHash) {
+        super(principal.getUsername(), passwordHash, UserPrincipal.AUTHORITIES);
+        this.principal = principal;
+    }
+
+    public UserPrincipal getPrincipal() {
+        return principal;
+    }
+}
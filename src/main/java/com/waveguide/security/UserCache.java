@@ -0,0 +1,51 @@
+package com.waveguide.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.waveguide.model.entity.User;
+import com.waveguide.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Bounded, time-limited cache of full {@link User} entities by username for the few
+ * callers that need more than the {@link UserPrincipal} carried by the JWT.
+ * Cached entities are detached snapshots and must not be modified.
+ */
+@Component
+public class UserCache {
+
+    private final UserRepository userRepository;
+    private final Cache<String, User> usersByUsername;
+
+    public UserCache(
+            UserRepository userRepository,
+            @Value("${app.security.user-cache.maximum-size:10000}") long maximumSize,
+            @Value("${app.security.user-cache.ttl:PT5M}") Duration ttl
+    ) {
+        this.userRepository = userRepository;
+        this.usersByUsername = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public Optional<User> findByUsername(String username) {
+        User user = usersByUsername.getIfPresent(username);
+        if (user == null) {
+            user = userRepository.findByUsername(username).orElse(null);
+            if (user != null) {
+                usersByUsername.put(username, user);
+            }
+        }
+        return Optional.ofNullable(user);
+    }
+
+    public void evict(String username) {
+        usersByUsername.invalidate(username);
+    }
+}
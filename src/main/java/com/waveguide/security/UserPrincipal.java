@@ -0,0 +1,33 @@
+package com.waveguide.security;
+
+import lombok.Value;
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Lightweight authenticated principal built from verified JWT claims, so an authenticated
+ * request never needs to load the user row just to know who is calling.
+ */
+@Value
+public class UserPrincipal implements AuthenticatedPrincipal {
+
+    public static final List<GrantedAuthority> AUTHORITIES = List.of(new SimpleGrantedAuthority("ROLE_USER"));
+
+    UUID id;
+    String username;
+    String email;
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    public Collection<GrantedAuthority> getAuthorities() {
+        return AUTHORITIES;
+    }
+}
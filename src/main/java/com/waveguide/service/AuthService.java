@@ -5,8 +5,10 @@ import com.waveguide.model.dto.request.LoginRequest;
 import com.waveguide.model.dto.request.UserRegistrationRequest;
 import com.waveguide.model.dto.response.AuthResponse;
 import com.waveguide.model.entity.User;
-import com.waveguide.repository.UserRepository;
 import com.waveguide.security.JwtTokenProvider;
+import com.waveguide.security.PasswordHashingService;
+import com.waveguide.security.UserAccountDetails;
+import com.waveguide.security.UserPrincipal;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -16,6 +18,8 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.concurrent.CompletableFuture;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -25,47 +29,46 @@ public class AuthService {
     private final JwtTokenProvider tokenProvider;
     private final UserService userService;
     private final LogService logService;
-    private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
 
-    @Transactional
-    public AuthResponse register(UserRegistrationRequest request) {
-        User user = userService.registerUser(request);
-        
-        String token = tokenProvider.generateToken(user);
-        long expiresIn = tokenProvider.getExpirationFromToken(token).getTime();
-        
-        logService.logUserAction(user, "REGISTRATION", "User registered successfully");
+    /**
+     * Registers a user. Uniqueness is checked on the calling thread; the password is hashed on
+     * the password hashing pool before the user is saved, outside the saving transaction.
+     */
+    public CompletableFuture<AuthResponse> register(UserRegistrationRequest request) {
+        userService.ensureAvailable(request);
         
-        return AuthResponse.builder()
-                .token(token)
-                .expiresIn(expiresIn)
-                .username(user.getUsername())
-                .email(user.getEmail())
-                .build();
+        return passwordHashingService.submit(() -> {
+            String passwordHash = passwordEncoder.encode(request.getPassword());
+            return buildAuthResponse(userService.registerUser(request, passwordHash));
+        });
     }
 
-    @Transactional
-    public AuthResponse login(LoginRequest request) {
+    /**
+     * Authenticates a user on the password hashing pool, so the BCrypt check does not hold a servlet thread.
+     */
+    public CompletableFuture<AuthResponse> login(LoginRequest request) {
+        return passwordHashingService.submit(() -> authenticate(request));
+    }
+    
+    private AuthResponse authenticate(LoginRequest request) {
         try {
             Authentication authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
             );
             
-            User user = userRepository.findByEmail(request.getEmail())
-                    .orElseThrow(() -> new AuthenticationException("User not found"));
-            
-            String token = tokenProvider.generateToken(user);
-            long expiresIn = tokenProvider.getExpirationFromToken(token).getTime();
+            // The account was loaded for the password check; its principal is all the token needs
+            UserPrincipal principal = ((UserAccountDetails) authentication.getPrincipal()).getPrincipal();
+            User user = User.builder()
+                    .id(principal.getId())
+                    .username(principal.getUsername())
+                    .email(principal.getEmail())
+                    .build();
             
             logService.logUserAction(user, "LOGIN", "User logged in successfully");
             
-            return AuthResponse.builder()
-                    .token(token)
-                    .expiresIn(expiresIn)
-                    .username(user.getUsername())
-                    .email(user.getEmail())
-                    .build();
+            return buildAuthResponse(user);
         } catch (org.springframework.security.core.AuthenticationException e) {
             throw new AuthenticationException("Invalid email or password");
         }
@@ -76,4 +79,16 @@ public class AuthService {
         tokenProvider.blacklistToken(token);
         logService.logUserAction(user, "LOGOUT", "User logged out successfully");
     }
-}
\ No newline at end of file
+    
+    private AuthResponse buildAuthResponse(User user) {
+        String token = tokenProvider.generateToken(user);
+        long expiresIn = tokenProvider.getExpirationFromToken(token).getTime();
+        
+        return AuthResponse.builder()
+                .token(token)
+                .expiresIn(expiresIn)
+                .username(user.getUsername())
+                .email(user.getEmail())
+                .build();
+    }
+}
@@ -0,0 +1,211 @@
+package com.waveguide.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.waveguide.exception.JobStateException;
+import com.waveguide.exception.QuotaExceededException;
+import com.waveguide.exception.ResourceNotFoundException;
+import com.waveguide.job.JobPriority;
+import com.waveguide.job.JobProgress;
+import com.waveguide.job.JobQueue;
+import com.waveguide.job.JobStatus;
+import com.waveguide.job.JobType;
+import com.waveguide.model.dto.request.ModeSolveRequest;
+import com.waveguide.model.dto.request.SweepRequest;
+import com.waveguide.model.dto.response.JobResponse;
+import com.waveguide.model.dto.response.ModeSolveResponse;
+import com.waveguide.model.entity.Job;
+import com.waveguide.model.entity.User;
+import com.waveguide.model.projection.JobSummary;
+import com.waveguide.repository.JobRepository;
+import com.waveguide.repository.WaveguideRepository;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Submission, inspection and execution of asynchronous solve and sweep jobs. Requests are
+ * validated when they are submitted, so a job only fails if its waveguide changes or
+ * disappears in the meantime.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class JobService {
+
+    private final JobRepository jobRepository;
+    private final JobQueue jobQueue;
+    private final WaveguideRepository waveguideRepository;
+    private final ModeService modeService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.jobs.max-queued-per-user:20}")
+    private int maxQueuedPerUser;
+
+    /** Sweep jobs keep their whole NDJSON result in one row, so their size is capped. */
+    @Value("${app.jobs.max-sweep-points:10000}")
+    private int maxSweepPoints;
+
+    /** HIGH priority is for short interactive jobs, not a way past the queue for long ones. */
+    @Value("${app.jobs.high-priority-max-points:1000}")
+    private int highPriorityMaxPoints;
+
+    public JobResponse submitSolve(UUID waveguideId, ModeSolveRequest request, JobPriority priority, User currentUser)
+            throws IOException {
+        if (!waveguideRepository.existsByIdAndUser(waveguideId, currentUser)) {
+            throw new ResourceNotFoundException("Waveguide not found with id: " + waveguideId);
+        }
+        return submit(JobType.SOLVE, waveguideId, objectMapper.writeValueAsString(request), 1, priority, currentUser);
+    }
+
+    public JobResponse submitSweep(UUID waveguideId, SweepRequest request, JobPriority priority, User currentUser)
+            throws IOException {
+        ModeService.SweepPlan plan = modeService.prepareSweep(waveguideId, request, currentUser);
+        if (plan.size() > maxSweepPoints) {
+            throw new IllegalArgumentException("Sweep jobs are limited to " + maxSweepPoints
+                    + " points; stream larger sweeps or split them");
+        }
+        return submit(JobType.SWEEP, waveguideId, objectMapper.writeValueAsString(request), plan.size(), priority, currentUser);
+    }
+
+    public JobResponse getJob(UUID jobId, User currentUser) {
+        return convertToJobResponse(findSummary(jobId, currentUser));
+    }
+
+    public Page<JobResponse> getJobs(User currentUser, Pageable pageable) {
+        return jobRepository.findSummariesByUser(currentUser, pageable).map(this::convertToJobResponse);
+    }
+
+    /**
+     * Current state of the given jobs, regardless of owner; jobs that no longer exist are left out.
+     */
+    public List<JobResponse> getJobs(Collection<UUID> jobIds) {
+        return jobRepository.findSummariesByIdIn(jobIds).stream()
+                .map(this::convertToJobResponse)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Cancels a queued job at once. A running job is stopped by its worker at the next
+     * heartbeat, so the returned state may still be {@link JobStatus#RUNNING}.
+     */
+    public JobResponse cancelJob(UUID jobId, User currentUser) {
+        JobSummary job = findSummary(jobId, currentUser);
+        if (job.getStatus().isFinished() || !jobQueue.cancel(jobId)) {
+            throw new JobStateException("Job " + jobId + " has already finished");
+        }
+        log.debug("Cancellation requested for job {}", jobId);
+        return getJob(jobId, currentUser);
+    }
+
+    public JobResult getResult(UUID jobId, User currentUser) {
+        Job job = jobRepository.findByIdAndUser(jobId, currentUser)
+                .orElseThrow(() -> new ResourceNotFoundException("Job not found with id: " + jobId));
+        if (job.getStatus() == JobStatus.FAILED) {
+            throw new JobStateException("Job " + jobId + " failed: " + job.getError());
+        }
+        if (job.getStatus() != JobStatus.SUCCEEDED) {
+            throw new JobStateException("Job " + jobId + " is " + job.getStatus() + " and has no result");
+        }
+        return new JobResult(job.getType(), job.getResult());
+    }
+
+    /**
+     * Runs a claimed job on the calling thread and returns its result.
+     *
+     * @throws com.waveguide.job.JobCancelledException if the job is asked to stop while it runs
+     */
+    public String execute(JobQueue.ClaimedJob job, JobProgress progress) throws IOException {
+        // Only the id is needed to scope the waveguide lookup to its owner
+        User owner = User.builder().id(job.getUserId()).build();
+        switch (job.getType()) {
+            case SOLVE -> {
+                ModeSolveRequest request = objectMapper.readValue(job.getRequest(), ModeSolveRequest.class);
+                progress.update(0, 1);
+                ModeSolveResponse response = modeService.solveModes(job.getWaveguideId(), request, owner);
+                return objectMapper.writeValueAsString(response);
+            }
+            case SWEEP -> {
+                SweepRequest request = objectMapper.readValue(job.getRequest(), SweepRequest.class);
+                ModeService.SweepPlan plan = modeService.prepareSweep(job.getWaveguideId(), request, owner);
+                progress.update(0, plan.size());
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                modeService.writeSweep(plan, out, solved -> progress.update(solved, plan.size()));
+                return out.toString(StandardCharsets.UTF_8);
+            }
+            default -> throw new IllegalStateException("Unknown job type " + job.getType());
+        }
+    }
+
+    private JobResponse submit(JobType type, UUID waveguideId, String request, int total, JobPriority priority,
+                               User currentUser) {
+        if (priority == JobPriority.HIGH && total > highPriorityMaxPoints) {
+            throw new IllegalArgumentException("HIGH priority is limited to jobs of at most " + highPriorityMaxPoints
+                    + " points");
+        }
+        if (jobRepository.countByUserAndStatus(currentUser, JobStatus.QUEUED) >= maxQueuedPerUser) {
+            throw new QuotaExceededException("Too many queued jobs; at most " + maxQueuedPerUser
+                    + " may wait at a time");
+        }
+        Job job = Job.builder()
+                .user(currentUser)
+                .waveguideId(waveguideId)
+                .type(type)
+                .priority(priority)
+                .status(JobStatus.QUEUED)
+                .request(request)
+                .total(total)
+                .build();
+        Job saved = jobRepository.save(job);
+        log.debug("Queued {} job {} for waveguide {} at {} priority", type, saved.getId(), waveguideId, priority);
+        return getJob(saved.getId(), currentUser);
+    }
+
+    private JobSummary findSummary(UUID jobId, User currentUser) {
+        return jobRepository.findSummaryByIdAndUser(jobId, currentUser)
+                .orElseThrow(() -> new ResourceNotFoundException("Job not found with id: " + jobId));
+    }
+
+    private JobResponse convertToJobResponse(JobSummary job) {
+        return JobResponse.builder()
+                .id(job.getId())
+                .waveguideId(job.getWaveguideId())
+                .type(job.getType())
+                .priority(job.getPriority())
+                .status(job.getStatus())
+                .completed(job.getCompleted())
+                .total(job.getTotal())
+                .error(job.getError())
+                .createdAt(job.getCreatedAt())
+                .startedAt(job.getStartedAt())
+                .finishedAt(job.getFinishedAt())
+                .build();
+    }
+
+    /**
+     * Result of a finished job: the {@code ModeSolveResponse} JSON of a solve or the NDJSON
+     * of a sweep.
+     */
+    @Getter
+    public static final class JobResult {
+
+        private final JobType type;
+        private final String body;
+
+        private JobResult(JobType type, String body) {
+            this.type = type;
+            this.body = body;
+        }
+    }
+}
@@ -1,35 +1,273 @@
 package com.waveguide.service;
 
-import com.waveguide.model.entity.Log;
 import com.waveguide.model.entity.User;
-import com.waveguide.repository.LogRepository;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Audit log writer.
+ * <p>
+ * {@link #logUserAction} never touches the database. Entries are queued, once the
+ * caller's transaction has committed, on a bounded lock-free queue, and a single writer
+ * thread drains the queue into {@code logs} with JDBC batch inserts, either every
+ * {@code flush-interval} or as soon as {@code batch-size} entries are waiting. When the
+ * queue is full the {@link OverflowPolicy} decides between dropping entries and making
+ * the caller write a batch itself. Whatever is still queued at shutdown is written
+ * before the data source closes.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class LogService {
-    
-    private final LogRepository logRepository;
 
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    private static final String INSERT_SQL =
+            "INSERT INTO logs (id, user_id, action, details, created_at) VALUES (?, ?, ?, ?, ?)";
+
+    public enum OverflowPolicy {
+        /** Discard the entry being logged. */
+        DROP_NEWEST,
+        /** Discard the oldest queued entry to make room. */
+        DROP_OLDEST,
+        /** Write a batch on the calling thread before queueing. */
+        CALLER_RUNS
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int capacity;
+    private final int batchSize;
+    private final OverflowPolicy overflowPolicy;
+
+    private final Queue<AuditEntry> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final ScheduledExecutorService writer;
+    private final Timer writeTimer;
+
+    public LogService(
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${app.audit.queue-capacity:10000}") int capacity,
+            @Value("${app.audit.batch-size:200}") int batchSize,
+            @Value("${app.audit.flush-interval:PT0.5S}") Duration flushInterval,
+            @Value("${app.audit.overflow-policy:DROP_NEWEST}") OverflowPolicy overflowPolicy
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.capacity = Math.max(1, capacity);
+        this.batchSize = Math.max(1, batchSize);
+        this.overflowPolicy = overflowPolicy;
+        this.writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "audit-log-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMs = Math.max(1L, flushInterval.toMillis());
+        writer.scheduleWithFixedDelay(this::flushQuietly, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+
+        this.writeTimer = Timer.builder("audit.log.write")
+                .description("Latency of one audit log batch insert")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("audit.log.queue.size", queued, AtomicInteger::get)
+                .description("Audit log entries waiting to be written")
+                .register(meterRegistry);
+        FunctionCounter.builder("audit.log.entries", written, LongAdder::sum)
+                .tag("outcome", "written")
+                .register(meterRegistry);
+        FunctionCounter.builder("audit.log.entries", dropped, LongAdder::sum)
+                .tag("outcome", "dropped")
+                .register(meterRegistry);
+        FunctionCounter.builder("audit.log.entries", failed, LongAdder::sum)
+                .tag("outcome", "failed")
+                .register(meterRegistry);
+    }
+
     public void logUserAction(User user, String action, String details) {
+        AuditEntry entry = new AuditEntry(UUID.randomUUID(), user.getId(), action, details, LocalDateTime.now());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // The user row may not be visible to the writer until the caller commits
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(entry);
+                }
+            });
+        } else {
+            enqueue(entry);
+        }
+    }
+
+    void enqueue(AuditEntry entry) {
+        while (!tryReserve()) {
+            switch (overflowPolicy) {
+                case DROP_NEWEST -> {
+                    dropped.increment();
+                    return;
+                }
+                case DROP_OLDEST -> {
+                    if (queue.poll() != null) {
+                        queued.decrementAndGet();
+                        dropped.increment();
+                    }
+                }
+                case CALLER_RUNS -> {
+                    if (writeBatch() == 0) {
+                        Thread.onSpinWait();
+                    }
+                }
+            }
+        }
+        queue.offer(entry);
+        log.debug("Queued action: {} for user: {}, details: {}", entry.action, entry.userId, entry.details);
+        if (queued.get() >= batchSize && flushRequested.compareAndSet(false, true)) {
+            try {
+                writer.execute(() -> {
+                    flushRequested.set(false);
+                    flushQuietly();
+                });
+            } catch (RuntimeException e) {
+                // Writer already shut down; the shutdown flush picks the entry up
+                flushRequested.set(false);
+            }
+        }
+    }
+
+    /**
+     * Writes everything queued so far.
+     */
+    public void flush() {
+        while (writeBatch() > 0) {
+            // keep draining
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        writer.shutdown();
+        if (!writer.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("Audit log writer did not stop in time");
+        }
+        flush();
+        log.info("Audit log writer stopped: {} written, {} dropped, {} failed",
+                getWrittenCount(), getDroppedCount(), getFailedCount());
+    }
+
+    public int getQueueSize() {
+        return queued.get();
+    }
+
+    public long getWrittenCount() {
+        return written.sum();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    private boolean tryReserve() {
+        int current;
+        do {
+            current = queued.get();
+            if (current >= capacity) {
+                return false;
+            }
+        } while (!queued.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            // Make sure a failing write doesn't stop the scheduled writer
+            log.error("Error writing audit log batch", e);
+        }
+    }
+
+    private int writeBatch() {
+        List<AuditEntry> batch = new ArrayList<>(batchSize);
+        AuditEntry entry;
+        while (batch.size() < batchSize && (entry = queue.poll()) != null) {
+            batch.add(entry);
+        }
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        queued.addAndGet(-batch.size());
+
         try {
-            Log logEntry = Log.builder()
-                    .user(user)
-                    .action(action)
-                    .details(details)
-                    .build();
-            
-            logRepository.save(logEntry);
-            log.info("Logged action: {} for user: {}, details: {}", action, user.getUsername(), details);
-        } catch (Exception e) {
-            // Make sure an error in logging doesn't affect the main transaction
-            log.error("Error logging user action", e);
-        }
-    }
-}
\ No newline at end of file
+            insert(batch);
+            written.add(batch.size());
+        } catch (DataAccessException e) {
+            // One bad row (e.g. its user was deleted meanwhile) must not lose the whole batch
+            log.warn("Audit log batch of {} failed, retrying row by row: {}", batch.size(), e.getMessage());
+            for (AuditEntry single : batch) {
+                try {
+                    insert(List.of(single));
+                    written.increment();
+                } catch (DataAccessException rowError) {
+                    failed.increment();
+                    log.error("Dropping audit log entry {} for user {}", single.action, single.userId, rowError);
+                }
+            }
+        }
+        return batch.size();
+    }
+
+    private void insert(List<AuditEntry> batch) {
+        writeTimer.record(() -> jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, entry) -> {
+            ps.setObject(1, entry.id);
+            ps.setObject(2, entry.userId);
+            ps.setString(3, entry.action);
+            ps.setString(4, entry.details);
+            ps.setTimestamp(5, Timestamp.valueOf(entry.createdAt));
+        }));
+    }
+
+    static final class AuditEntry {
+
+        private final UUID id;
+        private final UUID userId;
+        private final String action;
+        private final String details;
+        private final LocalDateTime createdAt;
+
+        AuditEntry(UUID id, UUID userId, String action, String details, LocalDateTime createdAt) {
+            this.id = id;
+            this.userId = userId;
+            this.action = action;
+            this.details = details;
+            this.createdAt = createdAt;
+        }
+    }
+}
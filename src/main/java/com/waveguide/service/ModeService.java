@@ -0,0 +1,350 @@
+package com.waveguide.service;
+
+import com.waveguide.exception.ResourceNotFoundException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.waveguide.model.dto.request.DispersionRequest;
+import com.waveguide.model.dto.request.FieldRequest;
+import com.waveguide.model.dto.request.ModeSolveRequest;
+import com.waveguide.model.dto.request.SweepRequest;
+import com.waveguide.model.dto.response.ModeResponse;
+import com.waveguide.model.dto.response.ModeSolveResponse;
+import com.waveguide.model.dto.response.SweepPointResponse;
+import com.waveguide.model.entity.User;
+import com.waveguide.model.entity.Waveguide;
+import com.waveguide.repository.WaveguideRepository;
+import com.waveguide.solver.DispersionCurves;
+import com.waveguide.solver.DispersionTracker;
+import com.waveguide.solver.FieldProfile;
+import com.waveguide.solver.LayerStack;
+import com.waveguide.solver.Mode;
+import com.waveguide.solver.ModeResultCache;
+import com.waveguide.solver.ModeSolution;
+import com.waveguide.solver.ModeSolver;
+import com.waveguide.solver.ParameterSweep;
+import com.waveguide.solver.Polarization;
+import com.waveguide.solver.SolveSpec;
+import com.waveguide.solver.SweepParameter;
+import com.waveguide.solver.SweepPoint;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ModeService {
+
+    private final WaveguideRepository waveguideRepository;
+    private final ModeSolver modeSolver;
+    private final ModeResultCache modeResultCache;
+    private final ParameterSweep parameterSweep;
+    private final DispersionTracker dispersionTracker;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.solver.default-samples:4096}")
+    private int defaultSamples;
+
+    @Value("${app.solver.tolerance:1e-12}")
+    private double tolerance;
+
+    @Value("${app.solver.field.default-points:100000}")
+    private int defaultFieldPoints;
+
+    @Value("${app.solver.dispersion.accuracy:1e-6}")
+    private double dispersionAccuracy;
+
+    @Transactional(readOnly = true)
+    public ModeSolveResponse solveModes(UUID waveguideId, ModeSolveRequest request, User currentUser) {
+        Waveguide waveguide = waveguideRepository.findByIdAndUser(waveguideId, currentUser)
+                .orElseThrow(() -> new ResourceNotFoundException("Waveguide not found with id: " + waveguideId));
+
+        LayerStack stack = LayerStack.fromLayers(waveguide.getLayers());
+        SolveSpec spec = buildSpec(waveguide, request);
+        ModeResultCache.Key key = ModeResultCache.key(
+                ModeResultCache.digest(stack, waveguide.getNEffMin(), waveguide.getNEffMax()), spec);
+
+        ModeSolution solution = modeResultCache.get(key);
+        boolean cached = solution != null;
+        if (!cached) {
+            solution = modeSolver.solve(stack, spec);
+            modeResultCache.put(waveguideId, key, solution);
+            log.debug("Solved {} modes for waveguide {} in {} evaluations",
+                    solution.getModes().size(), waveguideId, solution.getEvaluations());
+        }
+
+        return ModeSolveResponse.builder()
+                .waveguideId(waveguideId)
+                .wavelength(spec.getWavelength())
+                .polarization(spec.getPolarization())
+                .modes(convertToModeResponses(solution.getModes()))
+                .evaluations(solution.getEvaluations())
+                .elapsedMs(solution.getElapsedNanos() / 1_000_000.0)
+                .cached(cached)
+                .build();
+    }
+
+    /**
+     * Loads and validates everything a sweep needs, so the sweep itself can run after the
+     * transaction has closed without touching the database again.
+     */
+    @Transactional(readOnly = true)
+    public SweepPlan prepareSweep(UUID waveguideId, SweepRequest request, User currentUser) {
+        Waveguide waveguide = waveguideRepository.findByIdAndUser(waveguideId, currentUser)
+                .orElseThrow(() -> new ResourceNotFoundException("Waveguide not found with id: " + waveguideId));
+
+        SweepParameter parameter = SweepParameter.parse(request.getParameter());
+        if (!parameter.isWavelength() && request.getWavelength() == null) {
+            throw new IllegalArgumentException("wavelength is required unless the sweep parameter is wavelength");
+        }
+        if (parameter.isWavelength() && (request.getStart() <= 0 || request.getEnd() <= 0)) {
+            throw new IllegalArgumentException("Wavelength sweep range must be greater than 0");
+        }
+
+        LayerStack stack = LayerStack.fromLayers(waveguide.getLayers());
+        // Fail fast on an out-of-range layer index before the response starts streaming
+        parameter.apply(stack, request.getStart());
+
+        SolveSpec spec = buildSpec(
+                waveguide,
+                parameter.isWavelength() ? request.getStart() : request.getWavelength(),
+                request.getPolarization(),
+                request.getSamples(),
+                null
+        );
+        double[] values = ParameterSweep.linspace(request.getStart(), request.getEnd(), request.getPoints());
+        int parallelism = request.getParallelism() != null ? request.getParallelism() : 0;
+        return new SweepPlan(stack, spec, parameter, values, parallelism);
+    }
+
+    /**
+     * Runs a prepared sweep and writes one JSON object per point, newline delimited, in point order.
+     */
+    public void writeSweep(SweepPlan plan, OutputStream out) throws IOException {
+        writeSweep(plan, out, solved -> { });
+    }
+
+    /**
+     * Like {@link #writeSweep(SweepPlan, OutputStream)}, passing the number of points solved so
+     * far to {@code progress} as the solver threads complete them. An exception thrown by
+     * {@code progress} stops the sweep.
+     */
+    public void writeSweep(SweepPlan plan, OutputStream out, IntConsumer progress) throws IOException {
+        parameterSweep.run(plan.stack, plan.spec, plan.parameter, plan.values, plan.parallelism, point -> {
+            out.write(objectMapper.writeValueAsBytes(convertToSweepPointResponse(point)));
+            out.write('\n');
+            // The first line at once, so clients see the sweep start
+            if (point.getIndex() == 0 || point.getIndex() % 100 == 99) {
+                out.flush();
+            }
+        }, progress);
+        out.flush();
+    }
+
+    /**
+     * Solves the waveguide (through the result cache) and sets up the field profile of mode
+     * {@code order} on the requested grid, so the profile can be streamed after the
+     * transaction has closed.
+     */
+    @Transactional(readOnly = true)
+    public FieldPlan prepareField(UUID waveguideId, int order, FieldRequest request, User currentUser) {
+        Waveguide waveguide = waveguideRepository.findByIdAndUser(waveguideId, currentUser)
+                .orElseThrow(() -> new ResourceNotFoundException("Waveguide not found with id: " + waveguideId));
+        boolean float32 = switch (request.getFormat() != null ? request.getFormat() : "float64") {
+            case "float64" -> false;
+            case "float32" -> true;
+            default -> throw new IllegalArgumentException("format must be float64 or float32");
+        };
+
+        LayerStack stack = LayerStack.fromLayers(waveguide.getLayers());
+        SolveSpec spec = buildSpec(waveguide, request.getWavelength(), request.getPolarization(), request.getSamples(), null);
+        ModeResultCache.Key key = ModeResultCache.key(
+                ModeResultCache.digest(stack, waveguide.getNEffMin(), waveguide.getNEffMax()), spec);
+        ModeSolution solution = modeResultCache.get(key);
+        if (solution == null) {
+            solution = modeSolver.solve(stack, spec);
+            modeResultCache.put(waveguideId, key, solution);
+        }
+        if (order < 0 || order >= solution.getModes().size()) {
+            throw new ResourceNotFoundException("Mode " + order + " not found; the waveguide has "
+                    + solution.getModes().size() + " modes at this wavelength");
+        }
+        Mode mode = solution.getModes().get(order);
+        FieldProfile profile = new FieldProfile(
+                stack, spec.getPolarization(), spec.getWavelength(), mode.getNEffRe(), mode.getNEffIm());
+
+        // Default range: the films plus one wavelength of cladding on either side
+        double from = request.getFrom() != null ? request.getFrom() : -spec.getWavelength();
+        double to = request.getTo() != null ? request.getTo() : profile.thickness() + spec.getWavelength();
+        if (!(to > from)) {
+            throw new IllegalArgumentException("to must be greater than from");
+        }
+        int points = request.getPoints() != null ? request.getPoints() : defaultFieldPoints;
+        int decimate = request.getDecimate() != null ? request.getDecimate() : 1;
+        double step = (to - from) / (points - 1) * decimate;
+        long count = (points - 1) / decimate + 1;
+        return new FieldPlan(profile, from, step, count, !stack.isLossless(), float32);
+    }
+
+    /**
+     * Streams a prepared field profile as raw little-endian values.
+     */
+    public void writeField(FieldPlan plan, OutputStream out) throws IOException {
+        plan.profile.write(Channels.newChannel(out), plan.from, plan.step, plan.count, plan.complex, plan.float32);
+    }
+
+    /**
+     * Loads everything a dispersion trace needs, so the trace can run after the transaction
+     * has closed.
+     */
+    @Transactional(readOnly = true)
+    public DispersionPlan prepareDispersion(UUID waveguideId, DispersionRequest request, User currentUser) {
+        Waveguide waveguide = waveguideRepository.findByIdAndUser(waveguideId, currentUser)
+                .orElseThrow(() -> new ResourceNotFoundException("Waveguide not found with id: " + waveguideId));
+        if (request.getStart().equals(request.getEnd())) {
+            throw new IllegalArgumentException("Wavelength range must not be empty");
+        }
+
+        LayerStack stack = LayerStack.fromLayers(waveguide.getLayers());
+        SolveSpec spec = buildSpec(waveguide, request.getStart(), request.getPolarization(), request.getSamples(), null);
+        double accuracy = request.getAccuracy() != null ? request.getAccuracy() : dispersionAccuracy;
+        return new DispersionPlan(stack, spec, request.getStart(), request.getEnd(), accuracy);
+    }
+
+    /**
+     * Traces a prepared dispersion request and writes the curves in their binary form.
+     */
+    public void writeDispersion(DispersionPlan plan, OutputStream out) throws IOException {
+        DispersionCurves curves = dispersionTracker.trace(plan.stack, plan.spec, plan.start, plan.end, plan.accuracy);
+        log.debug("Traced {} dispersion branches in {} steps ({} rejected, {} scans, {} evaluations)",
+                curves.getBranches().size(), curves.getAcceptedSteps(), curves.getRejectedSteps(),
+                curves.getScans(), curves.getEvaluations());
+        curves.writeTo(out);
+    }
+
+    private SolveSpec buildSpec(Waveguide waveguide, ModeSolveRequest request) {
+        return buildSpec(waveguide, request.getWavelength(), request.getPolarization(),
+                request.getSamples(), request.getParallelism());
+    }
+
+    private SolveSpec buildSpec(Waveguide waveguide, double wavelength, Polarization polarization,
+                                Integer samples, Integer parallelism) {
+        return SolveSpec.builder()
+                .wavelength(wavelength)
+                .polarization(polarization != null ? polarization : Polarization.TE)
+                .nEffMin(waveguide.getNEffMin())
+                .nEffMax(waveguide.getNEffMax())
+                .samples(samples != null ? samples : defaultSamples)
+                .tolerance(tolerance)
+                .parallelism(parallelism != null ? parallelism : 0)
+                .build();
+    }
+
+    private SweepPointResponse convertToSweepPointResponse(SweepPoint point) {
+        return SweepPointResponse.builder()
+                .index(point.getIndex())
+                .value(point.getValue())
+                .continued(point.isContinued())
+                .modes(convertToModeResponses(point.getSolution().getModes()))
+                .build();
+    }
+
+    private List<ModeResponse> convertToModeResponses(List<Mode> modes) {
+        return modes.stream()
+                .map(this::convertToModeResponse)
+                .collect(Collectors.toList());
+    }
+
+    private ModeResponse convertToModeResponse(Mode mode) {
+        return ModeResponse.builder()
+                .order(mode.getOrder())
+                .nEffRe(mode.getNEffRe())
+                .nEffIm(mode.getNEffIm())
+                .build();
+    }
+
+    /**
+     * Detached field profile and sampling grid of a validated field request.
+     */
+    @Getter
+    public static final class FieldPlan {
+
+        @Getter(AccessLevel.NONE)
+        private final FieldProfile profile;
+        private final double from;
+        private final double step;
+        private final long count;
+        private final boolean complex;
+        private final boolean float32;
+
+        private FieldPlan(FieldProfile profile, double from, double step, long count, boolean complex, boolean float32) {
+            this.profile = profile;
+            this.from = from;
+            this.step = step;
+            this.count = count;
+            this.complex = complex;
+            this.float32 = float32;
+        }
+
+        /** Size of the streamed body in bytes. */
+        public long contentLength() {
+            return count * (float32 ? 4 : 8) * (complex ? 2 : 1);
+        }
+    }
+
+    /**
+     * Detached snapshot of a validated dispersion request.
+     */
+    public static final class DispersionPlan {
+
+        private final LayerStack stack;
+        private final SolveSpec spec;
+        private final double start;
+        private final double end;
+        private final double accuracy;
+
+        private DispersionPlan(LayerStack stack, SolveSpec spec, double start, double end, double accuracy) {
+            this.stack = stack;
+            this.spec = spec;
+            this.start = start;
+            this.end = end;
+            this.accuracy = accuracy;
+        }
+    }
+
+    /**
+     * Detached snapshot of a validated sweep request.
+     */
+    public static final class SweepPlan {
+
+        private final LayerStack stack;
+        private final SolveSpec spec;
+        private final SweepParameter parameter;
+        private final double[] values;
+        private final int parallelism;
+
+        private SweepPlan(LayerStack stack, SolveSpec spec, SweepParameter parameter, double[] values, int parallelism) {
+            this.stack = stack;
+            this.spec = spec;
+            this.parameter = parameter;
+            this.values = values;
+            this.parallelism = parallelism;
+        }
+
+        /** Number of sweep points. */
+        public int size() {
+            return values.length;
+        }
+    }
+}
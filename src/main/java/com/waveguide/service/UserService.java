@@ -5,7 +5,7 @@ import com.waveguide.model.dto.request.UserRegistrationRequest;
 import com.waveguide.model.entity.User;
 import com.waveguide.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,29 +16,28 @@ import java.util.Optional;
 public class UserService {
     
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
     private final LogService logService;
 
+    /**
+     * Saves a user whose password has already been hashed, so the transaction holds its
+     * connection for the insert only. Availability was checked by {@link #ensureAvailable};
+     * a name or email taken since then is caught by the unique constraints.
+     */
     @Transactional
-    public User registerUser(UserRegistrationRequest request) {
-        // Check if username is already taken
-        if (userRepository.existsByUsername(request.getUsername())) {
-            throw new UserAlreadyExistsException("Username already exists");
-        }
-        
-        // Check if email is already registered
-        if (userRepository.existsByEmail(request.getEmail())) {
-            throw new UserAlreadyExistsException("Email already registered");
-        }
-        
+    public User registerUser(UserRegistrationRequest request, String passwordHash) {
         // Create new user
         User user = User.builder()
                 .username(request.getUsername())
                 .email(request.getEmail())
-                .passwordHash(passwordEncoder.encode(request.getPassword()))
+                .passwordHash(passwordHash)
                 .build();
         
-        User savedUser = userRepository.save(user);
+        User savedUser;
+        try {
+            savedUser = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw new UserAlreadyExistsException("Username or email already registered");
+        }
         
         // Log user registration
         logService.logUserAction(savedUser, "REGISTRATION", "User registered successfully");
@@ -46,6 +45,22 @@ public class UserService {
         return savedUser;
     }
 
+    /**
+     * Fails fast if the username or email is taken, before any password hashing is spent on the request.
+     */
+    @Transactional(readOnly = true)
+    public void ensureAvailable(UserRegistrationRequest request) {
+        // Check if username is already taken
+        if (userRepository.existsByUsername(request.getUsername())) {
+            throw new UserAlreadyExistsException("Username already exists");
+        }
+        
+        // Check if email is already registered
+        if (userRepository.existsByEmail(request.getEmail())) {
+            throw new UserAlreadyExistsException("Email already registered");
+        }
+    }
+
     @Transactional(readOnly = true)
     public Optional<User> getUserByEmail(String email) {
         return userRepository.findByEmail(email);
@@ -0,0 +1,14 @@
+package com.waveguide.service;
+
+import lombok.Value;
+
+import java.util.UUID;
+
+/**
+ * Published whenever a waveguide's window or layer stack changes or the waveguide is deleted.
+ */
+@Value
+public class WaveguideChangedEvent {
+
+    UUID waveguideId;
+}
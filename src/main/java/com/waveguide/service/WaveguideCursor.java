@@ -0,0 +1,40 @@
+package com.waveguide.service;
+
+import lombok.Value;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in a waveguide listing ordered by (createdAt, id): the last row of the previous
+ * page and the direction of the walk. Clients only ever see the opaque {@link #encode()} form.
+ */
+@Value
+public class WaveguideCursor {
+
+    LocalDateTime createdAt;
+    UUID id;
+    Sort.Direction direction;
+
+    public String encode() {
+        String raw = direction.name() + "|" + createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static WaveguideCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new WaveguideCursor(LocalDateTime.parse(parts[1]), UUID.fromString(parts[2]), Sort.Direction.valueOf(parts[0]));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.waveguide.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.waveguide.model.dto.response.LayerResponse;
+import com.waveguide.model.dto.response.WaveguideResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams every waveguide of a user, with its layers, as newline-delimited JSON.
+ * <p>
+ * Rows come from a single forward-only query over waveguides left-joined with their
+ * layers, read with a bounded fetch size inside a read-only transaction (PostgreSQL only
+ * uses a server-side cursor when auto-commit is off). Rows of one waveguide are adjacent,
+ * so only the waveguide being assembled is held in memory, however many the user owns.
+ */
+@Service
+@Slf4j
+public class WaveguideExportService {
+
+    private static final String EXPORT_SQL =
+            "SELECT w.id, w.n_eff_min, w.n_eff_max, w.created_at, "
+            + "l.id AS layer_id, l.layer_index, l.e, l.re_eps, l.im_eps, l.d "
+            + "FROM waveguides w LEFT JOIN layers l ON l.waveguide_id = w.id "
+            + "WHERE w.user_id = ? "
+            + "ORDER BY w.created_at, w.id, l.layer_index";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    public WaveguideExportService(
+            DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            @Value("${app.export.fetch-size:1000}") int fetchSize
+    ) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Writes one JSON object per waveguide, oldest first, in the same shape as
+     * {@code GET /api/v1/waveguides/{id}}. Closes {@code out} when done.
+     */
+    public void export(UUID userId, OutputStream out, boolean gzip) throws IOException {
+        OutputStream target = gzip ? new GZIPOutputStream(out, 64 * 1024) : out;
+        try (SequenceWriter writer = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n")
+                .writeValues(target)) {
+            ExportHandler handler = new ExportHandler(writer);
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(EXPORT_SQL, handler, userId));
+            handler.finish();
+            writer.flush();
+            target.write('\n');
+            log.debug("Exported {} waveguides for user {}", handler.count, userId);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Assembles consecutive rows of the same waveguide and writes it when the next one starts.
+     */
+    private static final class ExportHandler implements RowCallbackHandler {
+
+        private final SequenceWriter writer;
+        private WaveguideResponse current;
+        private List<LayerResponse> layers;
+        private long count;
+
+        private ExportHandler(SequenceWriter writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            UUID id = rs.getObject("id", UUID.class);
+            if (current == null || !current.getId().equals(id)) {
+                finish();
+                layers = new ArrayList<>();
+                current = WaveguideResponse.builder()
+                        .id(id)
+                        .nEffMin(rs.getDouble("n_eff_min"))
+                        .nEffMax(rs.getDouble("n_eff_max"))
+                        .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                        .layers(layers)
+                        .build();
+            }
+            UUID layerId = rs.getObject("layer_id", UUID.class);
+            if (layerId != null) {
+                layers.add(LayerResponse.builder()
+                        .id(layerId)
+                        .layerIndex(rs.getInt("layer_index"))
+                        .E(rs.getDouble("e"))
+                        .reEps(rs.getDouble("re_eps"))
+                        .imEps(rs.getDouble("im_eps"))
+                        .d(rs.getDouble("d"))
+                        .build());
+            }
+        }
+
+        private void finish() {
+            if (current == null) {
+                return;
+            }
+            try {
+                writer.write(current);
+            } catch (IOException e) {
+                // Client went away; abort the query instead of reading the rest of the cursor
+                throw new UncheckedIOException(e);
+            }
+            count++;
+            current = null;
+        }
+    }
+}
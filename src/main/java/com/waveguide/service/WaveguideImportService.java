@@ -0,0 +1,235 @@
+package com.waveguide.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.waveguide.model.dto.request.LayerRequest;
+import com.waveguide.model.dto.request.WaveguideRequest;
+import com.waveguide.model.dto.response.ImportResponse;
+import com.waveguide.model.entity.Layer;
+import com.waveguide.model.entity.User;
+import com.waveguide.model.entity.Waveguide;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk import of waveguides from a JSON array or NDJSON stream.
+ * <p>
+ * Records are parsed one at a time and validated as they arrive, so the upload is never
+ * held in memory. Valid records are written {@code chunk-size} at a time, each chunk in
+ * its own transaction through the entity manager, letting Hibernate batch the waveguide
+ * and layer inserts ({@code hibernate.jdbc.batch_size}, {@code order_inserts}). Invalid
+ * records are reported by position and skipped; if a chunk fails to write, its records
+ * are retried one transaction each so only the offending ones are rejected. The whole
+ * import is audited as a single entry.
+ */
+@Service
+@Slf4j
+public class WaveguideImportService {
+
+    private final ObjectMapper objectMapper;
+    private final ObjectReader requestReader;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final LogService logService;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public WaveguideImportService(
+            ObjectMapper objectMapper,
+            Validator validator,
+            PlatformTransactionManager transactionManager,
+            LogService logService,
+            @Value("${app.import.chunk-size:500}") int chunkSize,
+            @Value("${app.import.max-reported-errors:1000}") int maxReportedErrors
+    ) {
+        this.objectMapper = objectMapper;
+        this.requestReader = objectMapper.readerFor(WaveguideRequest.class);
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.logService = logService;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxReportedErrors = Math.max(0, maxReportedErrors);
+    }
+
+    /**
+     * Imports every record of {@code in} for {@code currentUser}. Records before a syntax error
+     * in the stream are still imported; the report is then marked as aborted.
+     */
+    public ImportResponse importWaveguides(InputStream in, User currentUser) throws IOException {
+        long started = System.nanoTime();
+        Report report = new Report();
+        List<Pending> chunk = new ArrayList<>(chunkSize);
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            JsonToken token = parser.nextToken();
+            // A top-level array is unwrapped; anything else is read as a sequence of root values
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = parser.nextToken();
+            }
+            while (token != null && !(array && token == JsonToken.END_ARRAY)) {
+                JsonNode node = parser.readValueAsTree();
+                long index = report.received++;
+                WaveguideRequest request = bind(node, index, report);
+                if (request != null) {
+                    chunk.add(new Pending(index, request));
+                    if (chunk.size() == chunkSize) {
+                        writeChunk(chunk, currentUser, report);
+                        chunk.clear();
+                    }
+                }
+                token = parser.nextToken();
+            }
+        } catch (JsonProcessingException e) {
+            report.aborted = true;
+            report.reject(report.received++, "Malformed input: " + e.getOriginalMessage());
+        }
+        writeChunk(chunk, currentUser, report);
+
+        double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+        logService.logUserAction(
+                currentUser,
+                "WAVEGUIDE_IMPORT",
+                "Imported " + report.imported + " of " + report.received + " waveguides"
+        );
+        log.debug("Imported {} of {} waveguides in {} s", report.imported, report.received, elapsedSeconds);
+
+        return ImportResponse.builder()
+                .received(report.received)
+                .imported(report.imported)
+                .rejected(report.rejected)
+                .aborted(report.aborted)
+                .errors(report.errors)
+                .errorsTruncated(report.rejected > report.errors.size())
+                .elapsedMs(elapsedSeconds * 1000.0)
+                .stacksPerSecond(elapsedSeconds > 0 ? report.imported / elapsedSeconds : 0.0)
+                .build();
+    }
+
+    private WaveguideRequest bind(JsonNode node, long index, Report report) {
+        WaveguideRequest request;
+        try {
+            request = requestReader.treeToValue(node, WaveguideRequest.class);
+        } catch (JsonProcessingException e) {
+            report.reject(index, e.getOriginalMessage());
+            return null;
+        }
+        if (request == null) {
+            report.reject(index, "Record must be a JSON object");
+            return null;
+        }
+
+        Set<ConstraintViolation<WaveguideRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            report.reject(index, violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+            return null;
+        }
+        if (request.getNEffMax() <= request.getNEffMin()) {
+            report.reject(index, "n_eff_max must be greater than n_eff_min");
+            return null;
+        }
+        return request;
+    }
+
+    private void writeChunk(List<Pending> chunk, User currentUser, Report report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            persist(chunk, currentUser);
+            report.imported += chunk.size();
+        } catch (RuntimeException e) {
+            log.warn("Import chunk of {} records failed, retrying one by one: {}", chunk.size(), e.getMessage());
+            for (Pending pending : chunk) {
+                try {
+                    persist(List.of(pending), currentUser);
+                    report.imported++;
+                } catch (RuntimeException single) {
+                    report.reject(pending.index, "Could not be stored");
+                }
+            }
+        }
+    }
+
+    private void persist(List<Pending> chunk, User currentUser) {
+        transactionTemplate.executeWithoutResult(status -> {
+            User owner = entityManager.getReference(User.class, currentUser.getId());
+            for (Pending pending : chunk) {
+                entityManager.persist(convertToWaveguideEntity(pending.request, owner));
+            }
+            entityManager.flush();
+            // Keep the persistence context from growing across chunks
+            entityManager.clear();
+        });
+    }
+
+    private Waveguide convertToWaveguideEntity(WaveguideRequest request, User owner) {
+        Waveguide waveguide = Waveguide.builder()
+                .user(owner)
+                .nEffMin(request.getNEffMin())
+                .nEffMax(request.getNEffMax())
+                .build();
+        if (request.getLayers() != null) {
+            for (LayerRequest layerRequest : request.getLayers()) {
+                waveguide.addLayer(Layer.builder()
+                        .E(layerRequest.getE())
+                        .reEps(layerRequest.getReEps())
+                        .imEps(layerRequest.getImEps())
+                        .d(layerRequest.getD())
+                        .build());
+            }
+        }
+        return waveguide;
+    }
+
+    private static final class Pending {
+
+        private final long index;
+        private final WaveguideRequest request;
+
+        private Pending(long index, WaveguideRequest request) {
+            this.index = index;
+            this.request = request;
+        }
+    }
+
+    private final class Report {
+
+        private long received;
+        private long imported;
+        private long rejected;
+        private boolean aborted;
+        private final List<ImportResponse.ImportError> errors = new ArrayList<>();
+
+        private void reject(long index, String message) {
+            rejected++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(ImportResponse.ImportError.builder().index(index).message(message).build());
+            }
+        }
+    }
+}
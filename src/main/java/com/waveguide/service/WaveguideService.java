@@ -3,23 +3,41 @@ package com.waveguide.service;
 import com.waveguide.exception.ResourceNotFoundException;
 import com.waveguide.exception.UnauthorizedAccessException;
 import com.waveguide.model.dto.request.LayerRequest;
+import com.waveguide.model.dto.request.LayerStackEntryRequest;
+import com.waveguide.model.dto.request.LayerStackRequest;
 import com.waveguide.model.dto.request.WaveguideRequest;
+import com.waveguide.model.dto.response.CursorPageResponse;
 import com.waveguide.model.dto.response.LayerResponse;
 import com.waveguide.model.dto.response.WaveguideResponse;
 import com.waveguide.model.entity.Layer;
 import com.waveguide.model.entity.User;
 import com.waveguide.model.entity.Waveguide;
+import com.waveguide.model.projection.LayerRow;
+import com.waveguide.model.projection.WaveguideListVersion;
+import com.waveguide.model.projection.WaveguideSummary;
 import com.waveguide.repository.LayerRepository;
 import com.waveguide.repository.WaveguideRepository;
+import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,6 +48,8 @@ public class WaveguideService {
     private final WaveguideRepository waveguideRepository;
     private final LayerRepository layerRepository;
     private final LogService logService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManagerFactory entityManagerFactory;
 
     @Transactional
     public WaveguideResponse createWaveguide(WaveguideRequest request, User currentUser) {
@@ -65,20 +85,112 @@ public class WaveguideService {
         return convertToWaveguideResponse(savedWaveguide);
     }
 
+    /**
+     * Loads a page in a constant number of statements: the page of waveguide rows, its count,
+     * and the layers of every waveguide on the page. No entities are hydrated.
+     */
     @Transactional(readOnly = true)
     public Page<WaveguideResponse> getWaveguides(User currentUser, Pageable pageable) {
-        Page<Waveguide> waveguidesPage = waveguideRepository.findAllByUser(currentUser, pageable);
-        return waveguidesPage.map(this::convertToWaveguideResponse);
+        Page<WaveguideSummary> summaries = waveguideRepository.findSummariesByUser(currentUser, pageable);
+        Map<UUID, List<LayerResponse>> layersByWaveguide = loadLayers(summaries.getContent());
+        
+        return summaries.map(summary -> convertToWaveguideResponse(
+                summary, layersByWaveguide.getOrDefault(summary.getId(), List.of())));
+    }
+
+    /**
+     * Keyset variant of {@link #getWaveguides}: orders by (createdAt, id) and continues after
+     * {@code cursor}, so deep pages cost the same as the first one and no count is run.
+     *
+     * @param cursor token from a previous page, or {@code null} for the first page
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<WaveguideResponse> getWaveguides(
+            User currentUser, String cursor, int size, Sort.Direction direction) {
+        WaveguideCursor position = cursor != null ? WaveguideCursor.decode(cursor) : null;
+        if (position != null) {
+            direction = position.getDirection();
+        }
+        // One extra row tells whether another page follows
+        Pageable limit = PageRequest.of(0, size + 1, Sort.by(direction, "createdAt").and(Sort.by(direction, "id")));
+        
+        List<WaveguideSummary> summaries;
+        if (position == null) {
+            summaries = waveguideRepository.findSummarySliceByUser(currentUser, limit);
+        } else if (direction == Sort.Direction.DESC) {
+            summaries = waveguideRepository.findSummariesBefore(currentUser, position.getCreatedAt(), position.getId(), limit);
+        } else {
+            summaries = waveguideRepository.findSummariesAfter(currentUser, position.getCreatedAt(), position.getId(), limit);
+        }
+        
+        boolean last = summaries.size() <= size;
+        if (!last) {
+            summaries = summaries.subList(0, size);
+        }
+        Map<UUID, List<LayerResponse>> layersByWaveguide = loadLayers(summaries);
+        List<WaveguideResponse> content = summaries.stream()
+                .map(summary -> convertToWaveguideResponse(
+                        summary, layersByWaveguide.getOrDefault(summary.getId(), List.of())))
+                .collect(Collectors.toList());
+        
+        WaveguideSummary tail = summaries.isEmpty() ? null : summaries.get(summaries.size() - 1);
+        return CursorPageResponse.<WaveguideResponse>builder()
+                .content(content)
+                .size(size)
+                .nextCursor(last ? null : new WaveguideCursor(tail.getCreatedAt(), tail.getId(), direction).encode())
+                .last(last)
+                .build();
     }
 
     @Transactional(readOnly = true)
     public WaveguideResponse getWaveguideById(UUID waveguideId, User currentUser) {
-        Waveguide waveguide = waveguideRepository.findByIdAndUser(waveguideId, currentUser)
+        Waveguide waveguide = findWaveguide(waveguideId, currentUser)
                 .orElseThrow(() -> new ResourceNotFoundException("Waveguide not found with id: " + waveguideId));
         
         return convertToWaveguideResponse(waveguide);
     }
 
+    /**
+     * Current version of a waveguide, for conditional requests. Comes from the second-level
+     * cache or a single-column query; the layers are not loaded.
+     */
+    @Transactional(readOnly = true)
+    public long getWaveguideVersion(UUID waveguideId, User currentUser) {
+        Optional<Long> version = isCached(waveguideId)
+                ? findCachedWaveguide(waveguideId, currentUser).map(Waveguide::getVersion)
+                : waveguideRepository.findVersionByIdAndUser(waveguideId, currentUser);
+        return version.orElseThrow(() -> new ResourceNotFoundException("Waveguide not found with id: " + waveguideId));
+    }
+
+    /**
+     * Aggregate that changes with any change to the user's waveguides, for conditional list requests.
+     */
+    @Transactional(readOnly = true)
+    public WaveguideListVersion getWaveguidesVersion(User currentUser) {
+        return waveguideRepository.findListVersionByUser(currentUser);
+    }
+
+    /**
+     * A waveguide in the second-level cache is read by id, so it and its layers come from the
+     * cache; the owner-scoped query would always go to the database. Otherwise it is loaded with
+     * its layers in one statement, which caches both.
+     */
+    private Optional<Waveguide> findWaveguide(UUID waveguideId, User currentUser) {
+        if (isCached(waveguideId)) {
+            return findCachedWaveguide(waveguideId, currentUser);
+        }
+        return waveguideRepository.findByIdAndUser(waveguideId, currentUser);
+    }
+
+    private boolean isCached(UUID waveguideId) {
+        return entityManagerFactory.getCache().contains(Waveguide.class, waveguideId);
+    }
+
+    private Optional<Waveguide> findCachedWaveguide(UUID waveguideId, User currentUser) {
+        return waveguideRepository.findById(waveguideId)
+                .filter(waveguide -> waveguide.getUser().getId().equals(currentUser.getId()));
+    }
+
     @Transactional
     public void deleteWaveguide(UUID waveguideId, User currentUser) {
         if (!waveguideRepository.existsByIdAndUser(waveguideId, currentUser)) {
@@ -86,6 +198,7 @@ public class WaveguideService {
         }
         
         waveguideRepository.deleteByIdAndUser(waveguideId, currentUser);
+        eventPublisher.publishEvent(new WaveguideChangedEvent(waveguideId));
         
         // Log waveguide deletion
         logService.logUserAction(
@@ -102,9 +215,11 @@ public class WaveguideService {
         
         Layer layer = convertToLayerEntity(request);
         waveguide.addLayer(layer);
+        waveguide.touch();
         
         Waveguide savedWaveguide = waveguideRepository.save(waveguide);
         Layer savedLayer = savedWaveguide.getLayers().get(savedWaveguide.getLayers().size() - 1);
+        eventPublisher.publishEvent(new WaveguideChangedEvent(waveguideId));
         
         // Log layer addition
         logService.logUserAction(
@@ -129,8 +244,10 @@ public class WaveguideService {
         layer.setReEps(request.getReEps());
         layer.setImEps(request.getImEps());
         layer.setD(request.getD());
+        waveguide.touch();
         
         Layer updatedLayer = layerRepository.save(layer);
+        eventPublisher.publishEvent(new WaveguideChangedEvent(waveguideId));
         
         // Log layer update
         logService.logUserAction(
@@ -150,8 +267,10 @@ public class WaveguideService {
         Layer layer = layerRepository.findByIdAndWaveguideId(layerId, waveguideId)
                 .orElseThrow(() -> new ResourceNotFoundException("Layer not found with id: " + layerId));
         
-        waveguide.removeLayer(layer);
-        waveguideRepository.save(waveguide);
+        List<Layer> remaining = new ArrayList<>(waveguide.getLayers());
+        remaining.removeIf(candidate -> candidate.getId().equals(layer.getId()));
+        restackLayers(waveguide, remaining);
+        eventPublisher.publishEvent(new WaveguideChangedEvent(waveguideId));
         
         // Log layer deletion
         logService.logUserAction(
@@ -161,6 +280,96 @@ public class WaveguideService {
         );
     }
 
+    /**
+     * Replaces the whole layer stack in one transaction. Entries carrying an {@code id} keep
+     * (and update) that layer at their new position, entries without one become new layers,
+     * and layers not listed are deleted.
+     */
+    @Transactional
+    public List<LayerResponse> replaceLayers(UUID waveguideId, LayerStackRequest request, User currentUser) {
+        Waveguide waveguide = waveguideRepository.findByIdAndUser(waveguideId, currentUser)
+                .orElseThrow(() -> new ResourceNotFoundException("Waveguide not found with id: " + waveguideId));
+        
+        Map<UUID, Layer> existing = waveguide.getLayers().stream()
+                .collect(Collectors.toMap(Layer::getId, Function.identity()));
+        Set<UUID> seen = new HashSet<>();
+        List<Layer> stack = new ArrayList<>(request.getLayers().size());
+        for (LayerStackEntryRequest entry : request.getLayers()) {
+            Layer layer;
+            if (entry.getId() == null) {
+                layer = new Layer();
+            } else {
+                if (!seen.add(entry.getId())) {
+                    throw new IllegalArgumentException("Layer listed more than once: " + entry.getId());
+                }
+                layer = existing.get(entry.getId());
+                if (layer == null) {
+                    throw new ResourceNotFoundException("Layer not found with id: " + entry.getId());
+                }
+            }
+            layer.setE(entry.getE());
+            layer.setReEps(entry.getReEps());
+            layer.setImEps(entry.getImEps());
+            layer.setD(entry.getD());
+            stack.add(layer);
+        }
+        
+        restackLayers(waveguide, stack);
+        eventPublisher.publishEvent(new WaveguideChangedEvent(waveguideId));
+        
+        // Log layer stack replacement
+        logService.logUserAction(
+                currentUser,
+                "LAYER_STACK_REPLACE",
+                "Replaced " + stack.size() + " layers in waveguide with ID: " + waveguideId
+        );
+        
+        return stack.stream()
+                .map(this::convertToLayerResponse)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Makes {@code stack} the waveguide's layers, in order, without any intermediate state
+     * violating {@code uk_waveguide_layer_index}. Hibernate flushes inserts before updates
+     * and updates before deletes, so renumbering in place would collide. Instead, the first
+     * flush parks the surviving layers on negative indices and deletes the dropped ones; the
+     * second inserts the new layers and moves every layer to its final index. Each flush is
+     * a JDBC batch per statement type.
+     */
+    private void restackLayers(Waveguide waveguide, List<Layer> stack) {
+        waveguide.touch();
+        List<Layer> layers = waveguide.getLayers();
+        Set<Layer> kept = Collections.newSetFromMap(new IdentityHashMap<>());
+        kept.addAll(stack);
+        
+        layers.removeIf(layer -> !kept.contains(layer));
+        for (int i = 0; i < layers.size(); i++) {
+            layers.get(i).setLayerIndex(-1 - i);
+        }
+        waveguideRepository.flush();
+        
+        layers.clear();
+        for (Layer layer : stack) {
+            waveguide.addLayer(layer);
+        }
+        waveguideRepository.flush();
+    }
+
+    private Map<UUID, List<LayerResponse>> loadLayers(List<WaveguideSummary> summaries) {
+        if (summaries.isEmpty()) {
+            return Map.of();
+        }
+        List<UUID> waveguideIds = summaries.stream()
+                .map(WaveguideSummary::getId)
+                .collect(Collectors.toList());
+        return layerRepository.findRowsByWaveguideIds(waveguideIds).stream()
+                .collect(Collectors.groupingBy(
+                        LayerRow::getWaveguideId,
+                        Collectors.mapping(this::convertToLayerResponse, Collectors.toList())
+                ));
+    }
+
     // Helper methods for converting between entities and DTOs
     
     private Layer convertToLayerEntity(LayerRequest request) {
@@ -183,7 +392,29 @@ public class WaveguideService {
                 .build();
     }
     
-    private WaveguideResponse convertToWaveguideResponse(Waveguide waveguide) {
+    private LayerResponse convertToLayerResponse(LayerRow layer) {
+        return LayerResponse.builder()
+                .id(layer.getId())
+                .layerIndex(layer.getLayerIndex())
+                .E(layer.getE())
+                .reEps(layer.getReEps())
+                .imEps(layer.getImEps())
+                .d(layer.getD())
+                .build();
+    }
+    
+    private WaveguideResponse convertToWaveguideResponse(WaveguideSummary summary, List<LayerResponse> layers) {
+        return WaveguideResponse.builder()
+                .id(summary.getId())
+                .nEffMin(summary.getNEffMin())
+                .nEffMax(summary.getNEffMax())
+                .layers(layers)
+                .createdAt(summary.getCreatedAt())
+                .build();
+    }
+    
+    // Package-private for WaveguideMappingBenchmark
+    WaveguideResponse convertToWaveguideResponse(Waveguide waveguide) {
         List<LayerResponse> layerResponses = waveguide.getLayers().stream()
                 .map(this::convertToLayerResponse)
                 .collect(Collectors.toList());
@@ -194,6 +425,7 @@ public class WaveguideService {
                 .nEffMax(waveguide.getNEffMax())
                 .layers(layerResponses)
                 .createdAt(waveguide.getCreatedAt())
+                .version(waveguide.getVersion())
                 .build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,84 @@
+package com.waveguide.solver;
+
+import lombok.Value;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+
+/**
+ * Effective index of every mode branch of a stack as a function of wavelength.
+ * <p>
+ * A branch follows one mode for as long as it is guided inside the window, so branches
+ * can start after the first wavelength (a mode appearing) or end before the last one
+ * (a mode reaching cutoff). Points are stored column-wise, one {@code double[]} per
+ * quantity, in tracing order.
+ */
+@Value
+public class DispersionCurves {
+
+    /** Leading bytes of the binary form, "WGDC". */
+    public static final byte[] MAGIC = {'W', 'G', 'D', 'C'};
+    public static final int FORMAT_VERSION = 1;
+
+    Polarization polarization;
+    List<Branch> branches;
+
+    /** {@code false} when tracing stopped at the step limit before reaching the last wavelength. */
+    boolean complete;
+
+    int acceptedSteps;
+    int rejectedSteps;
+    int scans;
+    long evaluations;
+    long elapsedNanos;
+
+    @Value
+    public static class Branch {
+
+        /** Identity of the mode; branches present at the first wavelength are numbered by mode order. */
+        int id;
+        double[] wavelength;
+        double[] nEffRe;
+        double[] nEffIm;
+
+        public int size() {
+            return wavelength.length;
+        }
+    }
+
+    /**
+     * Writes the curves in their columnar binary form, little-endian:
+     * <pre>
+     * header   byte[4] "WGDC", int32 version, int32 polarization (0 = TE, 1 = TM),
+     *          int32 branch count, int32 accepted steps, int32 rejected steps,
+     *          int32 scans, int32 complete (0 or 1), int64 residual evaluations
+     * branch   int32 id, int32 point count n,
+     *          float64[n] wavelength, float64[n] nEffRe, float64[n] nEffIm
+     * </pre>
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(40).order(ByteOrder.LITTLE_ENDIAN);
+        header.put(MAGIC)
+                .putInt(FORMAT_VERSION)
+                .putInt(polarization.ordinal())
+                .putInt(branches.size())
+                .putInt(acceptedSteps)
+                .putInt(rejectedSteps)
+                .putInt(scans)
+                .putInt(complete ? 1 : 0)
+                .putLong(evaluations);
+        out.write(header.array());
+
+        for (Branch branch : branches) {
+            int n = branch.size();
+            ByteBuffer buffer = ByteBuffer.allocate(8 + 24 * n).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(branch.getId()).putInt(n);
+            buffer.asDoubleBuffer().put(branch.getWavelength()).put(branch.getNEffRe()).put(branch.getNEffIm());
+            out.write(buffer.array());
+        }
+        out.flush();
+    }
+}
@@ -0,0 +1,196 @@
+package com.waveguide.solver;
+
+/**
+ * Transfer-matrix dispersion function of a planar layer stack.
+ * <p>
+ * For a trial effective index {@code n} the tangential field pair (E, E') (TE) or
+ * (H, H'/eps) (TM) is launched from the cover with a decaying profile, propagated
+ * through every finite layer with its characteristic matrix and tested against the
+ * decaying solution in the substrate. The residual is zero exactly at a guided mode.
+ * <p>
+ * All complex arithmetic is carried in primitive {@code double} pairs so a call to
+ * {@link #evaluate(double, double)} allocates nothing. Each layer matrix is scaled by
+ * {@code exp(-Re(q d))} and the field vector is renormalised after every layer, which
+ * keeps thick evanescent stacks finite; both factors are real and positive, so the sign
+ * of the residual on the real axis is preserved for bracketing.
+ * <p>
+ * Instances hold mutable scratch state and are not thread-safe; use one per thread.
+ */
+public final class DispersionFunction {
+
+    private final LayerStack stack;
+    private final Polarization polarization;
+    private final double k0;
+
+    private long evaluations;
+
+    private double re;
+    private double im;
+
+    public DispersionFunction(LayerStack stack, Polarization polarization, double wavelength) {
+        if (!(wavelength > 0.0)) {
+            throw new IllegalArgumentException("Wavelength must be greater than 0");
+        }
+        this.stack = stack;
+        this.polarization = polarization;
+        this.k0 = 2.0 * Math.PI / wavelength;
+    }
+
+    public LayerStack getStack() {
+        return stack;
+    }
+
+    public Polarization getPolarization() {
+        return polarization;
+    }
+
+    public double getK0() {
+        return k0;
+    }
+
+    public long getEvaluations() {
+        return evaluations;
+    }
+
+    /** Real part of the last evaluated residual. */
+    public double re() {
+        return re;
+    }
+
+    /** Imaginary part of the last evaluated residual. */
+    public double im() {
+        return im;
+    }
+
+    /**
+     * Evaluates the residual at the real effective index {@code n} and returns its real part.
+     */
+    public double evaluateReal(double n) {
+        evaluate(n, 0.0);
+        return re;
+    }
+
+    /**
+     * Evaluates the residual at the complex effective index {@code nRe + i nIm}; the result
+     * is read back through {@link #re()} and {@link #im()}.
+     */
+    public void evaluate(double nRe, double nIm) {
+        evaluations++;
+        final boolean tm = polarization == Polarization.TM;
+        final int last = stack.size() - 1;
+        final double k2 = k0 * k0;
+        final double betaRe = nRe * nRe - nIm * nIm;
+        final double betaIm = 2.0 * nRe * nIm;
+
+        // Cover: field ~ exp(q x) for x < 0, so (u0, u1) = (1, q) or (1, q / eps)
+        double qRe = sqrtRe(k2 * (betaRe - stack.reEps(0)), k2 * (betaIm - stack.imEps(0)));
+        double qIm = sqrtIm(k2 * (betaRe - stack.reEps(0)), k2 * (betaIm - stack.imEps(0)));
+        double u0Re = 1.0;
+        double u0Im = 0.0;
+        double u1Re;
+        double u1Im;
+        if (tm) {
+            u1Re = divRe(qRe, qIm, stack.reEps(0), stack.imEps(0));
+            u1Im = divIm(qRe, qIm, stack.reEps(0), stack.imEps(0));
+        } else {
+            u1Re = qRe;
+            u1Im = qIm;
+        }
+
+        for (int j = 1; j < last; j++) {
+            final double epsRe = stack.reEps(j);
+            final double epsIm = stack.imEps(j);
+            final double d = stack.d(j);
+            final double aRe = k2 * (betaRe - epsRe);
+            final double aIm = k2 * (betaIm - epsIm);
+            qRe = sqrtRe(aRe, aIm);
+            qIm = sqrtIm(aRe, aIm);
+
+            // Scaled cosh/sinh of z = q d: multiply both by exp(-Re z) so they stay bounded
+            final double zRe = qRe * d;
+            final double zIm = qIm * d;
+            final double decay = Math.exp(-2.0 * zRe);
+            final double ch = 0.5 * (1.0 + decay);
+            final double sh = 0.5 * (1.0 - decay);
+            final double cos = Math.cos(zIm);
+            final double sin = Math.sin(zIm);
+            final double coshRe = ch * cos;
+            final double coshIm = sh * sin;
+            final double sinhRe = sh * cos;
+            final double sinhIm = ch * sin;
+
+            // sinh(z) / q, which tends to d as q d goes to 0
+            double sqRe;
+            double sqIm;
+            if (zRe * zRe + zIm * zIm < 1e-12) {
+                sqRe = d * Math.exp(-zRe);
+                sqIm = 0.0;
+            } else {
+                sqRe = divRe(sinhRe, sinhIm, qRe, qIm);
+                sqIm = divIm(sinhRe, sinhIm, qRe, qIm);
+            }
+            // q sinh(z)
+            double qsRe = qRe * sinhRe - qIm * sinhIm;
+            double qsIm = qRe * sinhIm + qIm * sinhRe;
+
+            if (tm) {
+                // m01 = eps sinh / q, m10 = q sinh / eps
+                final double tRe = epsRe * sqRe - epsIm * sqIm;
+                final double tIm = epsRe * sqIm + epsIm * sqRe;
+                sqRe = tRe;
+                sqIm = tIm;
+                final double vRe = divRe(qsRe, qsIm, epsRe, epsIm);
+                final double vIm = divIm(qsRe, qsIm, epsRe, epsIm);
+                qsRe = vRe;
+                qsIm = vIm;
+            }
+
+            final double n0Re = coshRe * u0Re - coshIm * u0Im + sqRe * u1Re - sqIm * u1Im;
+            final double n0Im = coshRe * u0Im + coshIm * u0Re + sqRe * u1Im + sqIm * u1Re;
+            final double n1Re = qsRe * u0Re - qsIm * u0Im + coshRe * u1Re - coshIm * u1Im;
+            final double n1Im = qsRe * u0Im + qsIm * u0Re + coshRe * u1Im + coshIm * u1Re;
+
+            final double norm = Math.abs(n0Re) + Math.abs(n0Im) + Math.abs(n1Re) + Math.abs(n1Im);
+            final double scale = norm > 0.0 ? 1.0 / norm : 1.0;
+            u0Re = n0Re * scale;
+            u0Im = n0Im * scale;
+            u1Re = n1Re * scale;
+            u1Im = n1Im * scale;
+        }
+
+        // Substrate: field ~ exp(-q x), so u1 + (q or q / eps) u0 = 0
+        final double sRe = k2 * (betaRe - stack.reEps(last));
+        final double sIm = k2 * (betaIm - stack.imEps(last));
+        double pRe = sqrtRe(sRe, sIm);
+        double pIm = sqrtIm(sRe, sIm);
+        if (tm) {
+            final double tRe = divRe(pRe, pIm, stack.reEps(last), stack.imEps(last));
+            final double tIm = divIm(pRe, pIm, stack.reEps(last), stack.imEps(last));
+            pRe = tRe;
+            pIm = tIm;
+        }
+        re = (u1Re + pRe * u0Re - pIm * u0Im) / k0;
+        im = (u1Im + pRe * u0Im + pIm * u0Re) / k0;
+    }
+
+    static double sqrtRe(double a, double b) {
+        double r = Math.hypot(a, b);
+        return Math.sqrt(Math.max(0.0, 0.5 * (r + a)));
+    }
+
+    static double sqrtIm(double a, double b) {
+        double r = Math.hypot(a, b);
+        double v = Math.sqrt(Math.max(0.0, 0.5 * (r - a)));
+        return b < 0.0 ? -v : v;
+    }
+
+    static double divRe(double a, double b, double c, double d) {
+        double den = c * c + d * d;
+        return (a * c + b * d) / den;
+    }
+
+    static double divIm(double a, double b, double c, double d) {
+        double den = c * c + d * d;
+        return (b * c - a * d) / den;
+    }
+}
@@ -0,0 +1,442 @@
+package com.waveguide.solver;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Traces the dispersion curves n_eff(wavelength) of every mode of a stack.
+ * <p>
+ * Instead of solving a uniform wavelength grid, the tracker walks from the first to the
+ * last wavelength with an adaptive step. Each branch is predicted by secant extrapolation
+ * (quadratic once it has three points) and corrected by a local root refinement around the
+ * prediction. The difference between prediction and correction estimates the local error: a step is
+ * rejected and shortened when it exceeds {@code accuracy}, and grown when the curves are
+ * smooth, so straight stretches take a few large steps and points gather where the
+ * curves bend.
+ * <p>
+ * Mode identity is kept by field overlap: the corrected modes are assigned to branches by
+ * the overlap of their field profiles with those of the previous step, so a corrector that
+ * slid onto a neighbouring mode is detected and the step retried at half the size. A branch
+ * ends when its mode leaves the window. New modes are picked up by a full window scan when
+ * the residual signs at the window edges (lossless stacks) disagree with the number of
+ * tracked branches, and every {@code rescan-interval} accepted steps.
+ */
+@Component
+public class DispersionTracker {
+
+    private static final double GROWTH_LIMIT = 2.0;
+    private static final double SHRINK_LIMIT = 0.2;
+    private static final double SAFETY = 0.9;
+
+    private final ModeSolver modeSolver;
+    private final int initialSteps;
+    private final double minStepFraction;
+    private final double maxStepFraction;
+    private final double minOverlap;
+    private final int rescanInterval;
+    private final int maxSteps;
+    private final int fieldSamples;
+
+    public DispersionTracker(
+            ModeSolver modeSolver,
+            @Value("${app.solver.dispersion.initial-steps:32}") int initialSteps,
+            @Value("${app.solver.dispersion.min-step-fraction:1e-6}") double minStepFraction,
+            @Value("${app.solver.dispersion.max-step-fraction:0.1}") double maxStepFraction,
+            @Value("${app.solver.dispersion.min-overlap:0.9}") double minOverlap,
+            @Value("${app.solver.dispersion.rescan-interval:64}") int rescanInterval,
+            @Value("${app.solver.dispersion.max-steps:10000}") int maxSteps,
+            @Value("${app.solver.dispersion.field-samples:16}") int fieldSamples
+    ) {
+        this.modeSolver = modeSolver;
+        this.initialSteps = Math.max(1, initialSteps);
+        this.minStepFraction = minStepFraction;
+        this.maxStepFraction = maxStepFraction;
+        this.minOverlap = minOverlap;
+        this.rescanInterval = Math.max(1, rescanInterval);
+        this.maxSteps = Math.max(1, maxSteps);
+        this.fieldSamples = Math.max(1, fieldSamples);
+    }
+
+    /**
+     * Traces all modes of {@code stack} in the window of {@code spec} from wavelength
+     * {@code start} to {@code end}; {@code spec.wavelength} is ignored.
+     *
+     * @param accuracy tolerated predictor error in n_eff per step
+     */
+    public DispersionCurves trace(LayerStack stack, SolveSpec spec, double start, double end, double accuracy) {
+        if (!(start > 0.0) || !(end > 0.0)) {
+            throw new IllegalArgumentException("Wavelength range must be greater than 0");
+        }
+        if (!(accuracy > 0.0)) {
+            throw new IllegalArgumentException("Accuracy must be greater than 0");
+        }
+        return new Run(stack, spec, start, end, accuracy).trace();
+    }
+
+    /**
+     * State of one trace; confined to the calling thread.
+     */
+    private final class Run {
+
+        private final LayerStack stack;
+        private final SolveSpec spec;
+        private final double start;
+        private final double end;
+        private final double accuracy;
+        private final double direction;
+        private final double minStep;
+        private final double maxStep;
+        private final double lo;
+        private final double hi;
+        private final double separation;
+        private final ModeField field;
+
+        private final List<Track> active = new ArrayList<>();
+        private final List<Track> finished = new ArrayList<>();
+        private int nextId;
+        private int accepted;
+        private int rejected;
+        private int scans;
+        private long evaluations;
+
+        private Run(LayerStack stack, SolveSpec spec, double start, double end, double accuracy) {
+            this.stack = stack;
+            this.spec = spec;
+            this.start = start;
+            this.end = end;
+            this.accuracy = accuracy;
+            this.direction = Math.signum(end - start);
+            double span = Math.abs(end - start);
+            this.minStep = span * minStepFraction;
+            this.maxStep = span * maxStepFraction;
+            this.lo = stack.isLossless() ? Math.max(spec.getNEffMin(), stack.guidedLowerBound()) : spec.getNEffMin();
+            this.hi = spec.getNEffMax();
+            this.separation = ModeSolver.separation(spec);
+            this.field = new ModeField(stack, spec.getPolarization(), fieldSamples, tailLength(stack, start, end));
+        }
+
+        private DispersionCurves trace() {
+            long started = System.nanoTime();
+            scan(start);
+
+            double lambda = start;
+            double step = Math.min(maxStep, Math.abs(end - start) / initialSteps);
+            int sinceScan = 0;
+            while (lambda != end && accepted < maxSteps) {
+                double remaining = Math.abs(end - lambda);
+                double h = Math.min(step, remaining);
+                double next = h >= remaining ? end : lambda + direction * h;
+
+                double error = correct(next);
+                if (error > 1.0 && h > minStep) {
+                    rejected++;
+                    double shrink = Double.isFinite(error) ? Math.max(SHRINK_LIMIT, SAFETY / error) : 0.5;
+                    step = Math.max(minStep, h * shrink);
+                    continue;
+                }
+                if (Double.isInfinite(error)) {
+                    // Branches cannot be told apart even at the smallest step: close them and restart from a scan
+                    finished.addAll(active);
+                    active.clear();
+                    accepted++;
+                    lambda = next;
+                    scan(lambda);
+                    sinceScan = 0;
+                    continue;
+                }
+
+                commit(next);
+                accepted++;
+                lambda = next;
+                double growth = error > 0.0 ? SAFETY / error : GROWTH_LIMIT;
+                step = Math.max(minStep, Math.min(maxStep, h * Math.min(GROWTH_LIMIT, Math.max(SHRINK_LIMIT, growth))));
+
+                if (++sinceScan >= rescanInterval || countChanged(lambda)) {
+                    scan(lambda);
+                    sinceScan = 0;
+                }
+            }
+
+            List<DispersionCurves.Branch> branches = new ArrayList<>(finished.size() + active.size());
+            for (Track track : finished) {
+                branches.add(track.toBranch());
+            }
+            for (Track track : active) {
+                branches.add(track.toBranch());
+            }
+            branches.sort(Comparator.comparingInt(DispersionCurves.Branch::getId));
+            return new DispersionCurves(spec.getPolarization(), branches, lambda == end,
+                    accepted, rejected, scans, evaluations, System.nanoTime() - started);
+        }
+
+        /**
+         * Predicts and corrects every active branch at {@code next} and matches the corrected
+         * modes to branches. Returns the largest predictor error relative to {@code accuracy},
+         * as the factor by which the step overshoots (so above 1 means reject), or infinity
+         * when the step has to be retried.
+         */
+        private double correct(double next) {
+            DispersionFunction function = new DispersionFunction(stack, spec.getPolarization(), next);
+            RootFinder finder = new RootFinder(function, spec.getTolerance());
+            double error = 0.0;
+            try {
+                for (Track track : active) {
+                    double predRe = track.predictRe(next);
+                    double predIm = track.predictIm(next);
+                    double width = Math.max(Math.abs(predRe - track.lastRe()), Math.min(accuracy, (hi - lo) * 1e-3));
+                    boolean converged = stack.isLossless()
+                            ? refine(function, finder, predRe, width)
+                            : finder.muller(predRe - width, predRe, predRe + width);
+                    track.ending = !converged || finder.rootRe() < lo || finder.rootRe() > hi;
+                    if (track.ending) {
+                        if (predRe - 2.0 * width > lo && predRe + 2.0 * width < hi) {
+                            // Lost a mode well inside the window: the step was too long
+                            return Double.POSITIVE_INFINITY;
+                        }
+                        // Close to an edge of the window: the mode reaches cutoff
+                        continue;
+                    }
+                    track.nextRe = finder.rootRe();
+                    track.nextIm = stack.isLossless() ? 0.0 : finder.rootIm();
+                    if (track.order() > 0) {
+                        // Scale to an order-independent error so one step-size rule fits all branches
+                        double deviation = Math.hypot(track.nextRe - predRe, track.nextIm - predIm);
+                        error = Math.max(error, Math.pow(deviation / accuracy, 1.0 / (track.order() + 1)));
+                    }
+                }
+            } finally {
+                evaluations += function.getEvaluations();
+            }
+            return match(next) ? error : Double.POSITIVE_INFINITY;
+        }
+
+        /**
+         * Assigns the corrected modes to branches greedily by field overlap, which undoes a
+         * corrector that followed a neighbouring mode. Fails if two branches landed on the same
+         * mode or a branch has no sufficiently similar mode.
+         */
+        private boolean match(double next) {
+            List<Track> tracks = new ArrayList<>(active.size());
+            for (Track track : active) {
+                if (!track.ending) {
+                    tracks.add(track);
+                }
+            }
+            int n = tracks.size();
+            double[] candidateRe = new double[n];
+            double[] candidateIm = new double[n];
+            double[][] candidateField = new double[n][];
+            for (int i = 0; i < n; i++) {
+                Track track = tracks.get(i);
+                candidateRe[i] = track.nextRe;
+                candidateIm[i] = track.nextIm;
+                candidateField[i] = field.sample(next, track.nextRe, track.nextIm);
+                for (int j = 0; j < i; j++) {
+                    if (Math.hypot(candidateRe[i] - candidateRe[j], candidateIm[i] - candidateIm[j]) < separation) {
+                        return false;
+                    }
+                }
+            }
+
+            double[][] overlap = new double[n][n];
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    overlap[i][j] = ModeField.overlap(tracks.get(i).field, candidateField[j]);
+                }
+            }
+            boolean[] trackTaken = new boolean[n];
+            boolean[] candidateTaken = new boolean[n];
+            for (int round = 0; round < n; round++) {
+                int bestTrack = -1;
+                int bestCandidate = -1;
+                for (int i = 0; i < n; i++) {
+                    for (int j = 0; j < n && !trackTaken[i]; j++) {
+                        if (!candidateTaken[j] && (bestTrack < 0 || overlap[i][j] > overlap[bestTrack][bestCandidate])) {
+                            bestTrack = i;
+                            bestCandidate = j;
+                        }
+                    }
+                }
+                if (overlap[bestTrack][bestCandidate] < minOverlap) {
+                    return false;
+                }
+                Track track = tracks.get(bestTrack);
+                track.nextRe = candidateRe[bestCandidate];
+                track.nextIm = candidateIm[bestCandidate];
+                track.nextField = candidateField[bestCandidate];
+                trackTaken[bestTrack] = true;
+                candidateTaken[bestCandidate] = true;
+            }
+            return true;
+        }
+
+        private void commit(double next) {
+            for (int i = active.size() - 1; i >= 0; i--) {
+                Track track = active.get(i);
+                if (track.ending) {
+                    finished.add(active.remove(i));
+                } else {
+                    track.append(next, track.nextRe, track.nextIm, track.nextField);
+                }
+            }
+        }
+
+        /**
+         * Lossless stacks only: an odd number of roots in the window shows up as opposite residual
+         * signs at its edges, so a mismatch with the branch count means a mode appeared or vanished.
+         */
+        private boolean countChanged(double lambda) {
+            if (!stack.isLossless() || !(hi > lo)) {
+                return false;
+            }
+            DispersionFunction function = new DispersionFunction(stack, spec.getPolarization(), lambda);
+            boolean odd = function.evaluateReal(lo) * function.evaluateReal(hi) < 0.0;
+            evaluations += function.getEvaluations();
+            return odd != (active.size() % 2 == 1);
+        }
+
+        /**
+         * Full window scan at {@code lambda}; every mode not already followed starts a new branch.
+         */
+        private void scan(double lambda) {
+            ModeSolution solution = modeSolver.solve(stack, spec.toBuilder().wavelength(lambda).build());
+            scans++;
+            evaluations += solution.getEvaluations();
+            List<Track> started = new ArrayList<>();
+            for (Mode mode : solution.getModes()) {
+                boolean followed = false;
+                for (Track track : active) {
+                    double distance = Math.hypot(track.lastRe() - mode.getNEffRe(), track.lastIm() - mode.getNEffIm());
+                    if (distance < Math.max(separation, accuracy * 1e-3)) {
+                        followed = true;
+                        break;
+                    }
+                }
+                if (!followed) {
+                    Track track = new Track(nextId++);
+                    track.append(lambda, mode.getNEffRe(), mode.getNEffIm(),
+                            field.sample(lambda, mode.getNEffRe(), mode.getNEffIm()));
+                    started.add(track);
+                }
+            }
+            active.addAll(started);
+        }
+
+        private boolean refine(DispersionFunction function, RootFinder finder, double x, double width) {
+            // Widen the bracket around the prediction a few times, staying inside the window
+            for (double w = width; w <= 8.0 * width; w *= 2.0) {
+                double a = Math.max(lo, x - w);
+                double b = Math.min(hi, x + w);
+                if (!(b > a)) {
+                    return false;
+                }
+                double fa = function.evaluateReal(a);
+                double fb = function.evaluateReal(b);
+                if (fa * fb <= 0.0) {
+                    return finder.brent(a, b, fa, fb);
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Length of cladding sampled on either side of the films: long enough to hold the
+     * evanescent tail of a weakly guided mode at the longest wavelength.
+     */
+    private static double tailLength(LayerStack stack, double start, double end) {
+        double films = 0.0;
+        for (int j = 1; j < stack.size() - 1; j++) {
+            films += stack.d(j);
+        }
+        return Math.max(films, Math.max(start, end));
+    }
+
+    /**
+     * One branch under construction.
+     */
+    private static final class Track {
+
+        private final int id;
+        private double[] wavelength = new double[16];
+        private double[] re = new double[16];
+        private double[] im = new double[16];
+        private int size;
+        private double[] field;
+
+        private boolean ending;
+        private double nextRe;
+        private double nextIm;
+        private double[] nextField;
+
+        private Track(int id) {
+            this.id = id;
+        }
+
+        private void append(double lambda, double nRe, double nIm, double[] profile) {
+            if (size == wavelength.length) {
+                wavelength = Arrays.copyOf(wavelength, size * 2);
+                re = Arrays.copyOf(re, size * 2);
+                im = Arrays.copyOf(im, size * 2);
+            }
+            wavelength[size] = lambda;
+            re[size] = nRe;
+            im[size] = nIm;
+            size++;
+            field = profile;
+        }
+
+        private double lastRe() {
+            return re[size - 1];
+        }
+
+        private double lastIm() {
+            return im[size - 1];
+        }
+
+        private double predictRe(double lambda) {
+            return extrapolate(re, lambda);
+        }
+
+        private double predictIm(double lambda) {
+            return extrapolate(im, lambda);
+        }
+
+        /** Order of the predictor: 0 (constant), 1 (secant) or 2 (quadratic). */
+        private int order() {
+            return Math.min(size - 1, 2);
+        }
+
+        /**
+         * Newton-form extrapolation through the last {@code order() + 1} points.
+         */
+        private double extrapolate(double[] values, double lambda) {
+            int k = size - 1;
+            double x0 = wavelength[k];
+            double f0 = values[k];
+            if (size < 2) {
+                return f0;
+            }
+            double x1 = wavelength[k - 1];
+            double d01 = (f0 - values[k - 1]) / (x0 - x1);
+            double prediction = f0 + d01 * (lambda - x0);
+            if (size < 3) {
+                return prediction;
+            }
+            double x2 = wavelength[k - 2];
+            double d12 = (values[k - 1] - values[k - 2]) / (x1 - x2);
+            double d012 = (d01 - d12) / (x0 - x2);
+            return prediction + d012 * (lambda - x0) * (lambda - x1);
+        }
+
+        private DispersionCurves.Branch toBranch() {
+            return new DispersionCurves.Branch(id,
+                    Arrays.copyOf(wavelength, size), Arrays.copyOf(re, size), Arrays.copyOf(im, size));
+        }
+    }
+}
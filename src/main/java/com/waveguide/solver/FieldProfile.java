@@ -0,0 +1,272 @@
+package com.waveguide.solver;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Transverse field (E for TE, H for TM) of one mode, evaluated analytically anywhere in
+ * the stack.
+ * <p>
+ * The constructor propagates the mode once through the films with the characteristic
+ * matrices of {@link DispersionFunction} and keeps the field state at the start of every
+ * film; a point is then evaluated from the state of the layer it falls in, so the cost per
+ * point does not depend on the number of layers. Position 0 is the cover/first film
+ * interface and x grows towards the substrate. States carry a logarithmic scale instead of
+ * being renormalised away, and the field is normalised so that the largest interface value
+ * has magnitude 1.
+ * <p>
+ * Instances hold mutable scratch state and are not thread-safe; use one per thread.
+ */
+public final class FieldProfile {
+
+    private final boolean tm;
+    private final int films;
+    private final double thickness;
+
+    // Film j (1-based, index j - 1): start position, decay constant and scaled start state
+    private final double[] start;
+    private final double[] qRe;
+    private final double[] qIm;
+    private final double[] epsRe;
+    private final double[] epsIm;
+    private final double[] u0Re;
+    private final double[] u0Im;
+    private final double[] u1Re;
+    private final double[] u1Im;
+    private final double[] logScale;
+
+    private final double coverRe;
+    private final double coverIm;
+    private final double coverLog;
+    private final double substrateRe;
+    private final double substrateIm;
+    private final double endRe;
+    private final double endIm;
+    private final double endLog;
+
+    private int layerHint;
+    private double re;
+    private double im;
+    private double out0Re;
+    private double out0Im;
+    private double out1Re;
+    private double out1Im;
+
+    public FieldProfile(LayerStack stack, Polarization polarization, double wavelength, double nRe, double nIm) {
+        if (!(wavelength > 0.0)) {
+            throw new IllegalArgumentException("Wavelength must be greater than 0");
+        }
+        this.tm = polarization == Polarization.TM;
+        final int last = stack.size() - 1;
+        final double k0 = 2.0 * Math.PI / wavelength;
+        final double k2 = k0 * k0;
+        final double betaRe = nRe * nRe - nIm * nIm;
+        final double betaIm = 2.0 * nRe * nIm;
+
+        this.films = last - 1;
+        this.start = new double[films];
+        this.qRe = new double[films];
+        this.qIm = new double[films];
+        this.epsRe = new double[films];
+        this.epsIm = new double[films];
+        this.u0Re = new double[films];
+        this.u0Im = new double[films];
+        this.u1Re = new double[films];
+        this.u1Im = new double[films];
+        this.logScale = new double[films];
+
+        // Cover: u = exp(q x) for x < 0, so (u0, u1) = (1, q) or (1, q / eps) at x = 0
+        double cRe = DispersionFunction.sqrtRe(k2 * (betaRe - stack.reEps(0)), k2 * (betaIm - stack.imEps(0)));
+        double cIm = DispersionFunction.sqrtIm(k2 * (betaRe - stack.reEps(0)), k2 * (betaIm - stack.imEps(0)));
+        this.coverRe = cRe;
+        this.coverIm = cIm;
+        double a0Re = 1.0;
+        double a0Im = 0.0;
+        double a1Re = tm ? DispersionFunction.divRe(cRe, cIm, stack.reEps(0), stack.imEps(0)) : cRe;
+        double a1Im = tm ? DispersionFunction.divIm(cRe, cIm, stack.reEps(0), stack.imEps(0)) : cIm;
+        double log = 0.0;
+        double x = 0.0;
+        double maxLog = 0.0;
+
+        for (int f = 0; f < films; f++) {
+            final int j = f + 1;
+            final double d = stack.d(j);
+            epsRe[f] = stack.reEps(j);
+            epsIm[f] = stack.imEps(j);
+            final double aRe = k2 * (betaRe - epsRe[f]);
+            final double aIm = k2 * (betaIm - epsIm[f]);
+            qRe[f] = DispersionFunction.sqrtRe(aRe, aIm);
+            qIm[f] = DispersionFunction.sqrtIm(aRe, aIm);
+            start[f] = x;
+            u0Re[f] = a0Re;
+            u0Im[f] = a0Im;
+            u1Re[f] = a1Re;
+            u1Im[f] = a1Im;
+            logScale[f] = log;
+
+            propagate(f, d, a0Re, a0Im, a1Re, a1Im);
+            final double norm = Math.abs(out0Re) + Math.abs(out0Im) + Math.abs(out1Re) + Math.abs(out1Im);
+            final double scale = norm > 0.0 ? 1.0 / norm : 1.0;
+            a0Re = out0Re * scale;
+            a0Im = out0Im * scale;
+            a1Re = out1Re * scale;
+            a1Im = out1Im * scale;
+            log += qRe[f] * d - Math.log(scale);
+            x += d;
+            maxLog = Math.max(maxLog, log + Math.log(Math.max(Math.hypot(a0Re, a0Im), Double.MIN_NORMAL)));
+        }
+        this.thickness = x;
+
+        // Substrate: u = u0 exp(-p (x - thickness))
+        this.substrateRe = DispersionFunction.sqrtRe(k2 * (betaRe - stack.reEps(last)), k2 * (betaIm - stack.imEps(last)));
+        this.substrateIm = DispersionFunction.sqrtIm(k2 * (betaRe - stack.reEps(last)), k2 * (betaIm - stack.imEps(last)));
+        this.endRe = a0Re;
+        this.endIm = a0Im;
+
+        // Normalise every stored scale so the largest interface value is 1
+        this.coverLog = -maxLog;
+        for (int f = 0; f < films; f++) {
+            logScale[f] -= maxLog;
+        }
+        this.endLog = log - maxLog;
+    }
+
+    /** Total thickness of the films, i.e. the position of the substrate interface. */
+    public double thickness() {
+        return thickness;
+    }
+
+    /** Real part of the field at the last evaluated position. */
+    public double re() {
+        return re;
+    }
+
+    /** Imaginary part of the field at the last evaluated position. */
+    public double im() {
+        return im;
+    }
+
+    /**
+     * Evaluates the field at position {@code x}; the result is read back through {@link #re()}
+     * and {@link #im()}. Ascending positions are located in constant time.
+     */
+    public void evaluate(double x) {
+        if (x < 0.0) {
+            final double magnitude = Math.exp(coverRe * x + coverLog);
+            re = magnitude * Math.cos(coverIm * x);
+            im = magnitude * Math.sin(coverIm * x);
+            return;
+        }
+        if (x >= thickness) {
+            final double s = x - thickness;
+            final double magnitude = Math.exp(endLog - substrateRe * s);
+            final double cos = Math.cos(substrateIm * s);
+            final double sin = -Math.sin(substrateIm * s);
+            re = magnitude * (endRe * cos - endIm * sin);
+            im = magnitude * (endRe * sin + endIm * cos);
+            return;
+        }
+
+        int f = layerHint;
+        if (f >= films || start[f] > x) {
+            f = 0;
+        }
+        while (f + 1 < films && start[f + 1] <= x) {
+            f++;
+        }
+        layerHint = f;
+
+        final double t = x - start[f];
+        propagate(f, t, u0Re[f], u0Im[f], u1Re[f], u1Im[f]);
+        final double magnitude = Math.exp(logScale[f] + qRe[f] * t);
+        re = magnitude * out0Re;
+        im = magnitude * out0Im;
+    }
+
+    /**
+     * Streams the field at {@code count} positions {@code from + i * step} as little-endian
+     * float64 (or float32) values through {@code channel}, reusing one buffer for all chunks.
+     * With {@code complex} every point is written as a real/imaginary pair, otherwise only the
+     * real part is written.
+     */
+    public void write(WritableByteChannel channel, double from, double step, long count,
+                      boolean complex, boolean float32) throws IOException {
+        final int width = (float32 ? 4 : 8) * (complex ? 2 : 1);
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024).order(ByteOrder.LITTLE_ENDIAN);
+        layerHint = 0;
+        for (long i = 0; i < count; i++) {
+            evaluate(from + i * step);
+            if (float32) {
+                buffer.putFloat((float) re);
+                if (complex) {
+                    buffer.putFloat((float) im);
+                }
+            } else {
+                buffer.putDouble(re);
+                if (complex) {
+                    buffer.putDouble(im);
+                }
+            }
+            if (buffer.remaining() < width) {
+                drain(channel, buffer);
+            }
+        }
+        drain(channel, buffer);
+    }
+
+    private static void drain(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Applies the characteristic matrix of film {@code f} over a distance {@code t}, scaled by
+     * {@code exp(-Re(q) t)}, to {@code (v0, v1)}; the result is left in the {@code out} fields.
+     */
+    private void propagate(int f, double t, double v0Re, double v0Im, double v1Re, double v1Im) {
+        final double zRe = qRe[f] * t;
+        final double zIm = qIm[f] * t;
+        final double decay = Math.exp(-2.0 * zRe);
+        final double ch = 0.5 * (1.0 + decay);
+        final double sh = 0.5 * (1.0 - decay);
+        final double cos = Math.cos(zIm);
+        final double sin = Math.sin(zIm);
+        final double coshRe = ch * cos;
+        final double coshIm = sh * sin;
+        final double sinhRe = sh * cos;
+        final double sinhIm = ch * sin;
+
+        double sqRe;
+        double sqIm;
+        if (zRe * zRe + zIm * zIm < 1e-12) {
+            sqRe = t * Math.exp(-zRe);
+            sqIm = 0.0;
+        } else {
+            sqRe = DispersionFunction.divRe(sinhRe, sinhIm, qRe[f], qIm[f]);
+            sqIm = DispersionFunction.divIm(sinhRe, sinhIm, qRe[f], qIm[f]);
+        }
+        double qsRe = qRe[f] * sinhRe - qIm[f] * sinhIm;
+        double qsIm = qRe[f] * sinhIm + qIm[f] * sinhRe;
+
+        if (tm) {
+            final double tRe = epsRe[f] * sqRe - epsIm[f] * sqIm;
+            final double tIm = epsRe[f] * sqIm + epsIm[f] * sqRe;
+            sqRe = tRe;
+            sqIm = tIm;
+            final double vRe = DispersionFunction.divRe(qsRe, qsIm, epsRe[f], epsIm[f]);
+            final double vIm = DispersionFunction.divIm(qsRe, qsIm, epsRe[f], epsIm[f]);
+            qsRe = vRe;
+            qsIm = vIm;
+        }
+
+        out0Re = coshRe * v0Re - coshIm * v0Im + sqRe * v1Re - sqIm * v1Im;
+        out0Im = coshRe * v0Im + coshIm * v0Re + sqRe * v1Im + sqIm * v1Re;
+        out1Re = qsRe * v0Re - qsIm * v0Im + coshRe * v1Re - coshIm * v1Im;
+        out1Im = qsRe * v0Im + qsIm * v0Re + coshRe * v1Im + coshIm * v1Re;
+    }
+}
@@ -0,0 +1,129 @@
+package com.waveguide.solver;
+
+import com.waveguide.model.entity.Layer;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable, primitive-array view of an ordered layer stack.
+ * <p>
+ * Layer 0 is the cover and the last layer is the substrate; both are treated as
+ * semi-infinite, so their thickness is ignored. Every layer in between is a finite
+ * film of thickness {@code d}, expressed in the same length unit as the wavelength.
+ */
+public final class LayerStack {
+
+    private final double[] e;
+    private final double[] reEps;
+    private final double[] imEps;
+    private final double[] d;
+    private final boolean lossless;
+
+    private LayerStack(double[] e, double[] reEps, double[] imEps, double[] d) {
+        if (reEps.length < 2) {
+            throw new IllegalArgumentException("A waveguide needs at least a cover and a substrate layer to be solved");
+        }
+        this.e = e;
+        this.reEps = reEps;
+        this.imEps = imEps;
+        this.d = d;
+
+        boolean noLoss = true;
+        for (double im : imEps) {
+            if (im != 0.0) {
+                noLoss = false;
+                break;
+            }
+        }
+        this.lossless = noLoss;
+    }
+
+    public static LayerStack of(double[] e, double[] reEps, double[] imEps, double[] d) {
+        int n = reEps.length;
+        if (e.length != n || imEps.length != n || d.length != n) {
+            throw new IllegalArgumentException("Layer property arrays must have the same length");
+        }
+        return new LayerStack(e.clone(), reEps.clone(), imEps.clone(), d.clone());
+    }
+
+    public static LayerStack fromLayers(List<Layer> layers) {
+        List<Layer> ordered = layers.stream()
+                .sorted(Comparator.comparing(Layer::getLayerIndex))
+                .toList();
+
+        int n = ordered.size();
+        double[] e = new double[n];
+        double[] reEps = new double[n];
+        double[] imEps = new double[n];
+        double[] d = new double[n];
+        for (int i = 0; i < n; i++) {
+            Layer layer = ordered.get(i);
+            e[i] = layer.getE();
+            reEps[i] = layer.getReEps();
+            imEps[i] = layer.getImEps();
+            d[i] = layer.getD();
+        }
+        return new LayerStack(e, reEps, imEps, d);
+    }
+
+    /**
+     * Returns a copy of this stack with one property of one layer replaced.
+     */
+    public LayerStack with(LayerProperty property, int layer, double value) {
+        if (layer < 0 || layer >= size()) {
+            throw new IllegalArgumentException("Layer index out of range: " + layer);
+        }
+        double[] e2 = e.clone();
+        double[] reEps2 = reEps.clone();
+        double[] imEps2 = imEps.clone();
+        double[] d2 = d.clone();
+        switch (property) {
+            case E -> e2[layer] = value;
+            case RE_EPS -> reEps2[layer] = value;
+            case IM_EPS -> imEps2[layer] = value;
+            case D -> d2[layer] = value;
+        }
+        return new LayerStack(e2, reEps2, imEps2, d2);
+    }
+
+    public int size() {
+        return reEps.length;
+    }
+
+    public double e(int layer) {
+        return e[layer];
+    }
+
+    public double reEps(int layer) {
+        return reEps[layer];
+    }
+
+    public double imEps(int layer) {
+        return imEps[layer];
+    }
+
+    public double d(int layer) {
+        return d[layer];
+    }
+
+    public boolean isLossless() {
+        return lossless;
+    }
+
+    /**
+     * Lowest effective index a guided mode can have: below the larger of the cladding
+     * indices the field no longer decays into the cover or substrate.
+     */
+    public double guidedLowerBound() {
+        double cladding = Math.max(reEps[0], reEps[reEps.length - 1]);
+        return cladding > 0.0 ? Math.sqrt(cladding) : 0.0;
+    }
+
+    public enum LayerProperty {
+        E,
+        RE_EPS,
+        IM_EPS,
+        D
+    }
+}
@@ -0,0 +1,14 @@
+package com.waveguide.solver;
+
+import lombok.Value;
+
+/**
+ * A guided mode found by the solver. Order 0 is the mode with the largest effective index.
+ */
+@Value
+public class Mode {
+
+    int order;
+    double nEffRe;
+    double nEffIm;
+}
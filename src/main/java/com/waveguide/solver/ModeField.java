@@ -0,0 +1,83 @@
+package com.waveguide.solver;
+
+/**
+ * Sampled field profile of a mode, used to tell modes apart by shape.
+ * <p>
+ * Every finite layer, and a fixed length {@code tail} of the cover and substrate,
+ * contributes {@code perLayer} samples of the {@link FieldProfile}, weighted by the square
+ * root of their spacing so the plain inner product of two profiles approximates the overlap
+ * integral. Profiles are only comparable when sampled by the same instance.
+ */
+final class ModeField {
+
+    private final LayerStack stack;
+    private final Polarization polarization;
+    private final int perLayer;
+    private final double tail;
+
+    ModeField(LayerStack stack, Polarization polarization, int perLayer, double tail) {
+        this.stack = stack;
+        this.polarization = polarization;
+        this.perLayer = Math.max(1, perLayer);
+        this.tail = tail;
+    }
+
+    /**
+     * Samples the field of the mode {@code nRe + i nIm} at {@code wavelength}. The result
+     * interleaves real and imaginary parts and has unit length.
+     */
+    double[] sample(double wavelength, double nRe, double nIm) {
+        FieldProfile profile = new FieldProfile(stack, polarization, wavelength, nRe, nIm);
+        double[] field = new double[2 * stack.size() * perLayer];
+        int s = 0;
+
+        double weight = Math.sqrt(tail / perLayer);
+        for (int k = 0; k < perLayer; k++) {
+            s = put(profile, -tail * (perLayer - k - 0.5) / perLayer, weight, field, s);
+        }
+        double x = 0.0;
+        for (int j = 1; j < stack.size() - 1; j++) {
+            double d = stack.d(j);
+            weight = Math.sqrt(d / perLayer);
+            for (int k = 0; k < perLayer; k++) {
+                s = put(profile, x + d * (k + 0.5) / perLayer, weight, field, s);
+            }
+            x += d;
+        }
+        weight = Math.sqrt(tail / perLayer);
+        for (int k = 0; k < perLayer; k++) {
+            s = put(profile, x + tail * (k + 0.5) / perLayer, weight, field, s);
+        }
+
+        double sum = 0.0;
+        for (double value : field) {
+            sum += value * value;
+        }
+        double inverse = sum > 0.0 ? 1.0 / Math.sqrt(sum) : 0.0;
+        for (int i = 0; i < field.length; i++) {
+            field[i] *= inverse;
+        }
+        return field;
+    }
+
+    private static int put(FieldProfile profile, double x, double weight, double[] field, int s) {
+        profile.evaluate(x);
+        field[s] = weight * profile.re();
+        field[s + 1] = weight * profile.im();
+        return s + 2;
+    }
+
+    /**
+     * Magnitude of the overlap of two unit profiles: 1 for the same shape up to a complex
+     * factor, 0 for orthogonal ones.
+     */
+    static double overlap(double[] a, double[] b) {
+        double re = 0.0;
+        double im = 0.0;
+        for (int i = 0; i < a.length; i += 2) {
+            re += a[i] * b[i] + a[i + 1] * b[i + 1];
+            im += a[i + 1] * b[i] - a[i] * b[i + 1];
+        }
+        return Math.hypot(re, im);
+    }
+}
@@ -0,0 +1,168 @@
+package com.waveguide.solver;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.waveguide.service.WaveguideChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Content-addressed cache of solved mode sets, shared by all users.
+ * <p>
+ * Entries are keyed by a SHA-256 digest of the effective-index window and the ordered
+ * layer properties plus the solve parameters, so two users with identical stacks share
+ * one entry and an entry can never describe a stack it was not computed for. Eviction is
+ * size-bounded W-TinyLFU (Caffeine). Hits, misses, evictions and size are published as the
+ * {@code cache_*} meters tagged {@code cache="mode-results"}.
+ * <p>
+ * Because keys are content addresses, edits never make an entry wrong, only unreachable.
+ * {@link #invalidate(UUID)} drops the entries of a waveguide's previous digest as soon as
+ * it changes, unless another cached waveguide still has the same content. Both lookups go
+ * through digest indexes kept in step with the caches by their removal listeners, so
+ * invalidation costs the entries of one digest, not a scan of either cache.
+ */
+@Component
+@Slf4j
+public class ModeResultCache {
+
+    private final Cache<Key, ModeSolution> results;
+    private final Cache<UUID, String> digestsByWaveguide;
+    private final Map<String, Set<Key>> keysByDigest = new ConcurrentHashMap<>();
+    private final Map<String, Set<UUID>> waveguidesByDigest = new ConcurrentHashMap<>();
+
+    public ModeResultCache(
+            MeterRegistry meterRegistry,
+            @Value("${app.solver.cache.maximum-size:10000}") long maximumSize,
+            @Value("${app.solver.cache.expire-after-access:PT1H}") Duration expireAfterAccess
+    ) {
+        this.results = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(expireAfterAccess)
+                .recordStats()
+                // Synchronous, so the index never lags behind the cache
+                .executor(Runnable::run)
+                .removalListener((Key key, ModeSolution solution, RemovalCause cause) -> {
+                    if (cause != RemovalCause.REPLACED) {
+                        unlink(keysByDigest, key.getStackDigest(), key);
+                    }
+                })
+                .build();
+        this.digestsByWaveguide = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(expireAfterAccess)
+                .executor(Runnable::run)
+                .removalListener((UUID waveguideId, String digest, RemovalCause cause) -> {
+                    if (cause != RemovalCause.REPLACED) {
+                        unlink(waveguidesByDigest, digest, waveguideId);
+                    }
+                })
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, results, "mode-results");
+    }
+
+    public static String digest(LayerStack stack, double nEffMin, double nEffMax) {
+        ByteBuffer buffer = ByteBuffer.allocate(Double.BYTES * (2 + 4 * stack.size()) + Integer.BYTES);
+        buffer.putLong(canonicalBits(nEffMin));
+        buffer.putLong(canonicalBits(nEffMax));
+        buffer.putInt(stack.size());
+        for (int i = 0; i < stack.size(); i++) {
+            buffer.putLong(canonicalBits(stack.e(i)));
+            buffer.putLong(canonicalBits(stack.reEps(i)));
+            buffer.putLong(canonicalBits(stack.imEps(i)));
+            buffer.putLong(canonicalBits(stack.d(i)));
+        }
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(buffer.array()));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public static Key key(String stackDigest, SolveSpec spec) {
+        return new Key(stackDigest, spec.getWavelength(), spec.getPolarization(), spec.getSamples(), spec.getTolerance());
+    }
+
+    public ModeSolution get(Key key) {
+        return results.getIfPresent(key);
+    }
+
+    public void put(UUID waveguideId, Key key, ModeSolution solution) {
+        String digest = key.getStackDigest();
+        // Indexed before insertion, so an immediate eviction still finds what to unlink
+        link(waveguidesByDigest, digest, waveguideId);
+        String previous = digestsByWaveguide.asMap().put(waveguideId, digest);
+        if (previous != null && !previous.equals(digest)) {
+            unlink(waveguidesByDigest, previous, waveguideId);
+        }
+        link(keysByDigest, digest, key);
+        results.put(key, solution);
+    }
+
+    public void invalidate(UUID waveguideId) {
+        String digest = digestsByWaveguide.getIfPresent(waveguideId);
+        if (digest == null) {
+            return;
+        }
+        digestsByWaveguide.invalidate(waveguideId);
+        if (waveguidesByDigest.containsKey(digest)) {
+            return;
+        }
+        Set<Key> keys = keysByDigest.remove(digest);
+        if (keys != null) {
+            results.invalidateAll(keys);
+        }
+        log.debug("Invalidated cached modes of waveguide {}", waveguideId);
+    }
+
+    @EventListener
+    public void onWaveguideChanged(WaveguideChangedEvent event) {
+        invalidate(event.getWaveguideId());
+    }
+
+    private static <T> void link(Map<String, Set<T>> index, String digest, T value) {
+        index.compute(digest, (d, values) -> {
+            Set<T> linked = values != null ? values : new HashSet<>();
+            linked.add(value);
+            return linked;
+        });
+    }
+
+    private static <T> void unlink(Map<String, Set<T>> index, String digest, T value) {
+        index.computeIfPresent(digest, (d, values) -> {
+            values.remove(value);
+            return values.isEmpty() ? null : values;
+        });
+    }
+
+    private static long canonicalBits(double value) {
+        // +0.0 and -0.0 (and all NaNs) describe the same stack
+        return value == 0.0 ? 0L : Double.doubleToLongBits(value);
+    }
+
+    @Data
+    public static class Key {
+
+        private final String stackDigest;
+        private final double wavelength;
+        private final Polarization polarization;
+        private final int samples;
+        private final double tolerance;
+    }
+}
@@ -0,0 +1,13 @@
+package com.waveguide.solver;
+
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+public class ModeSolution {
+
+    List<Mode> modes;
+    long evaluations;
+    long elapsedNanos;
+}
@@ -0,0 +1,252 @@
+package com.waveguide.solver;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Finds every guided mode of a {@link LayerStack} inside an effective-index window.
+ * <p>
+ * The window is sampled on a uniform grid of {@code samples} intervals. Lossless stacks
+ * have a real residual, so each sign change is refined with Brent's method. Lossy stacks
+ * have complex roots just off the real axis; local minima of |F| along the grid seed
+ * Muller's method on the complex plane.
+ * <p>
+ * Wide windows are split into contiguous runs of grid intervals that are scanned on the
+ * shared solver {@link ForkJoinPool}. The grid does not depend on the split, so the
+ * merged result is identical to a sequential scan. A single request never uses more
+ * than {@code app.solver.max-parallelism-per-request} workers.
+ */
+@Component
+public class ModeSolver {
+
+    private final ForkJoinPool solverPool;
+    private final int maxParallelismPerRequest;
+    private final int minSamplesPerTask;
+
+    public ModeSolver(
+            ForkJoinPool solverPool,
+            @Value("${app.solver.max-parallelism-per-request:4}") int maxParallelismPerRequest,
+            @Value("${app.solver.min-samples-per-task:256}") int minSamplesPerTask
+    ) {
+        this.solverPool = solverPool;
+        this.maxParallelismPerRequest = Math.max(1, maxParallelismPerRequest);
+        this.minSamplesPerTask = Math.max(1, minSamplesPerTask);
+    }
+
+    public ModeSolution solve(LayerStack stack, SolveSpec spec) {
+        long start = System.nanoTime();
+
+        double lo = spec.getNEffMin();
+        double hi = spec.getNEffMax();
+        if (stack.isLossless()) {
+            lo = Math.max(lo, stack.guidedLowerBound());
+        }
+        if (!(hi > lo) || spec.getSamples() < 2) {
+            return new ModeSolution(List.of(), 0, System.nanoTime() - start);
+        }
+
+        int samples = spec.getSamples();
+        int tasks = Math.min(parallelismFor(spec), Math.max(1, samples / minSamplesPerTask));
+        LongAdder evaluations = new LongAdder();
+        ScanTask task = new ScanTask(stack, spec, lo, hi, 0, samples, tasks, evaluations);
+
+        RootSet roots = tasks > 1 ? solverPool.invoke(task) : task.compute();
+        roots.sortAndDeduplicate(separation(spec));
+
+        return new ModeSolution(toModes(roots), evaluations.sum(), System.nanoTime() - start);
+    }
+
+    /**
+     * Continuation solve: refines each mode of {@code previous}, typically the solution of a
+     * neighbouring point in a sweep, instead of scanning the whole window.
+     * <p>
+     * Returns {@code null} when continuation cannot be trusted: a seed fails to converge,
+     * leaves the window or merges with another mode, or (for lossless stacks) the parity of
+     * the residual signs at the window edges shows a mode entered or left the window.
+     * Callers then fall back to {@link #solve(LayerStack, SolveSpec)}.
+     */
+    public ModeSolution solveFrom(LayerStack stack, SolveSpec spec, ModeSolution previous) {
+        long start = System.nanoTime();
+
+        double lo = spec.getNEffMin();
+        double hi = spec.getNEffMax();
+        if (stack.isLossless()) {
+            lo = Math.max(lo, stack.guidedLowerBound());
+        }
+        if (!(hi > lo) || previous.getModes().isEmpty()) {
+            return null;
+        }
+
+        DispersionFunction function = new DispersionFunction(stack, spec.getPolarization(), spec.getWavelength());
+        RootFinder finder = new RootFinder(function, spec.getTolerance());
+        double step = (hi - lo) / Math.max(spec.getSamples(), 2);
+        RootSet roots = new RootSet(previous.getModes().size());
+
+        for (Mode seed : previous.getModes()) {
+            double x = seed.getNEffRe();
+            boolean converged = stack.isLossless()
+                    ? refineReal(function, finder, x, step)
+                    : finder.muller(x - step, x, x + step);
+            if (!converged || finder.rootRe() < lo || finder.rootRe() > hi) {
+                return null;
+            }
+            roots.add(finder.rootRe(), stack.isLossless() ? 0.0 : finder.rootIm());
+        }
+        roots.sortAndDeduplicate(separation(spec));
+        if (roots.size() != previous.getModes().size()) {
+            return null;
+        }
+
+        if (stack.isLossless()) {
+            boolean oddCount = function.evaluateReal(lo) * function.evaluateReal(hi) < 0.0;
+            if (oddCount != (roots.size() % 2 == 1)) {
+                return null;
+            }
+        }
+
+        return new ModeSolution(toModes(roots), function.getEvaluations(), System.nanoTime() - start);
+    }
+
+    private static boolean refineReal(DispersionFunction function, RootFinder finder, double x, double step) {
+        // Widen the bracket around the seed a few times before giving up
+        for (double h = step; h <= 8.0 * step; h *= 2.0) {
+            double a = x - h;
+            double b = x + h;
+            double fa = function.evaluateReal(a);
+            double fb = function.evaluateReal(b);
+            if (fa * fb <= 0.0) {
+                return finder.brent(a, b, fa, fb);
+            }
+        }
+        return false;
+    }
+
+    private int parallelismFor(SolveSpec spec) {
+        int requested = spec.getParallelism() > 0 ? spec.getParallelism() : maxParallelismPerRequest;
+        return Math.min(requested, Math.min(maxParallelismPerRequest, solverPool.getParallelism()));
+    }
+
+    /**
+     * Scans grid intervals {@code [from, to)}, splitting them over {@code leaves} subtasks.
+     * Results are merged left to right so the output order never depends on scheduling.
+     */
+    private static final class ScanTask extends RecursiveTask<RootSet> {
+
+        private final LayerStack stack;
+        private final SolveSpec spec;
+        private final double lo;
+        private final double hi;
+        private final int from;
+        private final int to;
+        private final int leaves;
+        private final LongAdder evaluations;
+
+        private ScanTask(LayerStack stack, SolveSpec spec, double lo, double hi,
+                         int from, int to, int leaves, LongAdder evaluations) {
+            this.stack = stack;
+            this.spec = spec;
+            this.lo = lo;
+            this.hi = hi;
+            this.from = from;
+            this.to = to;
+            this.leaves = leaves;
+            this.evaluations = evaluations;
+        }
+
+        @Override
+        protected RootSet compute() {
+            if (leaves <= 1) {
+                DispersionFunction function = new DispersionFunction(stack, spec.getPolarization(), spec.getWavelength());
+                RootFinder finder = new RootFinder(function, spec.getTolerance());
+                RootSet roots = new RootSet();
+                scan(function, finder, lo, hi, spec.getSamples(), from, to, roots);
+                evaluations.add(function.getEvaluations());
+                return roots;
+            }
+
+            int leftLeaves = leaves / 2;
+            int mid = from + (int) ((long) (to - from) * leftLeaves / leaves);
+            ScanTask left = new ScanTask(stack, spec, lo, hi, from, mid, leftLeaves, evaluations);
+            ScanTask right = new ScanTask(stack, spec, lo, hi, mid, to, leaves - leftLeaves, evaluations);
+            left.fork();
+            RootSet rightRoots = right.compute();
+            RootSet roots = left.join();
+            roots.addAll(rightRoots);
+            return roots;
+        }
+    }
+
+    /**
+     * Scans grid intervals {@code [from, to)} of the window {@code [lo, hi]} divided into
+     * {@code samples} intervals and adds the refined roots to {@code out}.
+     */
+    static void scan(DispersionFunction function, RootFinder finder, double lo, double hi,
+                     int samples, int from, int to, RootSet out) {
+        double step = (hi - lo) / samples;
+        if (function.getStack().isLossless()) {
+            scanReal(function, finder, lo, step, from, to, out);
+        } else {
+            scanComplex(function, finder, lo, hi, step, from, to, out);
+        }
+    }
+
+    private static void scanReal(DispersionFunction function, RootFinder finder, double lo, double step,
+                                 int from, int to, RootSet out) {
+        double a = lo + from * step;
+        double fa = function.evaluateReal(a);
+        for (int i = from + 1; i <= to; i++) {
+            double b = lo + i * step;
+            double fb = function.evaluateReal(b);
+            if (fa * fb <= 0.0 && !(fa == 0.0 && fb == 0.0) && finder.brent(a, b, fa, fb)) {
+                out.add(finder.rootRe(), 0.0);
+            }
+            a = b;
+            fa = fb;
+        }
+    }
+
+    private static void scanComplex(DispersionFunction function, RootFinder finder, double lo, double hi,
+                                    double step, int from, int to, RootSet out) {
+        // Look one sample beyond each end so minima on the boundaries of [from, to] are seen once
+        int first = from - 1;
+        double prev = magnitude(function, lo + first * step);
+        double curr = magnitude(function, lo + from * step);
+        for (int i = from; i < to; i++) {
+            double next = magnitude(function, lo + (i + 1) * step);
+            if (curr <= prev && curr < next) {
+                double x = lo + i * step;
+                if (finder.muller(x - step, x, x + step)) {
+                    double re = finder.rootRe();
+                    if (re >= lo && re <= hi && Double.isFinite(finder.rootIm())) {
+                        out.add(re, finder.rootIm());
+                    }
+                }
+            }
+            prev = curr;
+            curr = next;
+        }
+    }
+
+    private static double magnitude(DispersionFunction function, double n) {
+        function.evaluate(n, 0.0);
+        return Math.hypot(function.re(), function.im());
+    }
+
+    static double separation(SolveSpec spec) {
+        return Math.max(spec.getTolerance() * 100.0, 1e-10);
+    }
+
+    static List<Mode> toModes(RootSet roots) {
+        List<Mode> modes = new ArrayList<>(roots.size());
+        for (int i = 0; i < roots.size(); i++) {
+            modes.add(new Mode(i, roots.re(i), roots.im(i)));
+        }
+        return modes;
+    }
+}
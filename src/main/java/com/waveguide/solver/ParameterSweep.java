@@ -0,0 +1,199 @@
+package com.waveguide.solver;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntConsumer;
+
+/**
+ * Solves one layer stack across a range of values of a single parameter.
+ * <p>
+ * The points are split into contiguous chunks that run concurrently on the solver pool.
+ * Inside a chunk each point is seeded from the modes of the previous point
+ * ({@link ModeSolver#solveFrom}); a full window scan only happens for the first point of
+ * a chunk, when continuation is rejected, or every {@code rescan-interval} points as a
+ * safety net. Each point is handed to the listener as soon as it and every point before it
+ * are solved, so the first result is delivered after one solve, not after a whole chunk.
+ */
+@Component
+public class ParameterSweep {
+
+    private static final int MIN_POINTS_PER_CHUNK = 32;
+    private static final long PARK_NANOS = 100_000_000L;
+
+    private final ModeSolver modeSolver;
+    private final ForkJoinPool solverPool;
+    private final int maxParallelismPerRequest;
+    private final int rescanInterval;
+
+    public ParameterSweep(
+            ModeSolver modeSolver,
+            ForkJoinPool solverPool,
+            @Value("${app.solver.max-parallelism-per-request:4}") int maxParallelismPerRequest,
+            @Value("${app.solver.sweep.rescan-interval:32}") int rescanInterval
+    ) {
+        this.modeSolver = modeSolver;
+        this.solverPool = solverPool;
+        this.maxParallelismPerRequest = Math.max(1, maxParallelismPerRequest);
+        this.rescanInterval = Math.max(1, rescanInterval);
+    }
+
+    @FunctionalInterface
+    public interface Listener {
+        void onPoint(SweepPoint point) throws IOException;
+    }
+
+    public static double[] linspace(double start, double end, int points) {
+        double[] values = new double[points];
+        if (points == 1) {
+            values[0] = start;
+            return values;
+        }
+        double step = (end - start) / (points - 1);
+        for (int i = 0; i < points; i++) {
+            values[i] = start + i * step;
+        }
+        values[points - 1] = end;
+        return values;
+    }
+
+    public void run(LayerStack stack, SolveSpec spec, SweepParameter parameter, double[] values,
+                    int parallelism, Listener listener) throws IOException {
+        run(stack, spec, parameter, values, parallelism, listener, solved -> { });
+    }
+
+    /**
+     * Like {@link #run(LayerStack, SolveSpec, SweepParameter, double[], int, Listener)}, and
+     * passes the number of points solved so far to {@code progress} from the solver threads as
+     * each point completes, ahead of its delivery. An exception thrown by {@code progress}
+     * stops the sweep and is rethrown from here; no further points are delivered.
+     */
+    public void run(LayerStack stack, SolveSpec spec, SweepParameter parameter, double[] values,
+                    int parallelism, Listener listener, IntConsumer progress) throws IOException {
+        int requested = parallelism > 0 ? Math.min(parallelism, maxParallelismPerRequest) : maxParallelismPerRequest;
+        int chunks = Math.max(1, Math.min(requested, values.length / MIN_POINTS_PER_CHUNK));
+        // Points inside a chunk already run in parallel with the other chunks
+        SolveSpec pointSpec = spec.toBuilder().parallelism(1).build();
+        AtomicBoolean cancelled = new AtomicBoolean();
+        AtomicInteger solved = new AtomicInteger();
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        Runnable onSolved = () -> {
+            try {
+                progress.accept(solved.incrementAndGet());
+            } catch (RuntimeException e) {
+                failure.compareAndSet(null, e);
+                cancelled.set(true);
+            }
+        };
+
+        AtomicReferenceArray<SweepPoint> points = new AtomicReferenceArray<>(values.length);
+        Thread consumer = Thread.currentThread();
+        int[] bounds = new int[chunks + 1];
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(chunks);
+        for (int c = 0; c < chunks; c++) {
+            int from = (int) ((long) values.length * c / chunks);
+            int to = (int) ((long) values.length * (c + 1) / chunks);
+            bounds[c + 1] = to;
+            tasks.add(solverPool.submit(() -> runChunk(stack, pointSpec, parameter, values, from, to,
+                    cancelled, failure, onSolved, points, consumer)));
+        }
+
+        try {
+            for (int c = 0; c < chunks; c++) {
+                for (int i = bounds[c]; i < bounds[c + 1]; i++) {
+                    SweepPoint point = awaitPoint(points, i, tasks.get(c), failure);
+                    listener.onPoint(point);
+                }
+            }
+        } finally {
+            cancelled.set(true);
+            tasks.forEach(task -> task.cancel(false));
+        }
+    }
+
+    /**
+     * Waits for point {@code index}, parked until its chunk publishes it. Rethrows the failure
+     * of any chunk or progress callback instead; a point whose progress callback failed is
+     * never published.
+     */
+    private static SweepPoint awaitPoint(AtomicReferenceArray<SweepPoint> points, int index, ForkJoinTask<?> chunk,
+                                         AtomicReference<RuntimeException> failure) {
+        while (true) {
+            if (failure.get() != null) {
+                throw failure.get();
+            }
+            SweepPoint point = points.get(index);
+            if (point != null) {
+                return point;
+            }
+            if (chunk.isDone()) {
+                chunk.join();
+                // Published before the chunk completed, unless the sweep was stopped
+                point = points.get(index);
+                if (point != null) {
+                    return point;
+                }
+                throw failure.get() != null ? failure.get() : new CancellationException("Sweep stopped");
+            }
+            if (Thread.interrupted()) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Sweep interrupted");
+            }
+            // Timed so that a chunk dying of an Error, which publishes nothing, is still noticed
+            LockSupport.parkNanos(points, PARK_NANOS);
+        }
+    }
+
+    private void runChunk(LayerStack stack, SolveSpec spec, SweepParameter parameter, double[] values,
+                          int from, int to, AtomicBoolean cancelled, AtomicReference<RuntimeException> failure,
+                          Runnable onSolved, AtomicReferenceArray<SweepPoint> points, Thread consumer) {
+        ModeSolution previous = null;
+        int sinceRescan = 0;
+        try {
+            for (int i = from; i < to; i++) {
+                if (cancelled.get()) {
+                    return;
+                }
+                double value = values[i];
+                LayerStack pointStack = parameter.apply(stack, value);
+                SolveSpec solveSpec = parameter.apply(spec, value);
+
+                ModeSolution solution = null;
+                if (previous != null && sinceRescan < rescanInterval) {
+                    solution = modeSolver.solveFrom(pointStack, solveSpec, previous);
+                }
+                boolean continued = solution != null;
+                if (continued) {
+                    sinceRescan++;
+                } else {
+                    solution = modeSolver.solve(pointStack, solveSpec);
+                    sinceRescan = 0;
+                }
+                previous = solution;
+                onSolved.run();
+                // A point whose progress callback failed must not be delivered
+                if (cancelled.get()) {
+                    return;
+                }
+                points.set(i, new SweepPoint(i, value, solution, continued));
+                LockSupport.unpark(consumer);
+            }
+        } catch (RuntimeException e) {
+            failure.compareAndSet(null, e);
+            cancelled.set(true);
+            LockSupport.unpark(consumer);
+            throw e;
+        }
+    }
+}
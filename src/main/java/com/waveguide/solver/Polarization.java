@@ -0,0 +1,6 @@
+package com.waveguide.solver;
+
+public enum Polarization {
+    TE,
+    TM
+}
@@ -0,0 +1,217 @@
+package com.waveguide.solver;
+
+/**
+ * Root refinement on top of a {@link DispersionFunction}: Brent's method for real
+ * brackets of lossless stacks and Muller's method on the complex plane for lossy ones.
+ * <p>
+ * Like the dispersion function it wraps, a finder keeps its last result in primitive
+ * fields and is not thread-safe.
+ */
+public final class RootFinder {
+
+    private static final int MAX_ITERATIONS = 100;
+
+    private final DispersionFunction function;
+    private final double tolerance;
+
+    private double rootRe;
+    private double rootIm;
+    private int iterations;
+
+    public RootFinder(DispersionFunction function, double tolerance) {
+        this.function = function;
+        this.tolerance = tolerance;
+    }
+
+    public double rootRe() {
+        return rootRe;
+    }
+
+    public double rootIm() {
+        return rootIm;
+    }
+
+    public int iterations() {
+        return iterations;
+    }
+
+    /**
+     * Refines a sign change of the real residual on {@code [a, b]}.
+     *
+     * @return {@code true} if the bracket converged to a root
+     */
+    public boolean brent(double a, double b, double fa, double fb) {
+        iterations = 0;
+        if (fa == 0.0) {
+            return accept(a, 0.0);
+        }
+        if (fb == 0.0) {
+            return accept(b, 0.0);
+        }
+        if ((fa > 0.0) == (fb > 0.0)) {
+            return false;
+        }
+
+        double c = a;
+        double fc = fa;
+        double d = b - a;
+        double e = d;
+        while (iterations++ < MAX_ITERATIONS) {
+            if ((fb > 0.0) == (fc > 0.0)) {
+                c = a;
+                fc = fa;
+                d = b - a;
+                e = d;
+            }
+            if (Math.abs(fc) < Math.abs(fb)) {
+                a = b;
+                b = c;
+                c = a;
+                fa = fb;
+                fb = fc;
+                fc = fa;
+            }
+            double tol = 2.0 * Math.ulp(b) + 0.5 * tolerance;
+            double m = 0.5 * (c - b);
+            if (Math.abs(m) <= tol || fb == 0.0) {
+                return accept(b, 0.0);
+            }
+            if (Math.abs(e) >= tol && Math.abs(fa) > Math.abs(fb)) {
+                double s = fb / fa;
+                double p;
+                double q;
+                if (a == c) {
+                    p = 2.0 * m * s;
+                    q = 1.0 - s;
+                } else {
+                    double r = fb / fc;
+                    q = fa / fc;
+                    p = s * (2.0 * m * q * (q - r) - (b - a) * (r - 1.0));
+                    q = (q - 1.0) * (r - 1.0) * (s - 1.0);
+                }
+                if (p > 0.0) {
+                    q = -q;
+                } else {
+                    p = -p;
+                }
+                if (2.0 * p < Math.min(3.0 * m * q - Math.abs(tol * q), Math.abs(e * q))) {
+                    e = d;
+                    d = p / q;
+                } else {
+                    d = m;
+                    e = m;
+                }
+            } else {
+                d = m;
+                e = m;
+            }
+            a = b;
+            fa = fb;
+            b += Math.abs(d) > tol ? d : (m > 0.0 ? tol : -tol);
+            fb = function.evaluateReal(b);
+        }
+        return false;
+    }
+
+    /**
+     * Runs Muller's method on the complex residual from three real starting points.
+     *
+     * @return {@code true} if the iteration converged to a root
+     */
+    public boolean muller(double x0, double x1, double x2) {
+        iterations = 0;
+        double z0Re = x0;
+        double z0Im = 0.0;
+        double z1Re = x1;
+        double z1Im = 0.0;
+        double z2Re = x2;
+        double z2Im = 0.0;
+
+        function.evaluate(z0Re, z0Im);
+        double f0Re = function.re();
+        double f0Im = function.im();
+        function.evaluate(z1Re, z1Im);
+        double f1Re = function.re();
+        double f1Im = function.im();
+        function.evaluate(z2Re, z2Im);
+        double f2Re = function.re();
+        double f2Im = function.im();
+
+        while (iterations++ < MAX_ITERATIONS) {
+            double h1Re = z1Re - z0Re;
+            double h1Im = z1Im - z0Im;
+            double h2Re = z2Re - z1Re;
+            double h2Im = z2Im - z1Im;
+
+            // Divided differences
+            double d1Re = DispersionFunction.divRe(f1Re - f0Re, f1Im - f0Im, h1Re, h1Im);
+            double d1Im = DispersionFunction.divIm(f1Re - f0Re, f1Im - f0Im, h1Re, h1Im);
+            double d2Re = DispersionFunction.divRe(f2Re - f1Re, f2Im - f1Im, h2Re, h2Im);
+            double d2Im = DispersionFunction.divIm(f2Re - f1Re, f2Im - f1Im, h2Re, h2Im);
+            double aRe = DispersionFunction.divRe(d2Re - d1Re, d2Im - d1Im, h2Re + h1Re, h2Im + h1Im);
+            double aIm = DispersionFunction.divIm(d2Re - d1Re, d2Im - d1Im, h2Re + h1Re, h2Im + h1Im);
+
+            // b = a h2 + d2
+            double bRe = aRe * h2Re - aIm * h2Im + d2Re;
+            double bIm = aRe * h2Im + aIm * h2Re + d2Im;
+
+            // disc = sqrt(b^2 - 4 a f2)
+            double wRe = bRe * bRe - bIm * bIm - 4.0 * (aRe * f2Re - aIm * f2Im);
+            double wIm = 2.0 * bRe * bIm - 4.0 * (aRe * f2Im + aIm * f2Re);
+            double sRe = DispersionFunction.sqrtRe(wRe, wIm);
+            double sIm = DispersionFunction.sqrtIm(wRe, wIm);
+
+            double plusRe = bRe + sRe;
+            double plusIm = bIm + sIm;
+            double minusRe = bRe - sRe;
+            double minusIm = bIm - sIm;
+            double denRe;
+            double denIm;
+            if (plusRe * plusRe + plusIm * plusIm >= minusRe * minusRe + minusIm * minusIm) {
+                denRe = plusRe;
+                denIm = plusIm;
+            } else {
+                denRe = minusRe;
+                denIm = minusIm;
+            }
+
+            double dzRe;
+            double dzIm;
+            if (denRe == 0.0 && denIm == 0.0) {
+                dzRe = h2Re == 0.0 && h2Im == 0.0 ? tolerance : h2Re;
+                dzIm = h2Im;
+            } else {
+                dzRe = DispersionFunction.divRe(-2.0 * f2Re, -2.0 * f2Im, denRe, denIm);
+                dzIm = DispersionFunction.divIm(-2.0 * f2Re, -2.0 * f2Im, denRe, denIm);
+            }
+            if (!Double.isFinite(dzRe) || !Double.isFinite(dzIm)) {
+                return false;
+            }
+
+            z0Re = z1Re;
+            z0Im = z1Im;
+            f0Re = f1Re;
+            f0Im = f1Im;
+            z1Re = z2Re;
+            z1Im = z2Im;
+            f1Re = f2Re;
+            f1Im = f2Im;
+            z2Re += dzRe;
+            z2Im += dzIm;
+            function.evaluate(z2Re, z2Im);
+            f2Re = function.re();
+            f2Im = function.im();
+
+            if (Math.hypot(dzRe, dzIm) <= tolerance || (f2Re == 0.0 && f2Im == 0.0)) {
+                return accept(z2Re, z2Im);
+            }
+        }
+        return false;
+    }
+
+    private boolean accept(double re, double im) {
+        rootRe = re;
+        rootIm = im;
+        return true;
+    }
+}
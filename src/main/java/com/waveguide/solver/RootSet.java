@@ -0,0 +1,84 @@
+package com.waveguide.solver;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of complex roots backed by primitive arrays.
+ */
+final class RootSet {
+
+    private double[] re;
+    private double[] im;
+    private int size;
+
+    RootSet() {
+        this(8);
+    }
+
+    RootSet(int capacity) {
+        re = new double[Math.max(capacity, 1)];
+        im = new double[Math.max(capacity, 1)];
+    }
+
+    void add(double rootRe, double rootIm) {
+        if (size == re.length) {
+            re = Arrays.copyOf(re, size * 2);
+            im = Arrays.copyOf(im, size * 2);
+        }
+        re[size] = rootRe;
+        im[size] = rootIm;
+        size++;
+    }
+
+    void addAll(RootSet other) {
+        for (int i = 0; i < other.size; i++) {
+            add(other.re[i], other.im[i]);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    double re(int i) {
+        return re[i];
+    }
+
+    double im(int i) {
+        return im[i];
+    }
+
+    /**
+     * Sorts the roots by descending real part and collapses roots closer than
+     * {@code separation} into one.
+     */
+    void sortAndDeduplicate(double separation) {
+        if (size < 2) {
+            return;
+        }
+        // Mode counts are small, so an in-place insertion sort is all that is needed
+        for (int i = 1; i < size; i++) {
+            double r = re[i];
+            double m = im[i];
+            int j = i - 1;
+            while (j >= 0 && (re[j] < r || (re[j] == r && im[j] < m))) {
+                re[j + 1] = re[j];
+                im[j + 1] = im[j];
+                j--;
+            }
+            re[j + 1] = r;
+            im[j + 1] = m;
+        }
+
+        int kept = 1;
+        for (int i = 1; i < size; i++) {
+            if (Math.hypot(re[kept - 1] - re[i], im[kept - 1] - im[i]) <= separation) {
+                continue;
+            }
+            re[kept] = re[i];
+            im[kept] = im[i];
+            kept++;
+        }
+        size = kept;
+    }
+}
@@ -0,0 +1,22 @@
+package com.waveguide.solver;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Parameters of a single mode solve over the effective-index window {@code [nEffMin, nEffMax]}.
+ */
+@Value
+@Builder(toBuilder = true)
+public class SolveSpec {
+
+    double wavelength;
+    Polarization polarization;
+    double nEffMin;
+    double nEffMax;
+    int samples;
+    double tolerance;
+
+    /** Upper bound on workers for this solve; 0 uses the configured per-request maximum. */
+    int parallelism;
+}
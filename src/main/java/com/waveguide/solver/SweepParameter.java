@@ -0,0 +1,53 @@
+package com.waveguide.solver;
+
+import lombok.Value;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The quantity varied by a parameter sweep: either the wavelength or a single property
+ * of one layer, written as a path such as {@code wavelength} or {@code layers[3].d}.
+ */
+@Value
+public class SweepParameter {
+
+    private static final Pattern LAYER_PATH = Pattern.compile("layers\\[(\\d+)]\\.(E|reEps|imEps|d)");
+
+    String path;
+    LayerStack.LayerProperty property;
+    int layer;
+
+    public static SweepParameter parse(String path) {
+        if ("wavelength".equals(path)) {
+            return new SweepParameter(path, null, -1);
+        }
+        Matcher matcher = path != null ? LAYER_PATH.matcher(path) : null;
+        if (matcher == null || !matcher.matches()) {
+            throw new IllegalArgumentException(
+                    "Unsupported sweep parameter: " + path + " (expected wavelength or layers[i].E|reEps|imEps|d)");
+        }
+        LayerStack.LayerProperty property = switch (matcher.group(2)) {
+            case "E" -> LayerStack.LayerProperty.E;
+            case "reEps" -> LayerStack.LayerProperty.RE_EPS;
+            case "imEps" -> LayerStack.LayerProperty.IM_EPS;
+            default -> LayerStack.LayerProperty.D;
+        };
+        return new SweepParameter(path, property, Integer.parseInt(matcher.group(1)));
+    }
+
+    public boolean isWavelength() {
+        return property == null;
+    }
+
+    /**
+     * Applies {@code value} to the base stack or spec; the other one is returned unchanged.
+     */
+    public LayerStack apply(LayerStack stack, double value) {
+        return isWavelength() ? stack : stack.with(property, layer, value);
+    }
+
+    public SolveSpec apply(SolveSpec spec, double value) {
+        return isWavelength() ? spec.toBuilder().wavelength(value).build() : spec;
+    }
+}
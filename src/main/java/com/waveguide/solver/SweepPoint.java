@@ -0,0 +1,17 @@
+package com.waveguide.solver;
+
+import lombok.Value;
+
+/**
+ * Result of one point of a parameter sweep.
+ */
+@Value
+public class SweepPoint {
+
+    int index;
+    double value;
+    ModeSolution solution;
+
+    /** {@code true} if the point was solved by continuation from its predecessor. */
+    boolean continued;
+}
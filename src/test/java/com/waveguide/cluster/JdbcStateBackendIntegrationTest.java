@@ -0,0 +1,111 @@
+package com.waveguide.cluster;
+
+import com.waveguide.config.RateLimitingFilter;
+import com.waveguide.model.entity.Waveguide;
+import com.waveguide.security.JwtTokenBlacklist;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.FilterChain;
+import org.hibernate.cfg.AvailableSettings;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two "instances" (separate filter and blacklist objects) sharing the JDBC backend.
+ */
+@SpringBootTest(properties = "app.cluster.state-backend=jdbc")
+@ActiveProfiles("test")
+public class JdbcStateBackendIntegrationTest {
+
+    private static final FilterChain PASS = (request, response) -> { };
+
+    @Autowired
+    private StateBackend stateBackend;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private RateLimitingFilter instance() {
+        return new RateLimitingFilter(new SimpleMeterRegistry(), stateBackend, 100, 4, 100,
+                DataSize.ofMegabytes(1), Duration.ofHours(1), Set.of());
+    }
+
+    private static int get(RateLimitingFilter filter, String clientIp) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/waveguides");
+        request.setRemoteAddr(clientIp);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, PASS);
+        return response.getStatus();
+    }
+
+    @Test
+    void syncUsage_AcrossInstances_ShouldEnforceOneClusterWideLimit() throws Exception {
+        // Arrange
+        assertInstanceOf(JdbcStateBackend.class, stateBackend);
+        RateLimitingFilter nodeA = instance();
+        RateLimitingFilter nodeB = instance();
+        String client = UUID.randomUUID().toString();
+        String otherClient = UUID.randomUUID().toString();
+
+        // Act: each instance admits half the limit locally, then both sync
+        assertEquals(200, get(nodeA, client));
+        assertEquals(200, get(nodeA, client));
+        assertEquals(200, get(nodeB, client));
+        assertEquals(200, get(nodeB, client));
+        nodeA.syncUsage();
+        nodeB.syncUsage();
+
+        // Assert: B has seen A's usage; A catches up at its next sync
+        assertEquals(429, get(nodeB, client));
+        assertEquals(200, get(nodeA, client), "A admits against the usage it saw at its last sync");
+        nodeA.syncUsage();
+        assertEquals(429, get(nodeA, client));
+        assertEquals(200, get(nodeB, otherClient), "other clients are unaffected");
+    }
+
+    @Test
+    void syncRevocations_ShouldPropagateLogoutToOtherInstances() {
+        // Arrange
+        JwtTokenBlacklist nodeA = new JwtTokenBlacklist(stateBackend);
+        JwtTokenBlacklist nodeB = new JwtTokenBlacklist(stateBackend);
+        String token = "header.payload-" + UUID.randomUUID() + ".signature";
+        String expired = "header.payload-" + UUID.randomUUID() + ".signature";
+
+        // Act
+        nodeA.addToBlacklist(token, Date.from(Instant.now().plus(Duration.ofHours(1))));
+        nodeA.addToBlacklist(expired, Date.from(Instant.now().minus(Duration.ofMinutes(1))));
+        boolean beforeSync = nodeB.isBlacklisted(token);
+        nodeB.syncRevocations();
+
+        // Assert
+        assertTrue(nodeA.isBlacklisted(token));
+        assertFalse(beforeSync);
+        assertTrue(nodeB.isBlacklisted(token));
+        assertFalse(nodeB.isBlacklisted(expired), "expired revocations are not pulled");
+    }
+
+    @Test
+    void startup_WithJdbcBackend_ShouldNotCacheEntitiesPerInstance() {
+        // Act
+        Map<String, Object> properties = entityManagerFactory.getProperties();
+
+        // Assert
+        assertEquals("false", String.valueOf(properties.get(AvailableSettings.USE_SECOND_LEVEL_CACHE)));
+        assertEquals("false", String.valueOf(properties.get(AvailableSettings.USE_QUERY_CACHE)));
+        assertFalse(entityManagerFactory.getCache().contains(Waveguide.class, UUID.randomUUID()));
+    }
+}
@@ -0,0 +1,66 @@
+package com.waveguide.config;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ConnectionLimitingDataSourceTest {
+
+    private final DataSource pool = mock(DataSource.class);
+
+    @Test
+    void getConnection_WhenAllPermitsAreTaken_ShouldWaitForAClose() throws Exception {
+        // Arrange
+        when(pool.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(pool, 1, Duration.ofSeconds(1));
+        Connection first = dataSource.getConnection();
+
+        // Act
+        CompletableFuture<Connection> second = CompletableFuture.supplyAsync(() -> {
+            try {
+                return dataSource.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        while (dataSource.getWaitingCount() == 0) {
+            Thread.onSpinWait();
+        }
+        boolean admittedWhileHeld = second.isDone();
+        first.close();
+        first.close();
+
+        // Assert
+        assertFalse(admittedWhileHeld);
+        assertNotNull(second.get(5, TimeUnit.SECONDS));
+        assertEquals(0, dataSource.getWaitingCount());
+        verify(pool, times(2)).getConnection();
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection,
+                "closing twice must not release a second permit");
+    }
+
+    @Test
+    void getConnection_WhenPoolFails_ShouldReturnThePermit() throws Exception {
+        // Arrange
+        Connection connection = mock(Connection.class);
+        when(pool.getConnection()).thenThrow(new SQLException("pool exhausted")).thenReturn(connection);
+        ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(pool, 1, Duration.ofMillis(100));
+
+        // Act
+        assertThrows(SQLException.class, dataSource::getConnection);
+        Connection limited = dataSource.getConnection();
+        limited.isValid(1);
+
+        // Assert
+        verify(connection).isValid(1);
+    }
+}
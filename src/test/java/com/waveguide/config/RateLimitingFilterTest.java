@@ -0,0 +1,141 @@
+package com.waveguide.config;
+
+import com.waveguide.cluster.MemoryStateBackend;
+import com.waveguide.security.UserPrincipal;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimitingFilterTest {
+
+    private static final FilterChain PASS = (request, response) -> { };
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private RateLimitingFilter filter(int write, int read, int auth, DataSize maxMemory, Set<String> trustedProxies) {
+        return new RateLimitingFilter(meterRegistry, new MemoryStateBackend(), write, read, auth, maxMemory, Duration.ofHours(1), trustedProxies);
+    }
+
+    private static int perform(RateLimitingFilter filter, String method, String path, String remoteAddr, String forwardedFor)
+            throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setRemoteAddr(remoteAddr);
+        if (forwardedFor != null) {
+            request.addHeader("X-Forwarded-For", forwardedFor);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, PASS);
+        return response.getStatus();
+    }
+
+    @Test
+    void doFilter_WhenLoginLimitIsExhausted_ShouldStillServeReads() throws Exception {
+        // Arrange
+        RateLimitingFilter filter = filter(100, 5, 2, DataSize.ofMegabytes(1), Set.of());
+
+        // Act
+        int first = perform(filter, "POST", "/api/v1/auth/login", "192.0.2.1", null);
+        int second = perform(filter, "POST", "/api/v1/auth/login", "192.0.2.1", null);
+        int third = perform(filter, "POST", "/api/v1/auth/login", "192.0.2.1", null);
+        int read = perform(filter, "GET", "/api/v1/waveguides", "192.0.2.1", null);
+
+        // Assert
+        assertEquals(200, first);
+        assertEquals(200, second);
+        assertEquals(429, third);
+        assertEquals(200, read);
+        assertEquals(1.0, meterRegistry.get("rate.limit.rejections").tag("limit", "auth").counter().count());
+    }
+
+    @Test
+    void doFilter_WithForwardedForFromUntrustedPeer_ShouldKeyByPeerAddress() throws Exception {
+        // Arrange
+        RateLimitingFilter filter = filter(100, 100, 1, DataSize.ofMegabytes(1), Set.of("10.0.0.1"));
+
+        // Act: a direct client rotating the header gets no fresh buckets
+        int spoofedFirst = perform(filter, "POST", "/api/v1/auth/login", "192.0.2.1", "198.51.100.1");
+        int spoofedSecond = perform(filter, "POST", "/api/v1/auth/login", "192.0.2.1", "198.51.100.2");
+        // ...while two clients behind the trusted proxy are told apart
+        int proxiedFirst = perform(filter, "POST", "/api/v1/auth/login", "10.0.0.1", "203.0.113.1, 10.0.0.1");
+        int proxiedSecond = perform(filter, "POST", "/api/v1/auth/login", "10.0.0.1", "203.0.113.2");
+
+        // Assert
+        assertEquals(200, spoofedFirst);
+        assertEquals(429, spoofedSecond);
+        assertEquals(200, proxiedFirst);
+        assertEquals(200, proxiedSecond);
+    }
+
+    @Test
+    void doFilter_WhenAuthenticated_ShouldKeyByUserAcrossAddresses() throws Exception {
+        // Arrange
+        RateLimitingFilter filter = filter(100, 1, 100, DataSize.ofMegabytes(1), Set.of());
+        UserPrincipal principal = new UserPrincipal(UUID.randomUUID(), "testuser", "test@example.com");
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+
+        // Act
+        int first = perform(filter, "GET", "/api/v1/waveguides", "192.0.2.1", null);
+        int second = perform(filter, "GET", "/api/v1/waveguides", "192.0.2.2", null);
+
+        // Assert
+        assertEquals(200, first);
+        assertEquals(429, second);
+    }
+
+    @Test
+    void syncUsage_WithMemoryBackend_ShouldKeepEnforcingLocalCountsExactly() throws Exception {
+        // Arrange
+        RateLimitingFilter filter = filter(3, 100, 100, DataSize.ofMegabytes(1), Set.of());
+
+        // Act: syncs in between must neither count the same tokens twice nor forget them
+        int first = perform(filter, "POST", "/api/v1/waveguides", "192.0.2.1", null);
+        int second = perform(filter, "POST", "/api/v1/waveguides", "192.0.2.1", null);
+        filter.syncUsage();
+        int third = perform(filter, "POST", "/api/v1/waveguides", "192.0.2.1", null);
+        filter.syncUsage();
+        int fourth = perform(filter, "POST", "/api/v1/waveguides", "192.0.2.1", null);
+
+        // Assert
+        assertEquals(200, first);
+        assertEquals(200, second);
+        assertEquals(200, third);
+        assertEquals(429, fourth);
+    }
+
+    @Test
+    void doFilter_WithManyDistinctClients_ShouldStayWithinMemoryBound() throws Exception {
+        // Arrange
+        DataSize maxMemory = DataSize.ofKilobytes(64);
+        RateLimitingFilter filter = filter(100, 100, 100, maxMemory, Set.of());
+
+        // Act: an address scan
+        for (int i = 0; i < 10_000; i++) {
+            perform(filter, "GET", "/api/v1/waveguides", "10." + (i >> 16) + "." + ((i >> 8) & 0xff) + "." + (i & 0xff), null);
+        }
+
+        // Assert
+        long buckets = filter.counterCount();
+        assertTrue(buckets > 0);
+        assertTrue(buckets <= maxMemory.toBytes() / RateLimitingFilter.ENTRY_OVERHEAD_BYTES, "held " + buckets + " buckets");
+        assertTrue(meterRegistry.get("rate.limit.buckets.memory").gauge().value() <= maxMemory.toBytes());
+    }
+}
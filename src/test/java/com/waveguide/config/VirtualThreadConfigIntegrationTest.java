@@ -0,0 +1,78 @@
+package com.waveguide.config;
+
+import com.waveguide.model.dto.request.UserRegistrationRequest;
+import com.waveguide.model.dto.response.AuthResponse;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "app.threads.virtual=true")
+@ActiveProfiles("test")
+@EnabledForJreRange(min = JRE.JAVA_21)
+public class VirtualThreadConfigIntegrationTest {
+
+    @Autowired
+    private ServletWebServerApplicationContext context;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void startup_WithVirtualThreads_ShouldServeRequestsThroughTheConnectionLimiter() {
+        // Arrange
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        UserRegistrationRequest request = UserRegistrationRequest.builder()
+                .username("virtual-" + suffix)
+                .email("virtual-" + suffix + "@example.com")
+                .password("Password123")
+                .build();
+
+        // Act
+        ResponseEntity<AuthResponse> registered = restTemplate.postForEntity("/api/v1/auth/register", request, AuthResponse.class);
+
+        // Assert
+        TomcatWebServer webServer = (TomcatWebServer) context.getWebServer();
+        assertInstanceOf(VirtualThreadExecutor.class,
+                webServer.getTomcat().getConnector().getProtocolHandler().getExecutor());
+        ConnectionLimitingDataSource limiter = assertInstanceOf(ConnectionLimitingDataSource.class, dataSource);
+        HikariDataSource hikari = assertInstanceOf(HikariDataSource.class, limiter.getTargetDataSource());
+        assertEquals(hikari.getMaximumPoolSize(), limiter.getMaxConnections());
+        assertEquals(HttpStatus.CREATED, registered.getStatusCode());
+        assertNotNull(registered.getBody().getToken());
+    }
+
+    @Test
+    void metrics_WithVirtualThreads_ShouldStillUnwrapTheHikariPool() {
+        // Act
+        var maxConnections = meterRegistry.find("hikaricp.connections.max").gauge();
+        var waiting = meterRegistry.find("jdbc.connections.waiting").gauge();
+
+        // Assert
+        assertNotNull(maxConnections, "the pool metrics are bound through the limiter");
+        assertEquals(((ConnectionLimitingDataSource) dataSource).getMaxConnections(), maxConnections.value());
+        assertNotNull(waiting);
+        assertEquals(0.0, waiting.value());
+    }
+}
@@ -0,0 +1,87 @@
+package com.waveguide.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.waveguide.model.dto.request.UserRegistrationRequest;
+import com.waveguide.model.dto.response.AuthResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+public class MetricsEndpointIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void prometheus_AfterApiRequests_ShouldExposeRequestDatabaseAndAuditMetrics() throws Exception {
+        // Arrange: register (async on the hashing pool), then an authenticated listing that queries the database
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        UserRegistrationRequest request = UserRegistrationRequest.builder()
+                .username("metrics-" + suffix)
+                .email("metrics-" + suffix + "@example.com")
+                .password("Password123")
+                .build();
+        MvcResult started = mockMvc.perform(post("/api/v1/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andReturn();
+        MvcResult registered = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isCreated())
+                .andReturn();
+        String token = objectMapper.readValue(registered.getResponse().getContentAsString(), AuthResponse.class).getToken();
+
+        mockMvc.perform(get("/api/v1/waveguides").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        // Act: on the API port the scrape needs a token
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk());
+        String scrape = mockMvc.perform(get("/actuator/prometheus").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        // Assert
+        assertTrue(scrape.contains("handler=\"AuthController.register\""), "register latency is tagged with its handler");
+        assertTrue(scrape.contains("handler=\"WaveguideController.getWaveguides\""));
+        assertTrue(scrape.contains("http_server_requests_seconds_bucket{"), "request latency is a histogram");
+        assertTrue(scrape.contains("hikaricp_connections_active"));
+        assertTrue(scrape.contains("hibernate_statements_total"));
+        assertTrue(scrape.contains("hibernate_statements_per_request_statements_count"));
+        assertTrue(scrape.contains("rate_limit_rejections_total"));
+        assertTrue(scrape.contains("audit_log_write_seconds_bucket{"));
+        assertTrue(scrape.contains("password_hashing_queue_depth"));
+        assertTrue(scrape.contains("cache=\"mode-results\",result=\"miss\""), "mode cache hits and misses are exported");
+
+        assertTrue(meterRegistry.get("hibernate.statements.per.request").summary().max() > 0,
+                "the listing runs queries on the request thread");
+    }
+}
@@ -0,0 +1,211 @@
+package com.waveguide.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.waveguide.model.dto.request.LayerRequest;
+import com.waveguide.model.dto.request.UserRegistrationRequest;
+import com.waveguide.model.dto.request.WaveguideRequest;
+import com.waveguide.model.dto.response.AuthResponse;
+import com.waveguide.model.dto.response.LayerResponse;
+import com.waveguide.model.dto.response.WaveguideResponse;
+import com.waveguide.model.entity.Waveguide;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class WaveguideConditionalGetIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MappingJackson2CborHttpMessageConverter cborConverter;
+
+    private String token;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        UserRegistrationRequest request = UserRegistrationRequest.builder()
+                .username("etag-" + suffix)
+                .email("etag-" + suffix + "@example.com")
+                .password("Password123")
+                .build();
+        MvcResult started = mockMvc.perform(post("/api/v1/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andReturn();
+        MvcResult registered = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isCreated())
+                .andReturn();
+        token = objectMapper.readValue(registered.getResponse().getContentAsString(), AuthResponse.class).getToken();
+    }
+
+    @Test
+    void getWaveguide_WithCurrentETag_ShouldAnswer304WithoutLoadingLayers() throws Exception {
+        // Arrange
+        UUID id = createWaveguide();
+        String eTag = mockMvc.perform(get("/api/v1/waveguides/{id}", id).header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Act
+        MvcResult unchanged = mockMvc.perform(get("/api/v1/waveguides/{id}", id)
+                        .header("Authorization", "Bearer " + token)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andReturn();
+        long collectionLoads = statistics.getCollectionLoadCount() + statistics.getCollectionStatistics(Waveguide.class.getName() + ".layers").getCacheHitCount();
+
+        LayerRequest layer = LayerRequest.builder().E(0.0).reEps(3.0).imEps(0.0).d(0.5).build();
+        mockMvc.perform(post("/api/v1/waveguides/{id}/layers", id)
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(layer)))
+                .andExpect(status().isCreated());
+        MvcResult changed = mockMvc.perform(get("/api/v1/waveguides/{id}", id)
+                        .header("Authorization", "Bearer " + token)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        // Assert
+        assertNotNull(eTag);
+        assertFalse(eTag.startsWith("W/"), "the ETag is strong");
+        assertEquals(eTag, unchanged.getResponse().getHeader(HttpHeaders.ETAG));
+        assertEquals(0, unchanged.getResponse().getContentLength());
+        assertEquals(0, collectionLoads, "a 304 must not load the layers");
+        assertNotEquals(eTag, changed.getResponse().getHeader(HttpHeaders.ETAG), "a layer change bumps the version");
+        WaveguideResponse body = objectMapper.readValue(changed.getResponse().getContentAsString(), WaveguideResponse.class);
+        assertEquals(3, body.getLayers().size());
+    }
+
+    @Test
+    void getWaveguides_ShouldChangeETagOnAnyChangeToTheUsersWaveguides() throws Exception {
+        // Arrange
+        UUID first = createWaveguide();
+        createWaveguide();
+        String initial = listETag(null, 200);
+
+        // Act
+        String repeated = listETag(initial, 304);
+        mockMvc.perform(put("/api/v1/waveguides/{id}/layers/{layerId}", first, layerIds(first).get(0))
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                LayerRequest.builder().E(0.0).reEps(1.5).imEps(0.0).d(1.0).build())))
+                .andExpect(status().isOk());
+        String afterLayerUpdate = listETag(initial, 200);
+        createWaveguide();
+        String afterCreate = listETag(afterLayerUpdate, 200);
+
+        // Assert
+        assertEquals(initial, repeated);
+        assertNotEquals(initial, afterLayerUpdate, "updating the first (not the most changed) waveguide counts");
+        assertNotEquals(afterLayerUpdate, afterCreate);
+    }
+
+    @Test
+    void getWaveguide_WithCborAccepted_ShouldAnswerColumnarCborUnderItsOwnETag() throws Exception {
+        // Arrange
+        UUID id = createWaveguide();
+        String jsonETag = mockMvc.perform(get("/api/v1/waveguides/{id}", id).header("Authorization", "Bearer " + token))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Act
+        MvcResult cbor = mockMvc.perform(get("/api/v1/waveguides/{id}", id)
+                        .header("Authorization", "Bearer " + token)
+                        .header(HttpHeaders.IF_NONE_MATCH, jsonETag)
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_CBOR_VALUE))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+                .andReturn();
+        String cborETag = cbor.getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/api/v1/waveguides/{id}", id)
+                        .header("Authorization", "Bearer " + token)
+                        .header(HttpHeaders.IF_NONE_MATCH, cborETag)
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isNotModified());
+
+        // Assert
+        assertNotEquals(jsonETag, cborETag);
+        ObjectMapper cborMapper = cborConverter.getObjectMapper();
+        JsonNode layers = cborMapper.readTree(cbor.getResponse().getContentAsByteArray()).get("layers");
+        assertEquals(2 * Double.BYTES, layers.get("reEps").binaryValue().length);
+        WaveguideResponse body = cborMapper.readValue(cbor.getResponse().getContentAsByteArray(), WaveguideResponse.class);
+        assertEquals(id, body.getId());
+        assertEquals(2.25, body.getLayers().get(1).getReEps());
+    }
+
+    private UUID createWaveguide() throws Exception {
+        LayerRequest layer = LayerRequest.builder().E(0.0).reEps(2.25).imEps(0.0).d(1.0).build();
+        WaveguideRequest request = WaveguideRequest.builder()
+                .nEffMin(1.0)
+                .nEffMax(1.5)
+                .layers(List.of(layer, layer))
+                .build();
+        String body = mockMvc.perform(post("/api/v1/waveguides")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(body, WaveguideResponse.class).getId();
+    }
+
+    private List<UUID> layerIds(UUID waveguideId) throws Exception {
+        String body = mockMvc.perform(get("/api/v1/waveguides/{id}", waveguideId).header("Authorization", "Bearer " + token))
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(body, WaveguideResponse.class).getLayers().stream()
+                .map(LayerResponse::getId)
+                .collect(Collectors.toList());
+    }
+
+    private String listETag(String ifNoneMatch, int expectedStatus) throws Exception {
+        var request = get("/api/v1/waveguides").header("Authorization", "Bearer " + token);
+        if (ifNoneMatch != null) {
+            request.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        MvcResult result = mockMvc.perform(request).andReturn();
+        assertEquals(expectedStatus, result.getResponse().getStatus());
+        return result.getResponse().getHeader(HttpHeaders.ETAG);
+    }
+}
@@ -0,0 +1,69 @@
+package com.waveguide.controller;
+
+import com.waveguide.model.dto.response.WaveguideResponse;
+import com.waveguide.model.entity.User;
+import com.waveguide.service.WaveguideService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.accept.ContentNegotiationManager;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class WaveguideControllerTest {
+
+    private final WaveguideService waveguideService = mock(WaveguideService.class);
+    private final UUID waveguideId = UUID.randomUUID();
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(
+                new WaveguideController(waveguideService, null, null, new ContentNegotiationManager())).build();
+    }
+
+    @Test
+    void getWaveguide_WhenEditedBetweenCheckAndRead_ShouldTagTheBodyWithItsOwnVersion() throws Exception {
+        // Arrange: version 1 when checked, version 2 by the time the body is read
+        when(waveguideService.getWaveguideVersion(eq(waveguideId), any(User.class))).thenReturn(1L);
+        when(waveguideService.getWaveguideById(eq(waveguideId), any(User.class)))
+                .thenReturn(WaveguideResponse.builder().id(waveguideId).layers(List.of()).version(2L).build());
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/v1/waveguides/{id}", waveguideId)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        // Assert
+        assertEquals(List.of("\"2\""), result.getResponse().getHeaders(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void getWaveguide_WithCurrentETag_ShouldAnswer304WithoutReadingTheBody() throws Exception {
+        // Arrange
+        when(waveguideService.getWaveguideVersion(eq(waveguideId), any(User.class))).thenReturn(1L);
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/v1/waveguides/{id}", waveguideId)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0\", W/\"1\""))
+                .andExpect(status().isNotModified())
+                .andReturn();
+
+        // Assert
+        assertEquals(List.of("\"1\""), result.getResponse().getHeaders(HttpHeaders.ETAG));
+        verify(waveguideService, never()).getWaveguideById(any(), any());
+    }
+}
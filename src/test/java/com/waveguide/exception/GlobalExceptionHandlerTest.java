@@ -0,0 +1,61 @@
+package com.waveguide.exception;
+
+import com.waveguide.model.entity.Waveguide;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class GlobalExceptionHandlerTest {
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new FailingController())
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void handle_WhenAnEditLosesAnOptimisticLock_ShouldAnswer409() throws Exception {
+        // Act & Assert
+        mockMvc.perform(put("/stale"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.status").value(409))
+                .andExpect(jsonPath("$.message").value("The resource was modified concurrently, reload it and retry"))
+                .andExpect(jsonPath("$.path").value("/stale"));
+    }
+
+    @Test
+    void handle_WhenAnUnexpectedErrorOccurs_ShouldStillAnswer500() throws Exception {
+        // Act & Assert
+        mockMvc.perform(put("/broken"))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.message").value("An unexpected error occurred"));
+    }
+
+    @RestController
+    static class FailingController {
+
+        @PutMapping("/stale")
+        void stale() {
+            // What the transaction manager throws when the version check of a concurrent edit fails on flush
+            throw new ObjectOptimisticLockingFailureException(Waveguide.class, UUID.randomUUID());
+        }
+
+        @PutMapping("/broken")
+        void broken() {
+            throw new IllegalStateException("broken");
+        }
+    }
+}
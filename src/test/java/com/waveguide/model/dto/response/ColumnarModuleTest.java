@@ -0,0 +1,134 @@
+package com.waveguide.model.dto.response;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.waveguide.solver.Polarization;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ColumnarModuleTest {
+
+    private ObjectMapper jsonMapper;
+    private ObjectMapper cborMapper;
+
+    @BeforeEach
+    void setUp() {
+        jsonMapper = Jackson2ObjectMapperBuilder.json().build();
+        cborMapper = Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+        cborMapper.registerModule(new ColumnarModule());
+    }
+
+    @Test
+    void waveguideResponse_ShouldRoundTripWithLayersInColumns() throws Exception {
+        // Arrange
+        WaveguideResponse waveguide = waveguide(500);
+
+        // Act
+        byte[] cbor = cborMapper.writeValueAsBytes(waveguide);
+        byte[] json = jsonMapper.writeValueAsBytes(waveguide);
+        JsonNode layers = cborMapper.readTree(cbor).get("layers");
+        WaveguideResponse decoded = cborMapper.readValue(cbor, WaveguideResponse.class);
+
+        // Assert
+        assertEquals(waveguide, decoded);
+        assertTrue(layers.isObject());
+        assertEquals(500 * Double.BYTES, layers.get("reEps").binaryValue().length);
+        assertEquals(500 * 16, layers.get("id").binaryValue().length);
+        Set<String> columns = new HashSet<>();
+        layers.fieldNames().forEachRemaining(columns::add);
+        Set<String> jsonFields = new HashSet<>();
+        jsonMapper.readTree(json).get("layers").get(0).fieldNames().forEachRemaining(jsonFields::add);
+        assertEquals(jsonFields, columns, "columns carry the JSON property names");
+        assertTrue(cbor.length * 2 < json.length, cbor.length + " bytes of CBOR against " + json.length + " of JSON");
+    }
+
+    @Test
+    void pageResponse_ShouldRoundTripEveryWaveguide() throws Exception {
+        // Arrange
+        PageResponse<WaveguideResponse> page = PageResponse.<WaveguideResponse>builder()
+                .content(List.of(waveguide(3), waveguide(0)))
+                .page(0)
+                .size(20)
+                .totalElements(2)
+                .totalPages(1)
+                .last(true)
+                .build();
+
+        // Act
+        byte[] cbor = cborMapper.writeValueAsBytes(page);
+        PageResponse<WaveguideResponse> decoded = cborMapper.readValue(cbor,
+                cborMapper.getTypeFactory().constructParametricType(PageResponse.class, WaveguideResponse.class));
+
+        // Assert
+        assertEquals(page, decoded);
+    }
+
+    @Test
+    void modeSolveResponse_ShouldRoundTripWithModesInColumns() throws Exception {
+        // Arrange
+        ModeSolveResponse solve = ModeSolveResponse.builder()
+                .waveguideId(UUID.randomUUID())
+                .wavelength(1.55)
+                .polarization(Polarization.TE)
+                .modes(List.of(new ModeResponse(0, 1.48, 1e-6), new ModeResponse(1, 1.46, 2e-6)))
+                .evaluations(420)
+                .elapsedMs(3.5)
+                .build();
+
+        // Act
+        byte[] cbor = cborMapper.writeValueAsBytes(solve);
+        JsonNode modes = cborMapper.readTree(cbor).get("modes");
+        ModeSolveResponse decoded = cborMapper.readValue(cbor, ModeSolveResponse.class);
+
+        // Assert
+        assertEquals(solve, decoded);
+        assertEquals(2 * Double.BYTES, modes.get("neffRe").binaryValue().length);
+    }
+
+    @Test
+    void readValue_WhenColumnLengthsDisagree_ShouldFail() throws Exception {
+        // Arrange
+        WaveguideResponse waveguide = waveguide(2);
+        JsonNode tree = cborMapper.readTree(cborMapper.writeValueAsBytes(waveguide));
+        ((ObjectNode) tree.get("layers")).put("d", new byte[Double.BYTES]);
+        byte[] corrupted = cborMapper.writeValueAsBytes(tree);
+
+        // Act & Assert
+        assertThrows(JsonMappingException.class,
+                () -> cborMapper.readValue(corrupted, WaveguideResponse.class));
+    }
+
+    private static WaveguideResponse waveguide(int layerCount) {
+        List<LayerResponse> layers = new ArrayList<>(layerCount);
+        for (int i = 0; i < layerCount; i++) {
+            layers.add(LayerResponse.builder()
+                    .id(UUID.randomUUID())
+                    .layerIndex(i)
+                    .E(0.01 * i)
+                    .reEps(2.25 + 0.001 * i)
+                    .imEps(i % 2 == 0 ? 0.0 : 1e-4)
+                    .d(0.1 + 0.01 * i)
+                    .build());
+        }
+        return WaveguideResponse.builder()
+                .id(UUID.randomUUID())
+                .nEffMin(1.0)
+                .nEffMax(1.5)
+                .layers(layers)
+                .createdAt(LocalDateTime.of(2024, 5, 1, 12, 30, 15))
+                .build();
+    }
+}
@@ -0,0 +1,111 @@
+package com.waveguide.security;
+
+import com.waveguide.cluster.MemoryStateBackend;
+import com.waveguide.model.entity.User;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JwtTokenProviderTest {
+
+    private static final String SECRET =
+            "testSecretKeyThatIsLongEnoughForHs512SigningAndShouldNeverBeUsedOutsideOfTheTestSuiteAtAll";
+
+    private JwtTokenBlacklist tokenBlacklist;
+    private JwtTokenProvider tokenProvider;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        tokenBlacklist = new JwtTokenBlacklist(new MemoryStateBackend());
+        tokenProvider = new JwtTokenProvider(tokenBlacklist);
+        ReflectionTestUtils.setField(tokenProvider, "secretKey", SECRET);
+        ReflectionTestUtils.setField(tokenProvider, "expirationMs", 3_600_000L);
+        ReflectionTestUtils.setField(tokenProvider, "issuer", "test");
+        ReflectionTestUtils.setField(tokenProvider, "claimsCacheMaximumSize", 100L);
+        ReflectionTestUtils.setField(tokenProvider, "claimsCacheTtl", Duration.ofMinutes(5));
+        tokenProvider.init();
+
+        user = User.builder()
+                .id(UUID.randomUUID())
+                .username("testuser")
+                .email("test@example.com")
+                .build();
+    }
+
+    @Test
+    void authenticate_WithValidToken_ShouldBuildPrincipalFromClaims() {
+        // Arrange
+        String token = tokenProvider.generateToken(user);
+
+        // Act
+        Authentication authentication = tokenProvider.authenticate(token);
+
+        // Assert
+        assertNotNull(authentication);
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
+        assertEquals(user.getId(), principal.getId());
+        assertEquals("testuser", principal.getUsername());
+        assertEquals("test@example.com", principal.getEmail());
+    }
+
+    @Test
+    void authenticate_RepeatedToken_ShouldReuseVerifiedClaims() {
+        // Arrange
+        String token = tokenProvider.generateToken(user);
+
+        // Act
+        Claims first = tokenProvider.parseClaims(token);
+        Authentication second = tokenProvider.authenticate(token);
+
+        // Assert
+        assertSame(first, tokenProvider.parseClaims(token));
+        assertNotNull(second);
+        assertEquals(1, tokenProvider.cachedTokenCount());
+    }
+
+    @Test
+    void authenticate_WithTamperedToken_ShouldReturnNull() {
+        // Arrange
+        String token = tokenProvider.generateToken(user);
+        String tampered = token.substring(0, token.length() - 4) + (token.endsWith("AAAA") ? "BBBB" : "AAAA");
+
+        // Act
+        Authentication authentication = tokenProvider.authenticate(tampered);
+
+        // Assert
+        assertNull(authentication);
+        assertEquals(0, tokenProvider.cachedTokenCount());
+    }
+
+    @Test
+    void authenticate_AfterBlacklisting_ShouldReturnNullEvenIfCached() {
+        // Arrange
+        String token = tokenProvider.generateToken(user);
+        assertNotNull(tokenProvider.authenticate(token));
+
+        // Act
+        tokenProvider.blacklistToken(token);
+
+        // Assert
+        assertNull(tokenProvider.authenticate(token));
+        assertTrue(tokenBlacklist.isBlacklisted(token));
+    }
+
+    @Test
+    void authenticate_WithExpiredToken_ShouldReturnNull() {
+        // Arrange
+        ReflectionTestUtils.setField(tokenProvider, "expirationMs", -1_000L);
+        String token = tokenProvider.generateToken(user);
+
+        // Act & Assert
+        assertNull(tokenProvider.authenticate(token));
+    }
+}
@@ -0,0 +1,69 @@
+package com.waveguide.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PasswordHashingServiceTest {
+
+    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+    private final PasswordHashingService passwordHashingService = new PasswordHashingService(1, 1);
+
+    @AfterEach
+    void tearDown() {
+        passwordHashingService.shutdown();
+    }
+
+    @Test
+    void submit_ShouldHashOffTheCallingThread() throws Exception {
+        // Arrange
+        Thread caller = Thread.currentThread();
+
+        // Act
+        CompletableFuture<Thread> worker = passwordHashingService.submit(Thread::currentThread);
+        String hash = passwordHashingService.submit(() -> passwordEncoder.encode("Password123")).get();
+
+        // Assert
+        assertNotSame(caller, worker.get());
+        assertTrue(worker.get().getName().startsWith("password-hashing-"));
+        assertTrue(passwordEncoder.matches("Password123", hash));
+    }
+
+    @Test
+    void submit_WhenPoolAndQueueAreFull_ShouldFailFast() throws Exception {
+        // Arrange: one busy worker and one queued task fill a pool of one with a queue of one
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Boolean> busy = passwordHashingService.submit(() -> awaitQuietly(release));
+        CompletableFuture<Boolean> queued = passwordHashingService.submit(() -> true);
+
+        // Act
+        CompletableFuture<String> rejected = passwordHashingService.submit(() -> passwordEncoder.encode("Password123"));
+
+        // Assert
+        ExecutionException ex = assertThrows(ExecutionException.class, rejected::get);
+        assertInstanceOf(RejectedExecutionException.class, ex.getCause());
+        assertEquals(1, passwordHashingService.getRejectedCount());
+        assertEquals(1, passwordHashingService.getQueueDepth());
+
+        release.countDown();
+        assertTrue(busy.get());
+        assertTrue(queued.get());
+    }
+
+    private static boolean awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.waveguide.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RevokedDigestSetTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+    private static final long MINUTE = RevokedDigestSet.TICK_MILLIS;
+
+    @Test
+    void contains_AfterManyAdds_ShouldFindEveryDigestAndRejectOthers() {
+        // Arrange
+        RevokedDigestSet set = new RevokedDigestSet(NOW);
+        Random random = new Random(42);
+        long[] digests = new long[2 * 10_000];
+        for (int i = 0; i < digests.length; i++) {
+            digests[i] = random.nextLong();
+        }
+
+        // Act
+        for (int i = 0; i < digests.length; i += 2) {
+            set.add(digests[i], digests[i + 1], NOW + 60 * MINUTE);
+        }
+
+        // Assert
+        assertEquals(10_000, set.size());
+        for (int i = 0; i < digests.length; i += 2) {
+            assertTrue(set.contains(digests[i], digests[i + 1]));
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertFalse(set.contains(random.nextLong(), random.nextLong()));
+        }
+    }
+
+    @Test
+    void advance_ShouldDropOnlyExpiredDigests() {
+        // Arrange
+        RevokedDigestSet set = new RevokedDigestSet(NOW);
+        Random random = new Random(7);
+        long[] digests = new long[2 * 5_000];
+        for (int i = 0; i < digests.length; i++) {
+            digests[i] = random.nextLong();
+        }
+        // Even entries expire within 10 minutes, odd ones after two days (beyond one turn of the wheel)
+        for (int i = 0; i < 5_000; i++) {
+            long expiresAt = i % 2 == 0 ? NOW + (1 + i % 10) * MINUTE : NOW + 2 * 24 * 60 * MINUTE + i;
+            set.add(digests[2 * i], digests[2 * i + 1], expiresAt);
+        }
+
+        // Act
+        int removedEarly = set.advance(NOW + 5 * MINUTE);
+        int removed = set.advance(NOW + 10 * MINUTE);
+        int removedNextDay = set.advance(NOW + 36 * 60 * MINUTE);
+        int removedLate = set.advance(NOW + 3 * 24 * 60 * MINUTE);
+
+        // Assert
+        assertEquals(1_000, removedEarly);
+        assertEquals(1_500, removed);
+        assertEquals(0, removedNextDay);
+        assertEquals(2_500, removedLate);
+        assertEquals(0, set.size());
+        for (int i = 0; i < 5_000; i++) {
+            assertFalse(set.contains(digests[2 * i], digests[2 * i + 1]));
+        }
+    }
+
+    @Test
+    void advance_AfterRemovals_ShouldKeepRemainingDigestsReachable() {
+        // Arrange: crowd a small table so removals have to shift probe chains
+        RevokedDigestSet set = new RevokedDigestSet(NOW);
+        for (long i = 1; i <= 32; i++) {
+            set.add(i, i * 64, NOW + (1 + i % 2) * MINUTE);
+        }
+
+        // Act
+        set.advance(NOW + 2 * MINUTE);
+
+        // Assert
+        assertEquals(16, set.size());
+        for (long i = 1; i <= 32; i++) {
+            assertEquals(i % 2 == 1, set.contains(i, i * 64), "digest " + i);
+        }
+    }
+
+    @Test
+    void add_WhenAlreadyExpired_ShouldIgnoreDigest() {
+        // Arrange
+        RevokedDigestSet set = new RevokedDigestSet(NOW);
+
+        // Act
+        set.add(1L, 2L, NOW - MINUTE);
+
+        // Assert
+        assertEquals(0, set.size());
+        assertFalse(set.contains(1L, 2L));
+    }
+
+    @Test
+    void memoryBytes_ShouldGrowWithEntries() {
+        // Arrange
+        RevokedDigestSet set = new RevokedDigestSet(NOW);
+        long empty = set.memoryBytes();
+        Random random = new Random(3);
+
+        // Act
+        for (int i = 0; i < 100_000; i++) {
+            set.add(random.nextLong(), random.nextLong(), NOW + 60 * MINUTE);
+        }
+
+        // Assert: table, Bloom filter and wheel entry for each digest, within a small constant
+        long full = set.memoryBytes();
+        assertTrue(empty < 64 * 1024, "empty set uses " + empty + " bytes");
+        assertTrue(full > 100_000L * 40, "full set reports " + full + " bytes");
+        assertTrue(full < 100_000L * 100, "full set uses " + full + " bytes");
+    }
+}
@@ -0,0 +1,117 @@
+package com.waveguide.service;
+
+import com.waveguide.model.dto.request.LayerRequest;
+import com.waveguide.model.dto.response.LayerResponse;
+import com.waveguide.model.dto.response.WaveguideResponse;
+import com.waveguide.model.entity.Layer;
+import com.waveguide.model.entity.User;
+import com.waveguide.model.entity.Waveguide;
+import com.waveguide.repository.UserRepository;
+import com.waveguide.repository.WaveguideRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Not transactional: the second-level cache is only filled and invalidated when a
+ * transaction commits.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class EntityCacheIntegrationTest {
+
+    @Autowired
+    private WaveguideService waveguideService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WaveguideRepository waveguideRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        owner = userRepository.save(User.builder()
+                .username("cache-" + UUID.randomUUID())
+                .email(UUID.randomUUID() + "@example.com")
+                .passwordHash("encodedPassword")
+                .build());
+    }
+
+    @Test
+    void getWaveguideById_ShouldReadFromCacheAndSeeEveryLayerChange() {
+        // Arrange
+        Waveguide waveguide = Waveguide.builder().user(owner).nEffMin(1.0).nEffMax(2.0).build();
+        waveguide.addLayer(Layer.builder().E(0.0).reEps(1.0).imEps(0.0).d(1.0).build());
+        waveguide.addLayer(Layer.builder().E(0.0).reEps(2.0).imEps(0.0).d(1.0).build());
+        UUID waveguideId = waveguideRepository.save(waveguide).getId();
+        waveguideService.getWaveguideById(waveguideId, owner);
+
+        // Act
+        statistics.clear();
+        WaveguideResponse cached = waveguideService.getWaveguideById(waveguideId, owner);
+        long statements = statistics.getPrepareStatementCount();
+
+        LayerResponse added = waveguideService.addLayer(waveguideId, layer(3.0), owner);
+        WaveguideResponse afterAdd = waveguideService.getWaveguideById(waveguideId, owner);
+        waveguideService.updateLayer(waveguideId, added.getId(), layer(4.0), owner);
+        WaveguideResponse afterUpdate = waveguideService.getWaveguideById(waveguideId, owner);
+        waveguideService.deleteLayer(waveguideId, cached.getLayers().get(0).getId(), owner);
+        WaveguideResponse afterDelete = waveguideService.getWaveguideById(waveguideId, owner);
+
+        // Assert
+        assertEquals(0, statements, "a repeated read must not reach the database");
+        assertEquals(2, cached.getLayers().size());
+        assertEquals(3, afterAdd.getLayers().size());
+        assertEquals(4.0, afterUpdate.getLayers().get(2).getReEps());
+        assertEquals(List.of(2.0, 4.0),
+                afterDelete.getLayers().stream().map(LayerResponse::getReEps).collect(Collectors.toList()));
+    }
+
+    @Test
+    void userLookups_ShouldUseQueryCacheAndBeInvalidatedByWrites() {
+        // Arrange
+        String oldEmail = owner.getEmail();
+        String newEmail = UUID.randomUUID() + "@example.com";
+        userRepository.findByUsername(owner.getUsername());
+        userRepository.findByEmail(oldEmail);
+
+        // Act
+        statistics.clear();
+        User cached = userRepository.findByUsername(owner.getUsername()).orElseThrow();
+        long statements = statistics.getPrepareStatementCount();
+        long queryCacheHits = statistics.getQueryCacheHitCount();
+
+        cached.setEmail(newEmail);
+        userRepository.save(cached);
+
+        // Assert
+        assertEquals(0, statements, "a repeated lookup must not reach the database");
+        assertEquals(1, queryCacheHits);
+        assertEquals(newEmail, userRepository.findByUsername(owner.getUsername()).orElseThrow().getEmail());
+        assertTrue(userRepository.findByEmail(newEmail).isPresent());
+        assertTrue(userRepository.findByEmail(oldEmail).isEmpty());
+    }
+
+    private static LayerRequest layer(double reEps) {
+        return LayerRequest.builder().E(0.0).reEps(reEps).imEps(0.0).d(1.0).build();
+    }
+}
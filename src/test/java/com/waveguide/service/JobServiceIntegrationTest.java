@@ -0,0 +1,191 @@
+package com.waveguide.service;
+
+import com.waveguide.exception.JobStateException;
+import com.waveguide.job.JobPriority;
+import com.waveguide.job.JobQueue;
+import com.waveguide.job.JobStatus;
+import com.waveguide.job.JobType;
+import com.waveguide.job.JobWorkerPool;
+import com.waveguide.model.dto.request.ModeSolveRequest;
+import com.waveguide.model.dto.request.SweepRequest;
+import com.waveguide.model.dto.response.JobResponse;
+import com.waveguide.model.entity.Layer;
+import com.waveguide.model.entity.User;
+import com.waveguide.model.entity.Waveguide;
+import com.waveguide.repository.UserRepository;
+import com.waveguide.repository.WaveguideRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs against its own database, so job pools of other cached test contexts cannot claim its
+ * jobs, and polls only when the test asks it to.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:jobs;DB_CLOSE_DELAY=-1",
+        "app.jobs.poll-interval=PT1H",
+        "app.jobs.workers=2",
+        "app.jobs.high-priority-workers=1",
+        "app.jobs.max-running-per-user=1"
+})
+@ActiveProfiles("test")
+public class JobServiceIntegrationTest {
+
+    @Autowired
+    private JobService jobService;
+
+    @Autowired
+    private JobQueue jobQueue;
+
+    @Autowired
+    private JobWorkerPool jobWorkerPool;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WaveguideRepository waveguideRepository;
+
+    private User user() {
+        return userRepository.save(User.builder()
+                .username("jobs-" + UUID.randomUUID())
+                .email(UUID.randomUUID() + "@example.com")
+                .passwordHash("encodedPassword")
+                .build());
+    }
+
+    private UUID slab(User owner) {
+        Waveguide waveguide = Waveguide.builder().user(owner).nEffMin(1.0).nEffMax(1.5).build();
+        waveguide.addLayer(Layer.builder().E(0.0).reEps(1.0).imEps(0.0).d(1.0).build());
+        waveguide.addLayer(Layer.builder().E(0.0).reEps(2.25).imEps(0.0).d(1.0).build());
+        waveguide.addLayer(Layer.builder().E(0.0).reEps(1.0).imEps(0.0).d(1.0).build());
+        return waveguideRepository.save(waveguide).getId();
+    }
+
+    private static SweepRequest sweep(int points) {
+        return SweepRequest.builder()
+                .parameter("layers[1].d")
+                .start(0.5)
+                .end(2.0)
+                .points(points)
+                .wavelength(1.0)
+                .samples(1024)
+                .build();
+    }
+
+    private JobResponse awaitFinished(UUID jobId, User owner) throws InterruptedException {
+        for (int i = 0; i < 600; i++) {
+            JobResponse job = jobService.getJob(jobId, owner);
+            if (job.getStatus().isFinished()) {
+                return job;
+            }
+            Thread.sleep(50);
+        }
+        fail("job " + jobId + " did not finish");
+        return null;
+    }
+
+    @Test
+    void submitSweep_ShouldRunOnWorkerAndKeepNdjsonResult() throws Exception {
+        // Arrange
+        User owner = user();
+        UUID waveguideId = slab(owner);
+
+        // Act
+        JobResponse submitted = jobService.submitSweep(waveguideId, sweep(64), JobPriority.NORMAL, owner);
+        jobWorkerPool.poll();
+        JobResponse finished = awaitFinished(submitted.getId(), owner);
+        JobService.JobResult result = jobService.getResult(submitted.getId(), owner);
+
+        // Assert
+        assertEquals(JobStatus.QUEUED, submitted.getStatus());
+        assertEquals(JobStatus.SUCCEEDED, finished.getStatus());
+        assertEquals(64, finished.getTotal());
+        assertEquals(64, finished.getCompleted());
+        assertEquals(JobType.SWEEP, result.getType());
+        assertEquals(64, result.getBody().lines().count());
+        assertTrue(result.getBody().startsWith("{\"index\":0,"));
+    }
+
+    @Test
+    void claim_ShouldHonourPriorityLanesAndPerUserQuota() throws Exception {
+        // Arrange
+        User batchUser = user();
+        User otherUser = user();
+        User interactiveUser = user();
+        ModeSolveRequest solve = ModeSolveRequest.builder().wavelength(1.0).build();
+        UUID firstBatch = jobService.submitSolve(slab(batchUser), solve, JobPriority.NORMAL, batchUser).getId();
+        UUID secondBatch = jobService.submitSolve(slab(batchUser), solve, JobPriority.NORMAL, batchUser).getId();
+        UUID low = jobService.submitSolve(slab(otherUser), solve, JobPriority.LOW, otherUser).getId();
+        UUID high = jobService.submitSolve(slab(interactiveUser), solve, JobPriority.HIGH, interactiveUser).getId();
+
+        // Act: three free workers, one of them open to jobs below HIGH
+        Set<UUID> firstClaim = ids(jobQueue.claim("node-a", 3, 1, 1));
+        // ...then another instance with room for anything
+        Set<UUID> secondClaim = ids(jobQueue.claim("node-b", 3, 3, 1));
+
+        // Assert
+        assertEquals(Set.of(high, firstBatch), firstClaim);
+        assertEquals(Set.of(low), secondClaim, "the batch user is at their running quota");
+        assertEquals(JobStatus.QUEUED, jobService.getJob(secondBatch, batchUser).getStatus());
+        jobService.cancelJob(secondBatch, batchUser);
+    }
+
+    @Test
+    void cancelJob_ShouldCancelQueuedJobAndStopRunningSweep() throws Exception {
+        // Arrange
+        User owner = user();
+        UUID waveguideId = slab(owner);
+        JobResponse running = jobService.submitSweep(waveguideId, sweep(10000), JobPriority.NORMAL, owner);
+        jobWorkerPool.poll();
+        JobResponse queued = jobService.submitSweep(waveguideId, sweep(10), JobPriority.NORMAL, owner);
+
+        // Act
+        JobResponse cancelledWhileQueued = jobService.cancelJob(queued.getId(), owner);
+        jobService.cancelJob(running.getId(), owner);
+        jobWorkerPool.heartbeat();
+        JobResponse stopped = awaitFinished(running.getId(), owner);
+
+        // Assert
+        assertEquals(JobStatus.CANCELLED, cancelledWhileQueued.getStatus());
+        assertEquals(JobStatus.CANCELLED, stopped.getStatus());
+        assertTrue(stopped.getCompleted() < stopped.getTotal());
+        assertThrows(JobStateException.class, () -> jobService.getResult(running.getId(), owner));
+        assertThrows(JobStateException.class, () -> jobService.cancelJob(running.getId(), owner));
+    }
+
+    @Test
+    void submit_ShouldRefuseOversizedSweepsAndLongJobsAtHighPriority() throws Exception {
+        // Arrange
+        User owner = user();
+        UUID waveguideId = slab(owner);
+        ModeSolveRequest solve = ModeSolveRequest.builder().wavelength(1.0).build();
+
+        // Act
+        JobResponse highSolve = jobService.submitSolve(waveguideId, solve, JobPriority.HIGH, owner);
+        JobResponse highShortSweep = jobService.submitSweep(waveguideId, sweep(1000), JobPriority.HIGH, owner);
+
+        // Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> jobService.submitSweep(waveguideId, sweep(1001), JobPriority.HIGH, owner));
+        assertThrows(IllegalArgumentException.class,
+                () -> jobService.submitSweep(waveguideId, sweep(10001), JobPriority.LOW, owner));
+        assertEquals(JobPriority.HIGH, highSolve.getPriority());
+        assertEquals(JobPriority.HIGH, highShortSweep.getPriority());
+        jobService.cancelJob(highSolve.getId(), owner);
+        jobService.cancelJob(highShortSweep.getId(), owner);
+    }
+
+    private static Set<UUID> ids(List<JobQueue.ClaimedJob> jobs) {
+        return jobs.stream().map(JobQueue.ClaimedJob::getId).collect(Collectors.toSet());
+    }
+}
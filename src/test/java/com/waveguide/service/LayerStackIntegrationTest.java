@@ -0,0 +1,144 @@
+package com.waveguide.service;
+
+import com.waveguide.exception.ResourceNotFoundException;
+import com.waveguide.model.dto.request.LayerStackEntryRequest;
+import com.waveguide.model.dto.request.LayerStackRequest;
+import com.waveguide.model.dto.response.LayerResponse;
+import com.waveguide.model.dto.response.WaveguideResponse;
+import com.waveguide.model.entity.Layer;
+import com.waveguide.model.entity.User;
+import com.waveguide.model.entity.Waveguide;
+import com.waveguide.repository.UserRepository;
+import com.waveguide.repository.WaveguideRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class LayerStackIntegrationTest {
+
+    private static final int LAYERS = 6;
+
+    @Autowired
+    private WaveguideService waveguideService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WaveguideRepository waveguideRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User owner;
+    private UUID waveguideId;
+    private List<UUID> layerIds;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(User.builder()
+                .username("stack-" + UUID.randomUUID())
+                .email(UUID.randomUUID() + "@example.com")
+                .passwordHash("encodedPassword")
+                .build());
+        Waveguide waveguide = Waveguide.builder().user(owner).nEffMin(1.0).nEffMax(2.0).build();
+        for (int i = 0; i < LAYERS; i++) {
+            waveguide.addLayer(Layer.builder().E(0.0).reEps(1.0 + i).imEps(0.0).d(1.0).build());
+        }
+        waveguide = waveguideRepository.save(waveguide);
+        entityManager.flush();
+        entityManager.clear();
+
+        waveguideId = waveguide.getId();
+        layerIds = waveguide.getLayers().stream().map(Layer::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    void replaceLayers_ShouldReorderKeepAddAndDropInOneCall() {
+        // Arrange: reverse the stack, drop the first two layers and insert a new one in the middle
+        List<LayerStackEntryRequest> entries = new ArrayList<>();
+        for (int i = LAYERS - 1; i >= 2; i--) {
+            entries.add(entry(layerIds.get(i), 10.0 + i));
+            if (i == 4) {
+                entries.add(entry(null, 99.0));
+            }
+        }
+
+        // Act
+        List<LayerResponse> response = waveguideService.replaceLayers(
+                waveguideId, LayerStackRequest.builder().layers(entries).build(), owner);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Assert
+        WaveguideResponse stored = waveguideService.getWaveguideById(waveguideId, owner);
+        assertEquals(5, response.size());
+        assertEquals(5, stored.getLayers().size());
+        List<UUID> expectedIds = List.of(layerIds.get(5), layerIds.get(4), response.get(2).getId(), layerIds.get(3), layerIds.get(2));
+        for (int i = 0; i < 5; i++) {
+            LayerResponse layer = stored.getLayers().get(i);
+            assertEquals(i, layer.getLayerIndex());
+            assertEquals(expectedIds.get(i), layer.getId());
+            assertEquals(response.get(i).getReEps(), layer.getReEps());
+        }
+        assertNotNull(response.get(2).getId());
+        assertEquals(99.0, stored.getLayers().get(2).getReEps());
+    }
+
+    @Test
+    void replaceLayers_WithForeignLayerId_ShouldThrowException() {
+        // Arrange
+        LayerStackRequest request = LayerStackRequest.builder()
+                .layers(List.of(entry(UUID.randomUUID(), 1.0)))
+                .build();
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> waveguideService.replaceLayers(waveguideId, request, owner));
+    }
+
+    @Test
+    void replaceLayers_WithDuplicateLayerId_ShouldThrowException() {
+        // Arrange
+        LayerStackRequest request = LayerStackRequest.builder()
+                .layers(List.of(entry(layerIds.get(0), 1.0), entry(layerIds.get(0), 2.0)))
+                .build();
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> waveguideService.replaceLayers(waveguideId, request, owner));
+    }
+
+    @Test
+    void deleteLayer_FromTheMiddle_ShouldRenumberRemainingLayers() {
+        // Act
+        waveguideService.deleteLayer(waveguideId, layerIds.get(1), owner);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Assert
+        List<LayerResponse> layers = waveguideService.getWaveguideById(waveguideId, owner).getLayers();
+        assertEquals(LAYERS - 1, layers.size());
+        for (int i = 0; i < layers.size(); i++) {
+            assertEquals(i, layers.get(i).getLayerIndex());
+            assertNotEquals(layerIds.get(1), layers.get(i).getId());
+        }
+        assertEquals(layerIds.get(2), layers.get(1).getId());
+    }
+
+    private static LayerStackEntryRequest entry(UUID id, double reEps) {
+        return LayerStackEntryRequest.builder().id(id).E(0.0).reEps(reEps).imEps(0.0).d(1.0).build();
+    }
+}
@@ -0,0 +1,143 @@
+package com.waveguide.service;
+
+import com.waveguide.model.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LogServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private LogService logService;
+
+    private final User testUser = User.builder()
+            .id(UUID.randomUUID())
+            .username("testuser")
+            .email("test@example.com")
+            .build();
+
+    private LogService logService(int capacity, LogService.OverflowPolicy policy) {
+        // Long interval so only explicit flushes write during a test
+        logService = new LogService(jdbcTemplate, new SimpleMeterRegistry(), capacity, 100, Duration.ofHours(1), policy);
+        return logService;
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (logService != null) {
+            logService.shutdown();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_WithQueuedEntries_ShouldWriteOneBatch() {
+        // Arrange
+        LogService service = logService(100, LogService.OverflowPolicy.DROP_NEWEST);
+        service.logUserAction(testUser, "WAVEGUIDE_CREATE", "a");
+        service.logUserAction(testUser, "WAVEGUIDE_UPDATE", "b");
+        service.logUserAction(testUser, "WAVEGUIDE_DELETE", "c");
+
+        // Act
+        service.flush();
+
+        // Assert
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(),
+                argThat((Collection<LogService.AuditEntry> batch) -> batch.size() == 3),
+                eq(3), any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(0, service.getQueueSize());
+        assertEquals(3, service.getWrittenCount());
+    }
+
+    @Test
+    void logUserAction_WhenQueueIsFull_ShouldDropNewestEntry() {
+        // Arrange
+        LogService service = logService(2, LogService.OverflowPolicy.DROP_NEWEST);
+
+        // Act
+        service.logUserAction(testUser, "LOGIN", "1");
+        service.logUserAction(testUser, "LOGIN", "2");
+        service.logUserAction(testUser, "LOGIN", "3");
+
+        // Assert
+        assertEquals(2, service.getQueueSize());
+        assertEquals(1, service.getDroppedCount());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void logUserAction_WhenQueueIsFullAndCallerRuns_ShouldWriteOnCallingThread() {
+        // Arrange
+        LogService service = logService(2, LogService.OverflowPolicy.CALLER_RUNS);
+
+        // Act
+        service.logUserAction(testUser, "LOGIN", "1");
+        service.logUserAction(testUser, "LOGIN", "2");
+        service.logUserAction(testUser, "LOGIN", "3");
+
+        // Assert
+        verify(jdbcTemplate).batchUpdate(anyString(), anyCollection(), eq(2), any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(1, service.getQueueSize());
+        assertEquals(0, service.getDroppedCount());
+    }
+
+    @Test
+    void logUserAction_InsideTransaction_ShouldQueueOnlyAfterCommit() {
+        // Arrange
+        LogService service = logService(100, LogService.OverflowPolicy.DROP_NEWEST);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            service.logUserAction(testUser, "WAVEGUIDE_CREATE", "pending");
+            int beforeCommit = service.getQueueSize();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+            // Assert
+            assertEquals(0, beforeCommit);
+            assertEquals(1, service.getQueueSize());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_WhenBatchFails_ShouldRetryRowByRow() {
+        // Arrange
+        LogService service = logService(100, LogService.OverflowPolicy.DROP_NEWEST);
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new DataIntegrityViolationException("fk"))
+                .thenReturn(new int[][]{{1}})
+                .thenThrow(new DataIntegrityViolationException("fk"));
+        service.logUserAction(testUser, "LOGIN", "1");
+        service.logUserAction(testUser, "LOGIN", "2");
+
+        // Act
+        service.flush();
+
+        // Assert
+        assertEquals(1, service.getWrittenCount());
+        assertEquals(1, service.getFailedCount());
+        assertEquals(0, service.getQueueSize());
+    }
+}
@@ -10,7 +10,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -22,9 +22,6 @@ public class UserServiceTest {
     @Mock
     private UserRepository userRepository;
     
-    @Mock
-    private PasswordEncoder passwordEncoder;
-    
     @Mock
     private LogService logService;
     
@@ -40,26 +37,21 @@ public class UserServiceTest {
                 .email("test@example.com")
                 .password("Password123")
                 .build();
-        
-        when(passwordEncoder.encode(any())).thenReturn("encodedPassword");
     }
     
     @Test
-    void registerUser_WithValidRequest_ShouldReturnUser() {
+    void registerUser_WithValidRequest_ShouldSaveTheGivenHashWithoutCheckingAgain() {
         // Arrange
-        when(userRepository.existsByUsername(validRequest.getUsername())).thenReturn(false);
-        when(userRepository.existsByEmail(validRequest.getEmail())).thenReturn(false);
-        
         User savedUser = User.builder()
                 .username(validRequest.getUsername())
                 .email(validRequest.getEmail())
                 .passwordHash("encodedPassword")
                 .build();
         
-        when(userRepository.save(any(User.class))).thenReturn(savedUser);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(savedUser);
         
         // Act
-        User result = userService.registerUser(validRequest);
+        User result = userService.registerUser(validRequest, "encodedPassword");
         
         // Assert
         assertNotNull(result);
@@ -67,42 +59,53 @@ public class UserServiceTest {
         assertEquals(validRequest.getEmail(), result.getEmail());
         assertEquals("encodedPassword", result.getPasswordHash());
         
-        verify(userRepository).existsByUsername(validRequest.getUsername());
-        verify(userRepository).existsByEmail(validRequest.getEmail());
-        verify(userRepository).save(any(User.class));
-        verify(passwordEncoder).encode(validRequest.getPassword());
+        verify(userRepository, never()).existsByUsername(anyString());
+        verify(userRepository, never()).existsByEmail(anyString());
+        verify(userRepository).saveAndFlush(any(User.class));
         verify(logService).logUserAction(any(User.class), eq("REGISTRATION"), anyString());
     }
     
     @Test
-    void registerUser_WithExistingUsername_ShouldThrowException() {
+    void registerUser_WhenTakenSinceTheCheck_ShouldThrowException() {
+        // Arrange
+        when(userRepository.saveAndFlush(any(User.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+        
+        // Act & Assert
+        assertThrows(UserAlreadyExistsException.class, () -> {
+            userService.registerUser(validRequest, "encodedPassword");
+        });
+        
+        verify(logService, never()).logUserAction(any(User.class), anyString(), anyString());
+    }
+    
+    @Test
+    void ensureAvailable_WithExistingUsername_ShouldThrowException() {
         // Arrange
         when(userRepository.existsByUsername(validRequest.getUsername())).thenReturn(true);
         
         // Act & Assert
         assertThrows(UserAlreadyExistsException.class, () -> {
-            userService.registerUser(validRequest);
+            userService.ensureAvailable(validRequest);
         });
         
         verify(userRepository).existsByUsername(validRequest.getUsername());
         verify(userRepository, never()).existsByEmail(validRequest.getEmail());
-        verify(userRepository, never()).save(any(User.class));
     }
     
     @Test
-    void registerUser_WithExistingEmail_ShouldThrowException() {
+    void ensureAvailable_WithExistingEmail_ShouldThrowException() {
         // Arrange
         when(userRepository.existsByUsername(validRequest.getUsername())).thenReturn(false);
         when(userRepository.existsByEmail(validRequest.getEmail())).thenReturn(true);
         
         // Act & Assert
         assertThrows(UserAlreadyExistsException.class, () -> {
-            userService.registerUser(validRequest);
+            userService.ensureAvailable(validRequest);
         });
         
         verify(userRepository).existsByUsername(validRequest.getUsername());
         verify(userRepository).existsByEmail(validRequest.getEmail());
-        verify(userRepository, never()).save(any(User.class));
     }
     
     @Test
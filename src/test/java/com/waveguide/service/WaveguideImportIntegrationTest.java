@@ -0,0 +1,107 @@
+package com.waveguide.service;
+
+import com.waveguide.model.dto.response.ImportResponse;
+import com.waveguide.model.dto.response.WaveguideResponse;
+import com.waveguide.model.entity.User;
+import com.waveguide.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "app.import.chunk-size=3")
+@ActiveProfiles("test")
+public class WaveguideImportIntegrationTest {
+
+    private static final String VALID =
+            "{\"neffMin\":1.0,\"neffMax\":1.5,\"layers\":["
+            + "{\"e\":0.0,\"reEps\":1.0,\"imEps\":0.0,\"d\":1.0},"
+            + "{\"e\":0.0,\"reEps\":2.25,\"imEps\":0.0,\"d\":0.5},"
+            + "{\"e\":0.0,\"reEps\":1.0,\"imEps\":0.0,\"d\":1.0}]}";
+
+    @Autowired
+    private WaveguideImportService waveguideImportService;
+
+    @Autowired
+    private WaveguideService waveguideService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(User.builder()
+                .username("import-" + UUID.randomUUID())
+                .email(UUID.randomUUID() + "@example.com")
+                .passwordHash("encodedPassword")
+                .build());
+    }
+
+    @Test
+    void importWaveguides_WithNdjson_ShouldStoreValidRecordsAndReportInvalidOnes() throws Exception {
+        // Arrange: 7 valid records spread over several chunks, 3 invalid ones in between
+        List<String> lines = List.of(
+                VALID, VALID,
+                "{\"neffMin\":1.5,\"neffMax\":1.0}",
+                VALID, VALID,
+                "{\"neffMin\":1.0,\"neffMax\":1.5,\"layers\":[{\"e\":0.0,\"reEps\":1.0,\"imEps\":0.0}]}",
+                VALID,
+                "{\"neffMin\":\"high\",\"neffMax\":1.5}",
+                VALID, VALID
+        );
+
+        // Act
+        ImportResponse response = waveguideImportService.importWaveguides(stream(String.join("\n", lines)), owner);
+
+        // Assert
+        assertEquals(10, response.getReceived());
+        assertEquals(7, response.getImported());
+        assertEquals(3, response.getRejected());
+        assertFalse(response.isAborted());
+        assertEquals(List.of(2L, 5L, 7L), response.getErrors().stream()
+                .map(ImportResponse.ImportError::getIndex)
+                .collect(Collectors.toList()));
+        assertTrue(response.getStacksPerSecond() > 0);
+
+        Page<WaveguideResponse> stored = waveguideService.getWaveguides(owner, PageRequest.of(0, 20, Sort.by("createdAt")));
+        assertEquals(7, stored.getTotalElements());
+        for (WaveguideResponse waveguide : stored.getContent()) {
+            assertEquals(3, waveguide.getLayers().size());
+            assertEquals(2.25, waveguide.getLayers().get(1).getReEps());
+        }
+    }
+
+    @Test
+    void importWaveguides_WithTruncatedArray_ShouldKeepRecordsBeforeTheError() throws Exception {
+        // Arrange
+        String body = "[" + VALID + "," + VALID + "," + VALID + "," + VALID + ",{\"neffMin\":1.0,";
+
+        // Act
+        ImportResponse response = waveguideImportService.importWaveguides(stream(body), owner);
+
+        // Assert
+        assertTrue(response.isAborted());
+        assertEquals(4, response.getImported());
+        assertEquals(1, response.getRejected());
+        assertEquals(4, response.getErrors().get(0).getIndex());
+        assertEquals(4, waveguideService.getWaveguides(owner, PageRequest.of(0, 20)).getTotalElements());
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
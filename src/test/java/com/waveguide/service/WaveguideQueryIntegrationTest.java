@@ -0,0 +1,189 @@
+package com.waveguide.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.waveguide.model.dto.response.CursorPageResponse;
+import com.waveguide.model.dto.response.WaveguideResponse;
+import com.waveguide.model.entity.Layer;
+import com.waveguide.model.entity.User;
+import com.waveguide.model.entity.Waveguide;
+import com.waveguide.repository.UserRepository;
+import com.waveguide.repository.WaveguideRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Transactional
+public class WaveguideQueryIntegrationTest {
+
+    private static final int WAVEGUIDES = 25;
+    private static final int LAYERS_PER_WAVEGUIDE = 4;
+
+    @Autowired
+    private WaveguideService waveguideService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WaveguideRepository waveguideRepository;
+
+    @Autowired
+    private WaveguideExportService waveguideExportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User owner;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(User.builder()
+                .username("query-" + UUID.randomUUID())
+                .email(UUID.randomUUID() + "@example.com")
+                .passwordHash("encodedPassword")
+                .build());
+        for (int i = 0; i < WAVEGUIDES; i++) {
+            Waveguide waveguide = Waveguide.builder()
+                    .user(owner)
+                    .nEffMin(1.0)
+                    .nEffMax(1.5 + i)
+                    .build();
+            for (int j = 0; j < LAYERS_PER_WAVEGUIDE; j++) {
+                waveguide.addLayer(Layer.builder().E(0.0).reEps(1.0 + j).imEps(0.0).d(1.0).build());
+            }
+            waveguideRepository.save(waveguide);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void getWaveguides_ShouldUseConstantStatementsPerPage() {
+        // Act
+        Page<WaveguideResponse> small = waveguideService.getWaveguides(owner, PageRequest.of(0, 5, Sort.by("nEffMax")));
+        long smallStatements = statistics.getPrepareStatementCount();
+        statistics.clear();
+        Page<WaveguideResponse> large = waveguideService.getWaveguides(owner, PageRequest.of(0, 20, Sort.by("nEffMax")));
+        long largeStatements = statistics.getPrepareStatementCount();
+
+        // Assert: page rows, count, and one query for all layers of the page
+        assertEquals(3, smallStatements);
+        assertEquals(3, largeStatements);
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(WAVEGUIDES, large.getTotalElements());
+        assertEquals(20, large.getContent().size());
+        assertEquals(5, small.getContent().size());
+        for (WaveguideResponse waveguide : large.getContent()) {
+            assertEquals(LAYERS_PER_WAVEGUIDE, waveguide.getLayers().size());
+            for (int j = 0; j < LAYERS_PER_WAVEGUIDE; j++) {
+                assertEquals(j, waveguide.getLayers().get(j).getLayerIndex());
+            }
+        }
+    }
+
+    @Test
+    void getWaveguideById_ShouldLoadLayersInOneStatement() {
+        // Arrange
+        UUID waveguideId = waveguideService.getWaveguides(owner, PageRequest.of(0, 1)).getContent().get(0).getId();
+        statistics.clear();
+
+        // Act
+        WaveguideResponse response = waveguideService.getWaveguideById(waveguideId, owner);
+
+        // Assert
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(LAYERS_PER_WAVEGUIDE, response.getLayers().size());
+    }
+
+    @Test
+    void getWaveguidesByCursor_ShouldWalkAllRowsWithoutCount() {
+        // Arrange
+        List<WaveguideResponse> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+
+        // Act
+        CursorPageResponse<WaveguideResponse> page;
+        do {
+            statistics.clear();
+            page = waveguideService.getWaveguides(owner, cursor, 7, Sort.Direction.DESC);
+            // Rows and layers only; never a count
+            assertEquals(2, statistics.getPrepareStatementCount());
+            seen.addAll(page.getContent());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (!page.isLast());
+
+        // Assert
+        assertEquals(4, pages);
+        assertEquals(WAVEGUIDES, seen.size());
+        assertEquals(WAVEGUIDES, seen.stream().map(WaveguideResponse::getId).distinct().count());
+        for (int i = 1; i < seen.size(); i++) {
+            assertFalse(seen.get(i).getCreatedAt().isAfter(seen.get(i - 1).getCreatedAt()));
+        }
+        seen.forEach(waveguide -> assertEquals(LAYERS_PER_WAVEGUIDE, waveguide.getLayers().size()));
+    }
+
+    @Test
+    void getWaveguidesByCursor_WithMalformedCursor_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () ->
+                waveguideService.getWaveguides(owner, "not-a-cursor", 10, Sort.Direction.DESC));
+    }
+
+    @Test
+    void export_ShouldStreamEveryWaveguideWithLayers() throws Exception {
+        // Arrange
+        ByteArrayOutputStream plain = new ByteArrayOutputStream();
+        ByteArrayOutputStream gzip = new ByteArrayOutputStream();
+
+        // Act
+        waveguideExportService.export(owner.getId(), plain, false);
+        waveguideExportService.export(owner.getId(), gzip, true);
+
+        // Assert
+        String ndjson = plain.toString(StandardCharsets.UTF_8);
+        List<String> lines = ndjson.lines().collect(Collectors.toList());
+        assertEquals(WAVEGUIDES, lines.size());
+        for (String line : lines) {
+            WaveguideResponse waveguide = objectMapper.readValue(line, WaveguideResponse.class);
+            assertEquals(LAYERS_PER_WAVEGUIDE, waveguide.getLayers().size());
+            assertEquals(1.0 + LAYERS_PER_WAVEGUIDE - 1, waveguide.getLayers().get(LAYERS_PER_WAVEGUIDE - 1).getReEps());
+        }
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip.toByteArray()))) {
+            assertEquals(ndjson, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+}
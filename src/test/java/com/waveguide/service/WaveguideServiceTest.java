@@ -7,14 +7,19 @@ import com.waveguide.model.dto.response.WaveguideResponse;
 import com.waveguide.model.entity.Layer;
 import com.waveguide.model.entity.User;
 import com.waveguide.model.entity.Waveguide;
+import com.waveguide.model.projection.LayerRow;
+import com.waveguide.model.projection.WaveguideSummary;
 import com.waveguide.repository.LayerRepository;
 import com.waveguide.repository.WaveguideRepository;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
@@ -38,6 +43,15 @@ public class WaveguideServiceTest {
     @Mock
     private LogService logService;
     
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Mock
+    private Cache entityCache;
+    
     @InjectMocks
     private WaveguideService waveguideService;
     
@@ -129,6 +143,7 @@ public class WaveguideServiceTest {
     @Test
     void getWaveguideById_WithExistingId_ShouldReturnWaveguideResponse() {
         // Arrange
+        when(entityManagerFactory.getCache()).thenReturn(entityCache);
         when(waveguideRepository.findByIdAndUser(testWaveguide.getId(), testUser))
                 .thenReturn(Optional.of(testWaveguide));
         
@@ -149,6 +164,7 @@ public class WaveguideServiceTest {
     void getWaveguideById_WithNonExistingId_ShouldThrowException() {
         // Arrange
         UUID nonExistingId = UUID.randomUUID();
+        when(entityManagerFactory.getCache()).thenReturn(entityCache);
         when(waveguideRepository.findByIdAndUser(nonExistingId, testUser))
                 .thenReturn(Optional.empty());
         
@@ -160,13 +176,36 @@ public class WaveguideServiceTest {
         verify(waveguideRepository).findByIdAndUser(nonExistingId, testUser);
     }
     
+    @Test
+    void getWaveguideById_WhenCached_ShouldLoadByIdAndCheckOwner() {
+        // Arrange
+        User otherUser = User.builder().id(UUID.randomUUID()).username("other").build();
+        when(entityManagerFactory.getCache()).thenReturn(entityCache);
+        when(entityCache.contains(Waveguide.class, testWaveguide.getId())).thenReturn(true);
+        when(waveguideRepository.findById(testWaveguide.getId())).thenReturn(Optional.of(testWaveguide));
+        
+        // Act
+        WaveguideResponse response = waveguideService.getWaveguideById(testWaveguide.getId(), testUser);
+        
+        // Assert
+        assertEquals(testWaveguide.getId(), response.getId());
+        assertThrows(ResourceNotFoundException.class, () -> {
+            waveguideService.getWaveguideById(testWaveguide.getId(), otherUser);
+        });
+        verify(waveguideRepository, never()).findByIdAndUser(any(), any());
+    }
+    
     @Test
     void getWaveguides_ShouldReturnPageOfWaveguideResponses() {
         // Arrange
         Pageable pageable = Pageable.unpaged();
-        Page<Waveguide> waveguidePage = new PageImpl<>(List.of(testWaveguide));
+        WaveguideSummary summary = new WaveguideSummary(
+                testWaveguide.getId(), testWaveguide.getNEffMin(), testWaveguide.getNEffMax(), testWaveguide.getCreatedAt());
+        LayerRow layerRow = new LayerRow(
+                testWaveguide.getId(), testLayer.getId(), 0, testLayer.getE(), testLayer.getReEps(), testLayer.getImEps(), testLayer.getD());
         
-        when(waveguideRepository.findAllByUser(testUser, pageable)).thenReturn(waveguidePage);
+        when(waveguideRepository.findSummariesByUser(testUser, pageable)).thenReturn(new PageImpl<>(List.of(summary)));
+        when(layerRepository.findRowsByWaveguideIds(List.of(testWaveguide.getId()))).thenReturn(List.of(layerRow));
         
         // Act
         Page<WaveguideResponse> responsePage = waveguideService.getWaveguides(testUser, pageable);
@@ -175,8 +214,11 @@ public class WaveguideServiceTest {
         assertNotNull(responsePage);
         assertEquals(1, responsePage.getTotalElements());
         assertEquals(testWaveguide.getId(), responsePage.getContent().get(0).getId());
+        assertEquals(1, responsePage.getContent().get(0).getLayers().size());
+        assertEquals(testLayer.getId(), responsePage.getContent().get(0).getLayers().get(0).getId());
         
-        verify(waveguideRepository).findAllByUser(testUser, pageable);
+        verify(waveguideRepository).findSummariesByUser(testUser, pageable);
+        verify(layerRepository).findRowsByWaveguideIds(List.of(testWaveguide.getId()));
     }
     
     @Test
@@ -190,6 +232,7 @@ public class WaveguideServiceTest {
         // Assert
         verify(waveguideRepository).existsByIdAndUser(testWaveguide.getId(), testUser);
         verify(waveguideRepository).deleteByIdAndUser(testWaveguide.getId(), testUser);
+        verify(eventPublisher).publishEvent(new WaveguideChangedEvent(testWaveguide.getId()));
         verify(logService).logUserAction(eq(testUser), eq("WAVEGUIDE_DELETE"), anyString());
     }
     
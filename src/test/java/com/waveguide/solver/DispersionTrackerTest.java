@@ -0,0 +1,133 @@
+package com.waveguide.solver;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DispersionTrackerTest {
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    private final ModeSolver modeSolver = new ModeSolver(POOL, 4, 64);
+    private final DispersionTracker tracker = new DispersionTracker(modeSolver, 32, 1e-6, 0.1, 0.9, 64, 10000, 16);
+
+    // n_core = 1.5, n_clad = 1.0, d = 1: TE_m is cut off at lambda = 2.236 / m
+    private final LayerStack slab = LayerStack.of(
+            new double[]{0.0, 0.0, 0.0},
+            new double[]{1.0, 2.25, 1.0},
+            new double[]{0.0, 0.0, 0.0},
+            new double[]{0.0, 1.0, 0.0}
+    );
+
+    private final SolveSpec spec = SolveSpec.builder()
+            .polarization(Polarization.TE)
+            .nEffMin(1.0)
+            .nEffMax(1.5)
+            .samples(1024)
+            .tolerance(1e-12)
+            .build();
+
+    @Test
+    void trace_IncreasingWavelength_ShouldFollowEachModeToCutoff() {
+        // Act
+        DispersionCurves curves = tracker.trace(slab, spec, 0.6, 2.0, 1e-5);
+
+        // Assert: four modes at 0.6, TE2 and TE3 reach cutoff on the way
+        assertTrue(curves.isComplete());
+        List<DispersionCurves.Branch> branches = curves.getBranches();
+        assertEquals(4, branches.size());
+        assertEquals(2.0, last(branches.get(0).getWavelength()));
+        assertEquals(2.0, last(branches.get(1).getWavelength()));
+        assertTrue(last(branches.get(2).getWavelength()) < 1.118);
+        assertTrue(last(branches.get(3).getWavelength()) < 0.746);
+        assertTrue(last(branches.get(3).getWavelength()) > 0.7);
+
+        // Every point lies on the mode of the same order found by an independent solve
+        for (DispersionCurves.Branch branch : branches) {
+            for (int i = 0; i < branch.size(); i++) {
+                SolveSpec pointSpec = spec.toBuilder().wavelength(branch.getWavelength()[i]).build();
+                List<Mode> modes = modeSolver.solve(slab, pointSpec).getModes();
+                assertEquals(modes.get(branch.getId()).getNEffRe(), branch.getNEffRe()[i], 1e-9,
+                        "branch " + branch.getId() + " at point " + i);
+            }
+        }
+    }
+
+    @Test
+    void trace_ShouldNeedFarFewerEvaluationsThanUniformGrid() {
+        // Arrange: 200 full solves on a uniform grid, coarser than the tracked curves near cutoff
+        long uniform = 0;
+        double[] grid = ParameterSweep.linspace(0.6, 2.0, 200);
+        for (double lambda : grid) {
+            uniform += modeSolver.solve(slab, spec.toBuilder().wavelength(lambda).build()).getEvaluations();
+        }
+
+        // Act
+        DispersionCurves curves = tracker.trace(slab, spec, 0.6, 2.0, 1e-5);
+
+        // Assert
+        assertTrue(curves.getEvaluations() * 10 < uniform,
+                "tracker used " + curves.getEvaluations() + " evaluations, uniform grid " + uniform);
+    }
+
+    @Test
+    void trace_DecreasingWavelength_ShouldStartBranchesForNewModes() {
+        // Act
+        DispersionCurves curves = tracker.trace(slab, spec, 2.0, 0.6, 1e-5);
+
+        // Assert
+        List<DispersionCurves.Branch> branches = curves.getBranches();
+        assertEquals(4, branches.size());
+        assertEquals(2.0, branches.get(0).getWavelength()[0]);
+        assertEquals(2.0, branches.get(1).getWavelength()[0]);
+        assertTrue(branches.get(2).getWavelength()[0] < 1.118);
+        assertTrue(branches.get(3).getWavelength()[0] < 0.746);
+        for (DispersionCurves.Branch branch : branches) {
+            assertEquals(0.6, last(branch.getWavelength()));
+            assertTrue(branch.getNEffRe()[0] < last(branch.getNEffRe()), "n_eff grows as wavelength shrinks");
+        }
+    }
+
+    @Test
+    void writeTo_ShouldEncodeColumnsLittleEndian() throws Exception {
+        // Arrange
+        DispersionCurves curves = tracker.trace(slab, spec, 1.0, 1.5, 1e-4);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        curves.writeTo(out);
+
+        // Assert
+        ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+        byte[] magic = new byte[4];
+        buffer.get(magic);
+        assertArrayEquals(DispersionCurves.MAGIC, magic);
+        assertEquals(DispersionCurves.FORMAT_VERSION, buffer.getInt());
+        assertEquals(Polarization.TE.ordinal(), buffer.getInt());
+        assertEquals(curves.getBranches().size(), buffer.getInt());
+        buffer.position(40);
+        for (DispersionCurves.Branch branch : curves.getBranches()) {
+            assertEquals(branch.getId(), buffer.getInt());
+            int n = buffer.getInt();
+            assertEquals(branch.size(), n);
+            double[] column = new double[n];
+            buffer.asDoubleBuffer().get(column);
+            assertArrayEquals(branch.getWavelength(), column);
+            buffer.position(buffer.position() + 8 * n);
+            buffer.asDoubleBuffer().get(column);
+            assertArrayEquals(branch.getNEffRe(), column);
+            buffer.position(buffer.position() + 16 * n);
+        }
+        assertFalse(buffer.hasRemaining());
+    }
+
+    private static double last(double[] values) {
+        return values[values.length - 1];
+    }
+}
@@ -0,0 +1,110 @@
+package com.waveguide.solver;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FieldProfileTest {
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(2);
+
+    private final ModeSolver modeSolver = new ModeSolver(POOL, 2, 64);
+
+    // Symmetric slab split into two films, so the core contains an internal interface
+    private final LayerStack slab = LayerStack.of(
+            new double[]{0.0, 0.0, 0.0, 0.0},
+            new double[]{1.0, 2.25, 2.25, 1.0},
+            new double[]{0.0, 0.0, 0.0, 0.0},
+            new double[]{0.0, 0.4, 0.6, 0.0}
+    );
+
+    private List<Mode> solve(Polarization polarization) {
+        SolveSpec spec = SolveSpec.builder()
+                .wavelength(1.0)
+                .polarization(polarization)
+                .nEffMin(1.0)
+                .nEffMax(1.5)
+                .samples(2048)
+                .tolerance(1e-12)
+                .build();
+        return modeSolver.solve(slab, spec).getModes();
+    }
+
+    @Test
+    void evaluate_FundamentalTE_ShouldMatchAnalyticSlabField() {
+        // Arrange
+        double n = solve(Polarization.TE).get(0).getNEffRe();
+        double k0 = 2.0 * Math.PI;
+        double kappa = k0 * Math.sqrt(2.25 - n * n);
+        double gamma = k0 * Math.sqrt(n * n - 1.0);
+        FieldProfile profile = new FieldProfile(slab, Polarization.TE, 1.0, n, 0.0);
+        profile.evaluate(0.5);
+        double peak = profile.re();
+
+        // Act & Assert: cos(kappa (x - d/2)) in the core, exponential decay outside
+        assertEquals(1.0, profile.thickness(), 1e-15);
+        for (double x = -1.0; x <= 2.0; x += 0.01) {
+            profile.evaluate(x);
+            double expected;
+            if (x < 0.0) {
+                expected = Math.cos(kappa / 2.0) * Math.exp(gamma * x);
+            } else if (x < 1.0) {
+                expected = Math.cos(kappa * (x - 0.5));
+            } else {
+                expected = Math.cos(kappa / 2.0) * Math.exp(-gamma * (x - 1.0));
+            }
+            assertEquals(expected, profile.re() / peak, 1e-6, "at x = " + x);
+            assertEquals(0.0, profile.im(), 1e-12);
+        }
+    }
+
+    @Test
+    void evaluate_HigherOrderTM_ShouldBeContinuousAndBounded() {
+        // Arrange
+        List<Mode> modes = solve(Polarization.TM);
+        Mode mode = modes.get(modes.size() - 1);
+        FieldProfile profile = new FieldProfile(slab, Polarization.TM, 1.0, mode.getNEffRe(), 0.0);
+
+        // Act & Assert: H is continuous across every interface and the largest interface value is 1
+        for (double interfaceX : new double[]{0.0, 0.4, 1.0}) {
+            profile.evaluate(interfaceX - 1e-9);
+            double below = profile.re();
+            profile.evaluate(interfaceX + 1e-9);
+            assertEquals(below, profile.re(), 1e-6);
+            assertTrue(Math.abs(below) <= 1.0 + 1e-6);
+        }
+    }
+
+    @Test
+    void write_ShouldStreamLittleEndianValuesOnTheGrid() throws Exception {
+        // Arrange
+        double n = solve(Polarization.TE).get(1).getNEffRe();
+        FieldProfile profile = new FieldProfile(slab, Polarization.TE, 1.0, n, 0.0);
+        ByteArrayOutputStream doubles = new ByteArrayOutputStream();
+        ByteArrayOutputStream floats = new ByteArrayOutputStream();
+        int count = 20_001;
+
+        // Act
+        profile.write(Channels.newChannel(doubles), -1.0, 1e-4, count, false, false);
+        profile.write(Channels.newChannel(floats), -1.0, 1e-4, count, true, true);
+
+        // Assert
+        assertEquals(8L * count, doubles.size());
+        assertEquals(8L * count, floats.size());
+        ByteBuffer d = ByteBuffer.wrap(doubles.toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer f = ByteBuffer.wrap(floats.toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < count; i += 997) {
+            profile.evaluate(-1.0 + i * 1e-4);
+            assertEquals(profile.re(), d.getDouble(8 * i));
+            assertEquals((float) profile.re(), f.getFloat(8 * i));
+            assertEquals(0.0f, Math.abs(f.getFloat(8 * i + 4)));
+        }
+    }
+}
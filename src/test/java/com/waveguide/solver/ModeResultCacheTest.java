@@ -0,0 +1,128 @@
+package com.waveguide.solver;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ModeResultCacheTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ModeResultCache cache;
+    private LayerStack stack;
+    private SolveSpec spec;
+    private ModeSolution solution;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ModeResultCache(meterRegistry, 100, Duration.ofMinutes(5));
+        stack = LayerStack.of(
+                new double[]{0.0, 1.0, 0.0},
+                new double[]{1.0, 2.25, 1.0},
+                new double[]{0.0, 0.0, 0.0},
+                new double[]{0.0, 1.0, 0.0}
+        );
+        spec = SolveSpec.builder()
+                .wavelength(1.0)
+                .polarization(Polarization.TE)
+                .nEffMin(1.0)
+                .nEffMax(1.5)
+                .samples(1024)
+                .tolerance(1e-12)
+                .build();
+        solution = new ModeSolution(List.of(new Mode(0, 1.4, 0.0)), 10, 1000);
+    }
+
+    @Test
+    void digest_ShouldDependOnlyOnStackContent() {
+        String first = ModeResultCache.digest(stack, 1.0, 1.5);
+        String same = ModeResultCache.digest(stack.with(LayerStack.LayerProperty.D, 0, -0.0), 1.0, 1.5);
+        String otherLayer = ModeResultCache.digest(stack.with(LayerStack.LayerProperty.D, 1, 1.1), 1.0, 1.5);
+        String otherWindow = ModeResultCache.digest(stack, 1.0, 1.6);
+
+        assertEquals(first, same);
+        assertNotEquals(first, otherLayer);
+        assertNotEquals(first, otherWindow);
+    }
+
+    @Test
+    void get_WithIdenticalStackFromAnotherWaveguide_ShouldHit() {
+        // Arrange
+        ModeResultCache.Key key = ModeResultCache.key(ModeResultCache.digest(stack, 1.0, 1.5), spec);
+        cache.put(UUID.randomUUID(), key, solution);
+
+        // Act
+        ModeResultCache.Key otherKey = ModeResultCache.key(ModeResultCache.digest(stack, 1.0, 1.5), spec);
+
+        // Assert
+        assertSame(solution, cache.get(otherKey));
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "mode-results").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void invalidate_ShouldKeepEntriesStillUsedByAnotherWaveguide() {
+        // Arrange
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        ModeResultCache.Key key = ModeResultCache.key(ModeResultCache.digest(stack, 1.0, 1.5), spec);
+        cache.put(first, key, solution);
+        cache.put(second, key, solution);
+
+        // Act & Assert
+        cache.invalidate(first);
+        assertNotNull(cache.get(key));
+
+        cache.invalidate(second);
+        assertNull(cache.get(key));
+    }
+
+    @Test
+    void invalidate_ShouldDropEverySolveOfTheOldContentOnly() {
+        // Arrange
+        UUID edited = UUID.randomUUID();
+        String oldDigest = ModeResultCache.digest(stack, 1.0, 1.5);
+        String otherDigest = ModeResultCache.digest(stack.with(LayerStack.LayerProperty.D, 1, 2.0), 1.0, 1.5);
+        ModeResultCache.Key te = ModeResultCache.key(oldDigest, spec);
+        ModeResultCache.Key tm = ModeResultCache.key(oldDigest, spec.toBuilder().polarization(Polarization.TM).build());
+        ModeResultCache.Key other = ModeResultCache.key(otherDigest, spec);
+        cache.put(edited, te, solution);
+        cache.put(edited, tm, solution);
+        cache.put(UUID.randomUUID(), other, solution);
+
+        // Act
+        cache.invalidate(edited);
+
+        // Assert
+        assertNull(cache.get(te));
+        assertNull(cache.get(tm));
+        assertNotNull(cache.get(other));
+    }
+
+    @Test
+    void put_WhenWaveguideContentChanges_ShouldReleaseItsOldDigest() {
+        // Arrange
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        ModeResultCache.Key shared = ModeResultCache.key(ModeResultCache.digest(stack, 1.0, 1.5), spec);
+        ModeResultCache.Key edited = ModeResultCache.key(
+                ModeResultCache.digest(stack.with(LayerStack.LayerProperty.D, 1, 2.0), 1.0, 1.5), spec);
+        cache.put(first, shared, solution);
+        cache.put(second, shared, solution);
+
+        // Act: the second waveguide now has other content, so the first is the last user of the shared one
+        cache.put(second, edited, solution);
+        cache.invalidate(first);
+
+        // Assert
+        assertNull(cache.get(shared));
+        assertNotNull(cache.get(edited));
+    }
+}
@@ -0,0 +1,168 @@
+package com.waveguide.solver;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ModeSolverTest {
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(8);
+
+    private final ModeSolver modeSolver = new ModeSolver(POOL, 8, 64);
+
+    private static LayerStack symmetricSlab(double coreEps, double coreImEps, double cladEps, double thickness) {
+        return LayerStack.of(
+                new double[]{0.0, 0.0, 0.0},
+                new double[]{cladEps, coreEps, cladEps},
+                new double[]{0.0, coreImEps, 0.0},
+                new double[]{0.0, thickness, 0.0}
+        );
+    }
+
+    private static SolveSpec spec(Polarization polarization, double nEffMin, double nEffMax) {
+        return SolveSpec.builder()
+                .wavelength(1.0)
+                .polarization(polarization)
+                .nEffMin(nEffMin)
+                .nEffMax(nEffMax)
+                .samples(2048)
+                .tolerance(1e-12)
+                .build();
+    }
+
+    @Test
+    void solve_SymmetricSlabTE_ShouldMatchAnalyticModes() {
+        // Arrange: n_core = 1.5, n_clad = 1.0, d = lambda gives V = 3.51, so three TE modes
+        LayerStack stack = symmetricSlab(2.25, 0.0, 1.0, 1.0);
+
+        // Act
+        ModeSolution solution = modeSolver.solve(stack, spec(Polarization.TE, 1.0, 1.5));
+
+        // Assert
+        List<Mode> modes = solution.getModes();
+        assertEquals(3, modes.size());
+        double k0 = 2.0 * Math.PI;
+        for (int i = 0; i < modes.size(); i++) {
+            Mode mode = modes.get(i);
+            assertEquals(i, mode.getOrder());
+            assertEquals(0.0, mode.getNEffIm());
+            double n = mode.getNEffRe();
+            double kappa = k0 * Math.sqrt(2.25 - n * n);
+            double gamma = k0 * Math.sqrt(n * n - 1.0);
+            double even = kappa * Math.sin(kappa / 2.0) - gamma * Math.cos(kappa / 2.0);
+            double odd = kappa * Math.cos(kappa / 2.0) + gamma * Math.sin(kappa / 2.0);
+            assertEquals(0.0, even * odd, 1e-6, "mode " + i + " does not satisfy the slab dispersion relation");
+        }
+        assertTrue(modes.get(0).getNEffRe() > modes.get(1).getNEffRe());
+    }
+
+    @Test
+    void solve_SymmetricSlabTM_ShouldFindModesBelowTE() {
+        // Arrange
+        LayerStack stack = symmetricSlab(2.25, 0.0, 1.0, 1.0);
+
+        // Act
+        List<Mode> te = modeSolver.solve(stack, spec(Polarization.TE, 1.0, 1.5)).getModes();
+        List<Mode> tm = modeSolver.solve(stack, spec(Polarization.TM, 1.0, 1.5)).getModes();
+
+        // Assert: same mode count, each TM mode slightly less confined than its TE partner
+        assertEquals(te.size(), tm.size());
+        for (int i = 0; i < te.size(); i++) {
+            assertTrue(tm.get(i).getNEffRe() < te.get(i).getNEffRe());
+        }
+    }
+
+    @Test
+    void solve_LossyCore_ShouldReturnComplexEffectiveIndices() {
+        // Arrange
+        LayerStack lossless = symmetricSlab(2.25, 0.0, 1.0, 1.0);
+        LayerStack lossy = symmetricSlab(2.25, 1e-3, 1.0, 1.0);
+
+        // Act
+        List<Mode> reference = modeSolver.solve(lossless, spec(Polarization.TE, 1.0, 1.5)).getModes();
+        List<Mode> modes = modeSolver.solve(lossy, spec(Polarization.TE, 1.0, 1.5)).getModes();
+
+        // Assert
+        assertEquals(reference.size(), modes.size());
+        for (int i = 0; i < modes.size(); i++) {
+            assertEquals(reference.get(i).getNEffRe(), modes.get(i).getNEffRe(), 1e-3);
+            assertTrue(modes.get(i).getNEffIm() > 0.0);
+        }
+    }
+
+    @Test
+    void solve_WindowBelowCladding_ShouldReturnNoModes() {
+        // Arrange
+        LayerStack stack = symmetricSlab(2.25, 0.0, 1.0, 1.0);
+
+        // Act
+        ModeSolution solution = modeSolver.solve(stack, spec(Polarization.TE, 0.5, 0.9));
+
+        // Assert
+        assertTrue(solution.getModes().isEmpty());
+    }
+
+    @Test
+    void solve_ThickMultilayerStack_ShouldStayFinite() {
+        // Arrange: 200 alternating layers between two air claddings
+        int n = 202;
+        double[] e = new double[n];
+        double[] reEps = new double[n];
+        double[] imEps = new double[n];
+        double[] d = new double[n];
+        reEps[0] = 1.0;
+        reEps[n - 1] = 1.0;
+        for (int i = 1; i < n - 1; i++) {
+            reEps[i] = i % 2 == 0 ? 2.25 : 2.1;
+            d[i] = 0.25;
+        }
+        LayerStack stack = LayerStack.of(e, reEps, imEps, d);
+
+        // Act
+        ModeSolution solution = modeSolver.solve(stack, spec(Polarization.TE, 1.0, 1.5));
+
+        // Assert
+        assertFalse(solution.getModes().isEmpty());
+        solution.getModes().forEach(mode -> assertTrue(Double.isFinite(mode.getNEffRe())));
+    }
+
+    @Test
+    void solve_InParallel_ShouldMatchSequentialResult() {
+        // Arrange
+        LayerStack stack = symmetricSlab(2.25, 0.0, 1.0, 4.0);
+        SolveSpec sequential = spec(Polarization.TE, 1.0, 1.5).toBuilder().parallelism(1).build();
+        SolveSpec parallel = spec(Polarization.TE, 1.0, 1.5).toBuilder().parallelism(8).build();
+
+        // Act
+        ModeSolution expected = modeSolver.solve(stack, sequential);
+        ModeSolution actual = modeSolver.solve(stack, parallel);
+
+        // Assert
+        assertEquals(expected.getModes(), actual.getModes());
+        assertTrue(expected.getModes().size() > 5);
+    }
+
+    @Test
+    void solve_LossyStackInParallel_ShouldNotDuplicateModes() {
+        // Arrange
+        LayerStack stack = symmetricSlab(2.25, 1e-3, 1.0, 4.0);
+        SolveSpec sequential = spec(Polarization.TE, 1.0, 1.5).toBuilder().parallelism(1).build();
+        SolveSpec parallel = spec(Polarization.TE, 1.0, 1.5).toBuilder().parallelism(8).build();
+
+        // Act
+        ModeSolution expected = modeSolver.solve(stack, sequential);
+        ModeSolution actual = modeSolver.solve(stack, parallel);
+
+        // Assert
+        assertEquals(expected.getModes(), actual.getModes());
+    }
+
+    @Test
+    void layerStack_WithSingleLayer_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () ->
+                LayerStack.of(new double[]{0.0}, new double[]{2.25}, new double[]{0.0}, new double[]{1.0}));
+    }
+}
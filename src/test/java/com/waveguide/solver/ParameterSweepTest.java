@@ -0,0 +1,138 @@
+package com.waveguide.solver;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParameterSweepTest {
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    private final ModeSolver modeSolver = new ModeSolver(POOL, 4, 64);
+    private final ParameterSweep parameterSweep = new ParameterSweep(modeSolver, POOL, 4, 32);
+
+    private final LayerStack slab = LayerStack.of(
+            new double[]{0.0, 0.0, 0.0},
+            new double[]{1.0, 2.25, 1.0},
+            new double[]{0.0, 0.0, 0.0},
+            new double[]{0.0, 1.0, 0.0}
+    );
+
+    private final SolveSpec spec = SolveSpec.builder()
+            .wavelength(1.0)
+            .polarization(Polarization.TE)
+            .nEffMin(1.0)
+            .nEffMax(1.5)
+            .samples(1024)
+            .tolerance(1e-12)
+            .build();
+
+    @Test
+    void run_ThicknessSweep_ShouldMatchIndependentSolvesInOrder() throws Exception {
+        // Arrange: thickness sweep crosses several mode cutoffs
+        SweepParameter parameter = SweepParameter.parse("layers[1].d");
+        double[] values = ParameterSweep.linspace(0.5, 2.0, 256);
+        List<SweepPoint> points = new ArrayList<>();
+
+        // Act
+        parameterSweep.run(slab, spec, parameter, values, 4, points::add);
+
+        // Assert
+        assertEquals(values.length, points.size());
+        int continued = 0;
+        for (int i = 0; i < points.size(); i++) {
+            SweepPoint point = points.get(i);
+            assertEquals(i, point.getIndex());
+            List<Mode> expected = modeSolver.solve(slab.with(LayerStack.LayerProperty.D, 1, values[i]), spec).getModes();
+            List<Mode> actual = point.getSolution().getModes();
+            assertEquals(expected.size(), actual.size(), "mode count at point " + i);
+            for (int m = 0; m < expected.size(); m++) {
+                assertEquals(expected.get(m).getNEffRe(), actual.get(m).getNEffRe(), 1e-9);
+            }
+            if (point.isContinued()) {
+                continued++;
+            }
+        }
+        assertTrue(continued > values.length / 2, "most points should be solved by continuation");
+    }
+
+    @Test
+    void run_WavelengthSweep_ShouldSolveEveryPoint() throws Exception {
+        // Arrange
+        SweepParameter parameter = SweepParameter.parse("wavelength");
+        double[] values = ParameterSweep.linspace(0.8, 1.6, 40);
+        List<SweepPoint> points = new ArrayList<>();
+
+        // Act
+        parameterSweep.run(slab, spec, parameter, values, 2, points::add);
+
+        // Assert
+        assertEquals(40, points.size());
+        assertTrue(points.get(0).getSolution().getModes().size()
+                >= points.get(39).getSolution().getModes().size());
+    }
+
+    @Test
+    void run_ShouldDeliverEachPointBeforeItsChunkIsSolved() throws Exception {
+        // Arrange: one chunk, whose solving stalls until the first point has been delivered
+        SweepParameter parameter = SweepParameter.parse("wavelength");
+        double[] values = ParameterSweep.linspace(0.8, 1.6, 64);
+        CountDownLatch firstDelivered = new CountDownLatch(1);
+        AtomicBoolean deliveredWhileSolving = new AtomicBoolean();
+        List<SweepPoint> points = new ArrayList<>();
+
+        // Act
+        parameterSweep.run(slab, spec, parameter, values, 1, point -> {
+            points.add(point);
+            firstDelivered.countDown();
+        }, solved -> {
+            if (solved == 2) {
+                try {
+                    deliveredWhileSolving.set(firstDelivered.await(10, TimeUnit.SECONDS));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+
+        // Assert
+        assertTrue(deliveredWhileSolving.get(), "the first point must be delivered while the chunk is still solving");
+        assertEquals(64, points.size());
+    }
+
+    @Test
+    void run_WhenProgressFails_ShouldStopAndDeliverNoFurtherPoints() {
+        // Arrange
+        SweepParameter parameter = SweepParameter.parse("wavelength");
+        double[] values = ParameterSweep.linspace(0.8, 1.6, 128);
+        List<SweepPoint> points = new ArrayList<>();
+
+        // Act
+        IllegalStateException thrown = assertThrows(IllegalStateException.class,
+                () -> parameterSweep.run(slab, spec, parameter, values, 4, points::add, solved -> {
+                    if (solved == 40) {
+                        throw new IllegalStateException("stop");
+                    }
+                }));
+
+        // Assert
+        assertEquals("stop", thrown.getMessage());
+        assertTrue(points.size() < 40);
+        for (int i = 0; i < points.size(); i++) {
+            assertEquals(i, points.get(i).getIndex());
+        }
+    }
+
+    @Test
+    void parse_WithUnsupportedPath_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> SweepParameter.parse("layers[1].thickness"));
+        assertThrows(IllegalArgumentException.class, () -> SweepParameter.parse("nEffMin"));
+    }
+}